@@ -29,19 +29,13 @@ public class CacheConfig {
     public static final String LANDING_CACHE = "landing";
     public static final String TEMPLATE_CACHE = "template";
     public static final String PRODUCT_CACHE = "product";
+    public static final String ORDER_IDEMPOTENCY_CACHE = "orderIdempotency";
 
     @Bean
     public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        // Create ObjectMapper with JSR310 (Java 8 Date/Time) support
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer()))
                 .entryTtl(Duration.ofHours(1));
 
         return RedisCacheManager.builder(connectionFactory)
@@ -50,7 +44,25 @@ public class CacheConfig {
                 .withCacheConfiguration(LANDING_CACHE, defaultConfig.entryTtl(Duration.ofHours(2)))
                 .withCacheConfiguration(TEMPLATE_CACHE, defaultConfig.entryTtl(Duration.ofHours(24)))
                 .withCacheConfiguration(PRODUCT_CACHE, defaultConfig.entryTtl(Duration.ofHours(1)))
+                .withCacheConfiguration(ORDER_IDEMPOTENCY_CACHE, defaultConfig.entryTtl(Duration.ofHours(24)))
                 .build();
     }
-}
 
+    /**
+     * ObjectMapper of cached values, with JSR310 (Java 8 Date/Time) support
+     */
+    public static ObjectMapper cacheObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+
+    /**
+     * Serializer of cached values. It writes no type information, so a cached DTO is read back as a map:
+     * cache strings and numbers, or give a cache a typed serializer of its own.
+     */
+    public static GenericJackson2JsonRedisSerializer valueSerializer() {
+        return new GenericJackson2JsonRedisSerializer(cacheObjectMapper());
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * @file: OrganizationCacheInvalidationEvent.java
+ * @description: Redis pub/sub message asking services to drop cached data of one organization
+ * @dependencies: none
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.event;
+
+import java.util.List;
+
+/**
+ * Published when an organization's data was written to the database without going through the
+ * owning service (e.g. the Google Sheets bulk import), so the service's own @CacheEvict did not run.
+ *
+ * @param organizationId organization whose content, products and promotions changed
+ * @param landingIds     landings of the organization
+ */
+public record OrganizationCacheInvalidationEvent(Long organizationId, List<Long> landingIds) {
+
+    public static final String CHANNEL = "cache:organization-invalidated";
+}
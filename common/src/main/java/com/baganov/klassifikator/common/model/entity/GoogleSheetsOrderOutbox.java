@@ -0,0 +1,49 @@
+/**
+ * @file: GoogleSheetsOrderOutbox.java
+ * @description: Pending order row waiting to be appended to the Google Sheets orders tab
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "google_sheets_order_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoogleSheetsOrderOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "spreadsheet_id", nullable = false, length = 100)
+    private String spreadsheetId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "row_data", nullable = false, columnDefinition = "TEXT")
+    private String rowData;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
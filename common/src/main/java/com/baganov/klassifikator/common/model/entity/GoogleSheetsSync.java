@@ -51,6 +51,9 @@ public class GoogleSheetsSync {
     @Column(name = "last_sync_status", length = 255)
     private String lastSyncStatus;
 
+    @Column(name = "data_fingerprint", length = 64)
+    private String dataFingerprint;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,41 @@
+/**
+ * @file: GoogleSheetsSyncFingerprint.java
+ * @description: Fingerprint of an organization's Google Sheets data applied by mass sync
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "google_sheets_sync_fingerprints",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"spreadsheet_id", "domain"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoogleSheetsSyncFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "spreadsheet_id", nullable = false, length = 100)
+    private String spreadsheetId;
+
+    @Column(name = "domain", nullable = false, length = 255)
+    private String domain;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "synced_at", nullable = false)
+    private LocalDateTime syncedAt;
+}
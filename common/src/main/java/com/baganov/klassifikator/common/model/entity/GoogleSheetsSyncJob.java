@@ -0,0 +1,86 @@
+/**
+ * @file: GoogleSheetsSyncJob.java
+ * @description: Background run of the Google Sheets mass sync with its progress
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "google_sheets_sync_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoogleSheetsSyncJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "spreadsheet_id", nullable = false, length = 100)
+    private String spreadsheetId;
+
+    @Column(name = "sheet_name", nullable = false, length = 100)
+    private String sheetName;
+
+    @Column(name = "force", nullable = false)
+    private Boolean force;
+
+    @Column(name = "mode", nullable = false, length = 20)
+    private String mode;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "total_rows")
+    private Integer totalRows;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Integer processedRows;
+
+    @Column(name = "created_count", nullable = false)
+    private Integer createdCount;
+
+    @Column(name = "updated_count", nullable = false)
+    private Integer updatedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private Integer skippedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount;
+
+    @Column(name = "deleted_count", nullable = false)
+    private Integer deletedCount;
+
+    @Column(name = "errors", columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Written only by the heartbeat query, so progress saves never move it back
+    @Column(name = "heartbeat_at", updatable = false)
+    private LocalDateTime heartbeatAt;
+}
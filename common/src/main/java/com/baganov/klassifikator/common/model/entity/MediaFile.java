@@ -54,6 +54,9 @@ public class MediaFile {
 
     private Integer height;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,53 @@
+/**
+ * @file: MediaFileVariant.java
+ * @description: Resized derivative of an image media file stored in S3
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "media_file_variants",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"media_file_id", "width", "mime_type"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaFileVariant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "media_file_id", nullable = false)
+    private Long mediaFileId;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    @Column(name = "mime_type", nullable = false, length = 100)
+    private String mimeType;
+
+    @Column(name = "s3_key", nullable = false, length = 500)
+    private String s3Key;
+
+    @Column(name = "file_path", nullable = false, length = 500)
+    private String filePath;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,50 @@
+/**
+ * @file: MediaSource.java
+ * @description: Remote URL ingested into a media file, with HTTP validators for conditional re-fetch
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "media_sources",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"organization_id", "source_url"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaSource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "source_url", nullable = false, length = 2048)
+    private String sourceUrl;
+
+    @Column(name = "media_file_id", nullable = false)
+    private Long mediaFileId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(length = 255)
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,51 @@
+/**
+ * @file: MediaUploadSlot.java
+ * @description: Presigned direct upload to S3 awaiting confirmation
+ * @dependencies: JPA, Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.common.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "media_upload_slots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaUploadSlot {
+
+    // Random, doubles as the token of the confirm call
+    @Id
+    private UUID id;
+
+    @Column(name = "organization_id", nullable = false)
+    private Long organizationId;
+
+    @Column(name = "s3_key", nullable = false, unique = true, length = 500)
+    private String s3Key;
+
+    @Column(name = "original_filename", nullable = false)
+    private String originalFilename;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    // Size declared by the client and signed into the upload URL
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
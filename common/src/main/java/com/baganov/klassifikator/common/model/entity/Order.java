@@ -63,6 +63,9 @@ public class Order {
     @Column(columnDefinition = "TEXT")
     private String comment;
 
+    @Column(name = "idempotency_key", updatable = false)
+    private String idempotencyKey;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
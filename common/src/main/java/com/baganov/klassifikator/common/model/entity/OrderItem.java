@@ -13,6 +13,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "order_items")
@@ -29,6 +30,10 @@ public class OrderItem {
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
+    // Partition key shared with orders.created_at
+    @Column(name = "order_created_at", nullable = false)
+    private LocalDateTime orderCreatedAt;
+
     @Column(name = "product_id")
     private Long productId;
 
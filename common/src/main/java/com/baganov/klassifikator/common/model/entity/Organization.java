@@ -63,6 +63,10 @@ public class Organization {
     @Column(name = "telegram_chat_id", length = 100)
     private String telegramChatId;
 
+    // Orders within this window after a Telegram notification are sent as one digest; null or 0 disables it
+    @Column(name = "telegram_digest_window_seconds")
+    private Integer telegramDigestWindowSeconds;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,12 @@
+-- Idempotency key for order submissions (Idempotency-Key header).
+-- Replayed submissions with the same key return the original order instead of creating a duplicate.
+
+ALTER TABLE orders
+ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
+
+-- Keys are scoped per organization; the partial unique index also settles concurrent duplicates
+CREATE UNIQUE INDEX IF NOT EXISTS idx_orders_organization_idempotency_key
+    ON orders (organization_id, idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+
+COMMENT ON COLUMN orders.idempotency_key IS 'Client-generated key that deduplicates retried order submissions';
@@ -0,0 +1,138 @@
+-- Convert orders and order_items into tables range-partitioned by month of the order creation time.
+-- order_items carries order_created_at so both tables share the partition key and a whole month
+-- of orders with their items can be detached, archived and dropped together.
+
+-- 1. Keep the legacy tables aside; the id sequences survive the drop at the end
+ALTER SEQUENCE orders_id_seq OWNED BY NONE;
+ALTER SEQUENCE order_items_id_seq OWNED BY NONE;
+
+ALTER TABLE order_items RENAME TO order_items_legacy;
+ALTER TABLE orders RENAME TO orders_legacy;
+
+-- Index names must be free for the new tables
+DROP INDEX IF EXISTS idx_orders_organization;
+DROP INDEX IF EXISTS idx_orders_status;
+DROP INDEX IF EXISTS idx_orders_created;
+DROP INDEX IF EXISTS idx_order_items_order;
+DROP INDEX IF EXISTS idx_orders_organization_created_id;
+DROP INDEX IF EXISTS idx_orders_landing_created_id;
+DROP INDEX IF EXISTS idx_orders_status_created_id;
+DROP INDEX IF EXISTS idx_orders_organization_idempotency_key;
+
+-- 2. Partitioned tables (the primary key has to include the partition key)
+CREATE TABLE orders (
+    id BIGINT NOT NULL DEFAULT nextval('orders_id_seq'),
+    organization_id BIGINT NOT NULL,
+    landing_id BIGINT,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(50) NOT NULL,
+    customer_email VARCHAR(255),
+    delivery_address TEXT,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    status VARCHAR(50) DEFAULT 'PENDING',
+    notes TEXT,
+    comment TEXT,
+    idempotency_key VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_orders PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_orders_organizations FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    id BIGINT NOT NULL DEFAULT nextval('order_items_id_seq'),
+    order_id BIGINT NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
+    product_id BIGINT,
+    product_name VARCHAR(255) NOT NULL,
+    product_price DECIMAL(10, 2) NOT NULL,
+    quantity INT NOT NULL DEFAULT 1,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id, order_created_at),
+    CONSTRAINT fk_items_orders FOREIGN KEY (order_id, order_created_at)
+        REFERENCES orders(id, created_at) ON DELETE CASCADE,
+    CONSTRAINT fk_items_products FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE SET NULL
+) PARTITION BY RANGE (order_created_at);
+
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+ALTER SEQUENCE order_items_id_seq OWNED BY order_items.id;
+
+-- Catch-all partitions; the maintenance job creates monthly partitions ahead of time so these stay empty
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+-- 3. Partition management: one partition per calendar month for both tables
+CREATE OR REPLACE FUNCTION create_orders_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    from_ts TIMESTAMP := date_trunc('month', month_start);
+    to_ts TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    suffix TEXT := to_char(from_ts, '"y"YYYY"m"MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                   'orders_' || suffix, from_ts, to_ts);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                   'order_items_' || suffix, from_ts, to_ts);
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', COALESCE(
+            (SELECT MIN(COALESCE(created_at, updated_at)) FROM orders_legacy), CURRENT_TIMESTAMP));
+    last_month DATE := date_trunc('month', CURRENT_TIMESTAMP + INTERVAL '3 months');
+    month_start DATE := first_month;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        PERFORM create_orders_partition(month_start);
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END;
+$$;
+
+-- 4. Indexes (created on the parent, propagated to every partition)
+CREATE INDEX idx_orders_organization_created_id ON orders (organization_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_landing_created_id ON orders (landing_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created_id ON orders (status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_organization_idempotency_key ON orders (organization_id, idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_product ON order_items (product_id);
+
+-- 5. Idempotency keys must stay unique across partitions, which a partitioned index cannot enforce
+CREATE TABLE order_idempotency_keys (
+    organization_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    order_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_order_idempotency_keys PRIMARY KEY (organization_id, idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_keys_created ON order_idempotency_keys (created_at);
+
+-- 6. Move data
+INSERT INTO orders (id, organization_id, landing_id, customer_name, customer_phone, customer_email,
+                    delivery_address, total_amount, status, notes, comment, idempotency_key, created_at, updated_at)
+SELECT id, organization_id, landing_id, customer_name, customer_phone, customer_email,
+       delivery_address, total_amount, status, notes, comment, idempotency_key,
+       COALESCE(created_at, updated_at, CURRENT_TIMESTAMP), updated_at
+FROM orders_legacy;
+
+INSERT INTO order_items (id, order_id, order_created_at, product_id, product_name, product_price, quantity, subtotal)
+SELECT oi.id, oi.order_id, o.created_at, oi.product_id, oi.product_name, oi.product_price, oi.quantity, oi.subtotal
+FROM order_items_legacy oi
+JOIN orders o ON o.id = oi.order_id;
+
+INSERT INTO order_idempotency_keys (organization_id, idempotency_key, order_id, created_at)
+SELECT organization_id, idempotency_key, id, created_at
+FROM orders
+WHERE idempotency_key IS NOT NULL;
+
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+-- Comments
+COMMENT ON TABLE orders IS 'Customer orders from landing pages (partitioned by month of created_at)';
+COMMENT ON TABLE order_items IS 'Items in customer orders (partitioned by month of order_created_at)';
+COMMENT ON COLUMN order_items.order_created_at IS 'Copy of orders.created_at, partition key shared with orders';
+COMMENT ON TABLE order_idempotency_keys IS 'Unique idempotency keys of submitted orders';
+COMMENT ON FUNCTION create_orders_partition(DATE) IS 'Create monthly partitions of orders and order_items';
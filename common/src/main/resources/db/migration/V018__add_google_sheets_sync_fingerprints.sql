@@ -0,0 +1,20 @@
+-- Fingerprints of Google Sheets data used to skip unchanged organizations during sync.
+
+-- Per-organization sync (syncOrganizationData): fingerprint of the last successfully processed range
+ALTER TABLE google_sheets_sync
+ADD COLUMN IF NOT EXISTS data_fingerprint VARCHAR(64);
+
+COMMENT ON COLUMN google_sheets_sync.data_fingerprint IS 'SHA-256 of the sheet rows applied by the last successful sync';
+
+-- Mass sync (sync-all): one fingerprint per domain of the organizations sheet,
+-- covering the organization row together with its goods and promotion rows
+CREATE TABLE IF NOT EXISTS google_sheets_sync_fingerprints (
+    id BIGSERIAL PRIMARY KEY,
+    spreadsheet_id VARCHAR(100) NOT NULL,
+    domain VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    synced_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_google_sheets_sync_fingerprints_domain UNIQUE (spreadsheet_id, domain)
+);
+
+COMMENT ON TABLE google_sheets_sync_fingerprints IS 'Fingerprints of organizations applied by Google Sheets mass sync';
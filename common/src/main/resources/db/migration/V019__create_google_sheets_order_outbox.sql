@@ -0,0 +1,19 @@
+-- Durable write-behind buffer for order rows appended to the Google Sheets "orders" tab.
+-- Rows are removed once a batched append succeeds; failed batches are retried with backoff.
+
+CREATE TABLE IF NOT EXISTS google_sheets_order_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    spreadsheet_id VARCHAR(100) NOT NULL,
+    order_id BIGINT,
+    row_data TEXT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_google_sheets_order_outbox_next_attempt
+    ON google_sheets_order_outbox (next_attempt_at, id);
+
+COMMENT ON TABLE google_sheets_order_outbox IS 'Pending order rows waiting to be appended to Google Sheets';
+COMMENT ON COLUMN google_sheets_order_outbox.row_data IS 'JSON array with the formatted sheet row';
@@ -0,0 +1,29 @@
+-- Content-addressed ingestion of images uploaded from URLs (Google Sheets product images).
+-- Unchanged images reuse the existing media file instead of creating a new S3 object and row.
+
+ALTER TABLE media_files
+ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+COMMENT ON COLUMN media_files.content_hash IS 'SHA-256 of the file content, set for files ingested from URLs';
+
+CREATE INDEX IF NOT EXISTS idx_media_files_organization_content_hash
+    ON media_files (organization_id, content_hash)
+    WHERE content_hash IS NOT NULL;
+
+-- Last known state of each remote URL; validators enable conditional (304) re-fetches
+CREATE TABLE IF NOT EXISTS media_sources (
+    id BIGSERIAL PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    source_url VARCHAR(2048) NOT NULL,
+    media_file_id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    etag VARCHAR(255),
+    last_modified VARCHAR(64),
+    checked_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_media_sources_organization_url UNIQUE (organization_id, source_url),
+    CONSTRAINT fk_media_sources_media_files FOREIGN KEY (media_file_id) REFERENCES media_files(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_media_sources_media_file ON media_sources (media_file_id);
+
+COMMENT ON TABLE media_sources IS 'Remote image URLs ingested into media_files with their HTTP validators';
@@ -0,0 +1,35 @@
+-- Background runs of the Google Sheets mass sync (sync-all).
+-- Progress is written while the job runs, so any replica can serve polling and SSE subscribers.
+
+CREATE TABLE IF NOT EXISTS google_sheets_sync_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    spreadsheet_id VARCHAR(100) NOT NULL,
+    sheet_name VARCHAR(100) NOT NULL,
+    force BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(20) NOT NULL,
+    total_rows INTEGER,
+    processed_rows INTEGER NOT NULL DEFAULT 0,
+    created_count INTEGER NOT NULL DEFAULT 0,
+    updated_count INTEGER NOT NULL DEFAULT 0,
+    skipped_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    deleted_count INTEGER NOT NULL DEFAULT 0,
+    errors TEXT,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- At most one queued or running job per spreadsheet: concurrent triggers join the existing job
+CREATE UNIQUE INDEX IF NOT EXISTS uq_google_sheets_sync_jobs_active
+    ON google_sheets_sync_jobs (spreadsheet_id)
+    WHERE status IN ('QUEUED', 'RUNNING');
+
+CREATE INDEX IF NOT EXISTS idx_google_sheets_sync_jobs_created
+    ON google_sheets_sync_jobs (created_at);
+
+COMMENT ON TABLE google_sheets_sync_jobs IS 'Background Google Sheets mass sync runs and their progress';
+COMMENT ON COLUMN google_sheets_sync_jobs.status IS 'QUEUED, RUNNING, SUCCEEDED or FAILED';
+COMMENT ON COLUMN google_sheets_sync_jobs.errors IS 'JSON array with per-row errors of the run';
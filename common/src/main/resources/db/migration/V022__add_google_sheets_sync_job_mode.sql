@@ -0,0 +1,7 @@
+-- Sync jobs run either the regular mass sync over the services' HTTP APIs or the bulk import,
+-- which stages the sheet rows with COPY and merges them into the content tables directly.
+
+ALTER TABLE google_sheets_sync_jobs
+ADD COLUMN IF NOT EXISTS mode VARCHAR(20) NOT NULL DEFAULT 'SYNC';
+
+COMMENT ON COLUMN google_sheets_sync_jobs.mode IS 'SYNC or BULK_IMPORT';
@@ -0,0 +1,7 @@
+-- Order notification digest: orders of an organization arriving within the window after a notification
+-- are sent as one summary message at the end of the window. NULL or 0 sends every order immediately.
+
+ALTER TABLE organizations
+ADD COLUMN IF NOT EXISTS telegram_digest_window_seconds INTEGER;
+
+COMMENT ON COLUMN organizations.telegram_digest_window_seconds IS 'Telegram order digest window in seconds, NULL or 0 = one message per order';
@@ -0,0 +1,18 @@
+-- Resized derivatives of uploaded images for responsive srcset output.
+-- Each variant lives under a deterministic S3 key next to the original, so regenerating overwrites it.
+
+CREATE TABLE IF NOT EXISTS media_file_variants (
+    id BIGSERIAL PRIMARY KEY,
+    media_file_id BIGINT NOT NULL,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    s3_key VARCHAR(500) NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    file_size BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_media_file_variants_size UNIQUE (media_file_id, width, mime_type),
+    CONSTRAINT fk_media_file_variants_media_files FOREIGN KEY (media_file_id) REFERENCES media_files(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE media_file_variants IS 'Resized image derivatives of media_files, generated by media-service';
@@ -0,0 +1,20 @@
+-- Pending direct-to-storage uploads: a client gets a presigned PUT URL for the key and confirms
+-- the upload afterwards. The id is the unguessable token of the confirm call; confirmed slots are deleted,
+-- expired ones are deleted together with whatever was uploaded under their key.
+
+CREATE TABLE IF NOT EXISTS media_upload_slots (
+    id UUID PRIMARY KEY,
+    organization_id BIGINT NOT NULL,
+    s3_key VARCHAR(500) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    file_size BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_media_upload_slots_s3_key UNIQUE (s3_key),
+    CONSTRAINT fk_media_upload_slots_organizations FOREIGN KEY (organization_id) REFERENCES organizations(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_media_upload_slots_expires_at ON media_upload_slots (expires_at);
+
+COMMENT ON TABLE media_upload_slots IS 'Presigned direct uploads of media-service awaiting confirmation';
@@ -0,0 +1,8 @@
+-- Fingerprint of the order submission an idempotency key was first used with.
+-- A replay with the same key and the same payload returns the original order,
+-- the same key with a different payload is rejected. Keys recorded before this column are not checked.
+
+ALTER TABLE order_idempotency_keys
+ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+
+COMMENT ON COLUMN order_idempotency_keys.request_hash IS 'SHA-256 of the order submission the key was first used with';
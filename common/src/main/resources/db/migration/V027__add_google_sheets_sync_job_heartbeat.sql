@@ -0,0 +1,7 @@
+-- Liveness of a queued or running sync job, refreshed by the owning instance.
+-- Kept apart from updated_at, which changes only with progress and drives SSE events.
+
+ALTER TABLE google_sheets_sync_jobs
+ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP;
+
+COMMENT ON COLUMN google_sheets_sync_jobs.heartbeat_at IS 'Last heartbeat of the instance running the job';
@@ -0,0 +1,54 @@
+/**
+ * @file: OrganizationCacheInvalidationListener.java
+ * @description: Evicts cached content, products and promotions of organizations changed outside this service
+ * @dependencies: Spring Cache, Spring Data Redis, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.content.listener;
+
+import com.baganov.klassifikator.common.event.OrganizationCacheInvalidationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts exactly the keys ContentServiceImpl caches for one organization; a lost message is
+ * bounded by the cache TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrganizationCacheInvalidationListener implements MessageListener {
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            OrganizationCacheInvalidationEvent event =
+                    objectMapper.readValue(message.getBody(), OrganizationCacheInvalidationEvent.class);
+            Long organizationId = event.organizationId();
+
+            evict("content", "org-" + organizationId);
+            evict("product", "org-" + organizationId);
+            evict("product", "org-active-" + organizationId);
+            evict("promotion", "org-active-" + organizationId);
+            log.debug("Evicted cached content of organization {}", organizationId);
+        } catch (Exception e) {
+            log.warn("Failed to handle cache invalidation message: {}", e.getMessage());
+        }
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
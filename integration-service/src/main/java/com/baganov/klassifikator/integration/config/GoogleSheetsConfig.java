@@ -7,6 +7,7 @@
 package com.baganov.klassifikator.integration.config;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
@@ -34,6 +35,13 @@ public class GoogleSheetsConfig {
     @Value("${google.sheets.application-name}")
     private String applicationName;
 
+    // Set explicitly: GoogleSheetsApiClient sizes the order outbox lease from them
+    @Value("${google.sheets.http.connect-timeout-ms:20000}")
+    private int connectTimeoutMs;
+
+    @Value("${google.sheets.http.read-timeout-ms:20000}")
+    private int readTimeoutMs;
+
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
 
     @Bean
@@ -46,7 +54,14 @@ public class GoogleSheetsConfig {
                 .fromStream(new FileInputStream(credentialsPath))
                 .createScoped(Collections.singletonList(SheetsScopes.SPREADSHEETS));
 
-        return new Sheets.Builder(httpTransport, JSON_FACTORY, new HttpCredentialsAdapter(credentials))
+        HttpCredentialsAdapter credentialsAdapter = new HttpCredentialsAdapter(credentials);
+        HttpRequestInitializer requestInitializer = request -> {
+            credentialsAdapter.initialize(request);
+            request.setConnectTimeout(connectTimeoutMs);
+            request.setReadTimeout(readTimeoutMs);
+        };
+
+        return new Sheets.Builder(httpTransport, JSON_FACTORY, requestInitializer)
                 .setApplicationName(applicationName)
                 .build();
     }
@@ -7,18 +7,23 @@
 package com.baganov.klassifikator.integration.controller;
 
 import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncDto;
+import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncJobDto;
 import com.baganov.klassifikator.integration.model.dto.TelegramNotificationDto;
 import com.baganov.klassifikator.integration.service.GoogleSheetsService;
 import com.baganov.klassifikator.integration.service.GoogleSheetsOrderService;
+import com.baganov.klassifikator.integration.service.GoogleSheetsSyncJobService;
 import com.baganov.klassifikator.integration.service.TelegramService;
 import com.baganov.klassifikator.integration.service.TelegramNotificationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +35,7 @@ public class IntegrationController {
 
     private final GoogleSheetsService googleSheetsService;
     private final GoogleSheetsOrderService googleSheetsOrderService;
+    private final GoogleSheetsSyncJobService googleSheetsSyncJobService;
     private final TelegramService telegramService;
     private final TelegramNotificationService telegramNotificationService;
 
@@ -58,14 +64,55 @@ public class IntegrationController {
     /**
      * Mass sync all organizations from Google Sheets
      * Creates new organizations and landings if they don't exist
+     * Unchanged organizations are skipped unless force=true
+     * Runs in the background: returns the queued (or already running) job of the spreadsheet
+     * With wait=true the request blocks until the job finishes and answers 200 with the final counters
+     * (202 if it is still running when the wait times out)
      */
     @PostMapping("/google-sheets/sync-all")
-    public ResponseEntity<Map<String, Object>> syncAllOrganizations(
+    public ResponseEntity<GoogleSheetsSyncJobDto> syncAllOrganizations(
+            @RequestParam(required = false) String spreadsheetId,
+            @RequestParam(defaultValue = "Organizations") String sheetName,
+            @RequestParam(defaultValue = "false") boolean force,
+            @RequestParam(defaultValue = "false") boolean wait) {
+        log.info("POST /api/v1/integration/google-sheets/sync-all?sheetName={}&force={}&wait={}", sheetName, force, wait);
+        GoogleSheetsSyncJobDto job = googleSheetsSyncJobService.submitSyncAll(spreadsheetId, sheetName, force);
+        if (wait) {
+            job = googleSheetsSyncJobService.awaitJob(job.getId());
+            if (job.getFinishedAt() != null) {
+                return ResponseEntity.ok(job);
+            }
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/integration/google-sheets/sync-jobs/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Bulk import all organizations from Google Sheets straight into the database
+     * For onboarding large spreadsheets; runs as a sync job like sync-all
+     */
+    @PostMapping("/google-sheets/bulk-import")
+    public ResponseEntity<GoogleSheetsSyncJobDto> bulkImportOrganizations(
             @RequestParam(required = false) String spreadsheetId,
             @RequestParam(defaultValue = "Organizations") String sheetName) {
-        log.info("POST /api/v1/integration/google-sheets/sync-all?sheetName={}", sheetName);
-        Map<String, Object> result = googleSheetsService.syncAllOrganizationsFromSheet(spreadsheetId, sheetName);
-        return ResponseEntity.ok(result);
+        log.info("POST /api/v1/integration/google-sheets/bulk-import?sheetName={}", sheetName);
+        GoogleSheetsSyncJobDto job = googleSheetsSyncJobService.submitBulkImport(spreadsheetId, sheetName);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/integration/google-sheets/sync-jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/google-sheets/sync-jobs/{jobId}")
+    public ResponseEntity<GoogleSheetsSyncJobDto> getSyncJob(@PathVariable Long jobId) {
+        log.debug("GET /api/v1/integration/google-sheets/sync-jobs/{}", jobId);
+        return ResponseEntity.ok(googleSheetsSyncJobService.getJob(jobId));
+    }
+
+    @GetMapping(value = "/google-sheets/sync-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSyncJob(@PathVariable Long jobId) {
+        log.info("GET /api/v1/integration/google-sheets/sync-jobs/{}/events", jobId);
+        return googleSheetsSyncJobService.subscribe(jobId);
     }
 
     @GetMapping("/google-sheets/read")
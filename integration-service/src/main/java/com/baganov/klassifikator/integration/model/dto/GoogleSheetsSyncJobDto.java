@@ -0,0 +1,47 @@
+/**
+ * @file: GoogleSheetsSyncJobDto.java
+ * @description: State and progress of a background Google Sheets mass sync
+ * @dependencies: Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GoogleSheetsSyncJobDto {
+
+    private Long id;
+    private String spreadsheetId;
+    private String sheetName;
+    private Boolean force;
+    // SYNC or BULK_IMPORT
+    private String mode;
+    private String status;
+
+    // Valid rows of the organizations sheet; null until the sheet has been read
+    private Integer totalRows;
+    private Integer processedRows;
+    private Integer created;
+    private Integer updated;
+    private Integer skipped;
+    private Integer failed;
+    private Integer deleted;
+
+    private List<String> errors;
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.baganov.klassifikator.integration.model.enums;
+
+public enum SyncJobMode {
+    // Row by row through the landing, content and media service APIs
+    SYNC,
+    // Staged with COPY and merged into the database with set-based statements
+    BULK_IMPORT
+}
@@ -0,0 +1,43 @@
+/**
+ * @file: OrganizationRow.java
+ * @description: Typed row of the organizations sheet
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+import java.util.List;
+
+/**
+ * Every text field is trimmed and never null; missing columns and empty cells are ""
+ */
+public record OrganizationRow(
+        int rowNumber,
+        String domain,
+        String name,
+        String category,
+        String type,
+        String phone,
+        String email,
+        String website,
+        String address,
+        String workingHours,
+        String telegramBotToken,
+        String telegramChatId,
+        String title,
+        String description,
+        String h1,
+        String aboutUs,
+        String reviewsWidget,
+        String mapWidget,
+        String companyPhotos,
+        String photos,
+        String features
+) implements SheetRecord {
+
+    @Override
+    public List<String> values() {
+        return List.of(domain, name, category, type, phone, email, website, address, workingHours,
+                telegramBotToken, telegramChatId, title, description, h1, aboutUs, reviewsWidget, mapWidget,
+                companyPhotos, photos, features);
+    }
+}
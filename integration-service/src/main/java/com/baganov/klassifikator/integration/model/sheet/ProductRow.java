@@ -0,0 +1,28 @@
+/**
+ * @file: ProductRow.java
+ * @description: Typed product row (goods sheet or product rows of an organization sheet)
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Text fields are trimmed and never null; an unparseable price is reported as a cell error and read as zero
+ */
+public record ProductRow(
+        int rowNumber,
+        String domain,
+        String name,
+        String description,
+        BigDecimal price,
+        String category,
+        String imageUrl
+) implements SheetRecord {
+
+    @Override
+    public List<String> values() {
+        return List.of(domain, name, description, price.toPlainString(), category, imageUrl);
+    }
+}
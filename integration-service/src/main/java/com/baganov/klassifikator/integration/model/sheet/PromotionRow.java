@@ -0,0 +1,26 @@
+/**
+ * @file: PromotionRow.java
+ * @description: Typed promotion row (promotions sheet or promotion rows of an organization sheet)
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Text fields are trimmed and never null; endDate is null when the cell is empty or not a date
+ */
+public record PromotionRow(
+        int rowNumber,
+        String domain,
+        String title,
+        String description,
+        LocalDate endDate
+) implements SheetRecord {
+
+    @Override
+    public List<String> values() {
+        return List.of(domain, title, description, endDate != null ? endDate.toString() : "");
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * @file: SheetCellError.java
+ * @description: Value of a single Google Sheets cell that could not be parsed
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+/**
+ * @param cell   A1 reference of the cell, e.g. goods!D15
+ * @param header column header as written in the sheet
+ */
+public record SheetCellError(String cell, String header, String value, String message) {
+
+    @Override
+    public String toString() {
+        return cell + " (" + header + "): " + message + ": '" + value + "'";
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * @file: SheetParseResult.java
+ * @description: Typed rows parsed from a sheet together with per-cell errors
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+import java.util.List;
+
+public record SheetParseResult<T extends SheetRecord>(List<T> rows, List<SheetCellError> errors) {
+}
@@ -0,0 +1,21 @@
+/**
+ * @file: SheetRecord.java
+ * @description: Common contract of typed Google Sheets rows
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.model.sheet;
+
+import java.util.List;
+
+public interface SheetRecord {
+
+    /**
+     * 1-based row number in the sheet, for error messages
+     */
+    int rowNumber();
+
+    /**
+     * Mapped cell values in a fixed order; used for change detection, so the row number is not part of it
+     */
+    List<String> values();
+}
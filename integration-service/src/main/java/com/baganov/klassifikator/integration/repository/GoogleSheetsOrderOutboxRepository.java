@@ -0,0 +1,32 @@
+/**
+ * @file: GoogleSheetsOrderOutboxRepository.java
+ * @description: Repository for GoogleSheetsOrderOutbox entity
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.repository;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsOrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GoogleSheetsOrderOutboxRepository extends JpaRepository<GoogleSheetsOrderOutbox, Long> {
+
+    /**
+     * Lock the oldest due rows; rows locked by another instance are skipped instead of waited for
+     */
+    @Query(value = "SELECT * FROM google_sheets_order_outbox " +
+                   "WHERE next_attempt_at <= :now " +
+                   "ORDER BY id " +
+                   "LIMIT :limit " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<GoogleSheetsOrderOutbox> lockDueRows(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByNextAttemptAtLessThanEqual(LocalDateTime now);
+}
@@ -0,0 +1,38 @@
+/**
+ * @file: GoogleSheetsSyncFingerprintRepository.java
+ * @description: Repository for GoogleSheetsSyncFingerprint entity
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.repository;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GoogleSheetsSyncFingerprintRepository extends JpaRepository<GoogleSheetsSyncFingerprint, Long> {
+
+    List<GoogleSheetsSyncFingerprint> findBySpreadsheetId(String spreadsheetId);
+
+    /**
+     * Forget domains that disappeared from the sheet, so they are fully processed if added back
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GoogleSheetsSyncFingerprint f " +
+           "WHERE f.spreadsheetId = :spreadsheetId AND f.domain NOT IN :domains")
+    int deleteBySpreadsheetIdAndDomainNotIn(@Param("spreadsheetId") String spreadsheetId,
+                                           @Param("domains") Collection<String> domains);
+
+    @Modifying
+    @Transactional
+    int deleteBySpreadsheetId(String spreadsheetId);
+}
@@ -0,0 +1,37 @@
+/**
+ * @file: GoogleSheetsSyncJobRepository.java
+ * @description: Repository for GoogleSheetsSyncJob entity
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.repository;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface GoogleSheetsSyncJobRepository extends JpaRepository<GoogleSheetsSyncJob, Long> {
+
+    Optional<GoogleSheetsSyncJob> findFirstBySpreadsheetIdAndStatusInOrderByIdDesc(String spreadsheetId,
+                                                                                  Collection<String> statuses);
+
+    /**
+     * Heartbeat of jobs owned by this instance, so other replicas do not take them for abandoned ones.
+     * updated_at is left alone: it marks progress and is what SSE subscribers are notified about.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GoogleSheetsSyncJob j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.status IN :statuses")
+    int touchActive(@Param("ids") Collection<Long> ids,
+                    @Param("statuses") Collection<String> statuses,
+                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+/**
+ * @file: CacheInvalidationPublisher.java
+ * @description: Publishes organization cache invalidation messages for content-service and landing-service
+ * @dependencies: Spring Data Redis, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.common.event.OrganizationCacheInvalidationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Needed only when data is written to the database directly; writes through the service APIs
+ * evict the caches themselves. A failed publish is logged: stale entries expire with the cache TTL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void organizationChanged(Long organizationId, List<Long> landingIds) {
+        try {
+            String message = objectMapper.writeValueAsString(
+                    new OrganizationCacheInvalidationEvent(organizationId, landingIds));
+            redisTemplate.convertAndSend(OrganizationCacheInvalidationEvent.CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation for organization {}: {}", organizationId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * @file: GoogleSheetsApiClient.java
+ * @description: Quota-aware wrapper around the Google Sheets API client
+ * @dependencies: Google Sheets API, Micrometer
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.util.TokenBucket;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.AppendValuesResponse;
+import com.google.api.services.sheets.v4.model.BatchGetValuesResponse;
+import com.google.api.services.sheets.v4.model.Spreadsheet;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All Sheets API calls of the service go through this client:
+ * - reads and writes take a token from separate buckets sized to the per-minute quota;
+ * - 429 / rateLimitExceeded and 5xx responses are retried with exponential backoff and jitter,
+ *   and a 429 pauses the whole bucket so concurrent callers back off too;
+ * - identical reads in flight at the same time share one request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleSheetsApiClient {
+
+    private static final String METRIC_PREFIX = "google.sheets.";
+
+    private final Sheets sheetsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.sheets.quota.reads-per-minute:60}")
+    private int readsPerMinute;
+
+    @Value("${google.sheets.quota.writes-per-minute:60}")
+    private int writesPerMinute;
+
+    @Value("${google.sheets.quota.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${google.sheets.quota.backoff-base-ms:1000}")
+    private long backoffBaseMs;
+
+    @Value("${google.sheets.quota.backoff-max-ms:64000}")
+    private long backoffMaxMs;
+
+    @Value("${google.sheets.http.connect-timeout-ms:20000}")
+    private int connectTimeoutMs;
+
+    @Value("${google.sheets.http.read-timeout-ms:20000}")
+    private int readTimeoutMs;
+
+    private TokenBucket readBucket;
+    private TokenBucket writeBucket;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlightReads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        readBucket = new TokenBucket(readsPerMinute, Duration.ofMinutes(1));
+        writeBucket = new TokenBucket(writesPerMinute, Duration.ofMinutes(1));
+    }
+
+    public ValueRange getValues(String spreadsheetId, String range) throws IOException {
+        return read("values.get", spreadsheetId + "|" + range,
+                () -> sheetsService.spreadsheets().values().get(spreadsheetId, range).execute());
+    }
+
+    public BatchGetValuesResponse batchGetValues(String spreadsheetId, List<String> ranges) throws IOException {
+        return read("values.batchGet", spreadsheetId + "|" + String.join("|", ranges),
+                () -> sheetsService.spreadsheets().values().batchGet(spreadsheetId).setRanges(ranges).execute());
+    }
+
+    public List<String> getSheetTitles(String spreadsheetId) throws IOException {
+        Spreadsheet spreadsheet = read("spreadsheets.get", spreadsheetId,
+                () -> sheetsService.spreadsheets().get(spreadsheetId).setFields("sheets.properties.title").execute());
+        return spreadsheet.getSheets().stream()
+                .map(sheet -> sheet.getProperties().getTitle())
+                .toList();
+    }
+
+    public AppendValuesResponse appendValues(String spreadsheetId, String range, ValueRange body) throws IOException {
+        return execute("values.append", writeBucket, "write",
+                () -> sheetsService.spreadsheets().values()
+                        .append(spreadsheetId, range, body)
+                        .setValueInputOption("RAW")
+                        .setInsertDataOption("INSERT_ROWS")
+                        .execute());
+    }
+
+    /**
+     * Longest a write can take with all its retries: every attempt waits for a write token and runs
+     * into the connect and read timeouts, and every retry sleeps the longest backoff.
+     * A bucket paused after a 429 waits out the same backoff the caller sleeps, so it adds nothing on top.
+     */
+    public Duration maxWriteDuration() {
+        long perAttemptMs = TimeUnit.MINUTES.toMillis(1) / writesPerMinute + connectTimeoutMs + readTimeoutMs;
+        long backoffTotalMs = 0;
+        for (int attempt = 0; attempt < maxRetries; attempt++) {
+            backoffTotalMs += Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20));
+        }
+        return Duration.ofMillis((maxRetries + 1) * perAttemptMs + backoffTotalMs);
+    }
+
+    /**
+     * Run a read, sharing the result with identical reads already in flight
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T read(String operation, String key, SheetsCall<T> call) throws IOException {
+        String coalescingKey = operation + "|" + key;
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightReads.putIfAbsent(coalescingKey, own);
+
+        if (existing != null) {
+            Counter.builder(METRIC_PREFIX + "coalesced").tag("operation", operation).register(meterRegistry).increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = execute(operation, readBucket, "read", call);
+            own.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReads.remove(coalescingKey, own);
+        }
+    }
+
+    private <T> T execute(String operation, TokenBucket bucket, String kind, SheetsCall<T> call) throws IOException {
+        Timer timer = Timer.builder(METRIC_PREFIX + "requests").tag("operation", operation).register(meterRegistry);
+
+        for (int attempt = 0; ; attempt++) {
+            acquire(bucket, kind);
+
+            long start = System.nanoTime();
+            String outcome = "success";
+            try {
+                return call.execute();
+            } catch (GoogleJsonResponseException e) {
+                outcome = isRateLimited(e) ? "throttled" : "error";
+                if (!isRetryable(e) || attempt >= maxRetries) {
+                    throw e;
+                }
+
+                long delayMs = backoffMs(attempt);
+                if (isRateLimited(e)) {
+                    // Everyone sharing the quota waits, not only this caller
+                    bucket.pauseFor(Duration.ofMillis(delayMs));
+                }
+                Counter.builder(METRIC_PREFIX + "retries").tag("operation", operation).register(meterRegistry).increment();
+                log.warn("Sheets {} failed with {} (attempt {}/{}), retrying in {} ms",
+                        operation, e.getStatusCode(), attempt + 1, maxRetries, delayMs);
+                sleep(delayMs);
+            } catch (IOException | RuntimeException e) {
+                outcome = "error";
+                throw e;
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                Counter.builder(METRIC_PREFIX + "calls")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    private void acquire(TokenBucket bucket, String kind) throws IOException {
+        try {
+            if (bucket.acquire()) {
+                Counter.builder(METRIC_PREFIX + "throttles").tag("kind", kind).register(meterRegistry).increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Sheets " + kind + " quota", e);
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private void sleep(long delayMs) throws IOException {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during Sheets retry backoff", e);
+        }
+    }
+
+    private boolean isRetryable(GoogleJsonResponseException e) {
+        return isRateLimited(e) || e.getStatusCode() >= 500;
+    }
+
+    /**
+     * 429, or 403 with a rate limit reason as returned by older quota errors
+     */
+    public static boolean isRateLimited(Exception e) {
+        if (!(e instanceof GoogleJsonResponseException responseException)) {
+            return false;
+        }
+        int code = responseException.getStatusCode();
+        return code == 429 || (code == 403 && responseException.getDetails() != null
+                && responseException.getDetails().getErrors() != null
+                && responseException.getDetails().getErrors().stream()
+                        .anyMatch(error -> error.getReason() != null && error.getReason().contains("rateLimitExceeded")));
+    }
+
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
+    }
+}
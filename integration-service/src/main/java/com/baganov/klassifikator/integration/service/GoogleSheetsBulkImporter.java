@@ -0,0 +1,534 @@
+/**
+ * @file: GoogleSheetsBulkImporter.java
+ * @description: Imports parsed Google Sheets rows into PostgreSQL with COPY and set-based merges
+ * @dependencies: Spring, PostgreSQL JDBC driver, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.model.sheet.ProductRow;
+import com.baganov.klassifikator.integration.model.sheet.PromotionRow;
+import com.baganov.klassifikator.integration.util.PgCopyWriter;
+import com.baganov.klassifikator.integration.util.SheetFingerprint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Onboarding path for large spreadsheets. Rows are copied into temporary staging tables and merged into
+ * organizations, landings, seo_data, organization_content, products and promotions with a fixed number of
+ * statements in one transaction, instead of several HTTP calls and JPA inserts per row.
+ *
+ * The outcome matches the regular sync: a new domain gets an organization, an ACTIVE landing on the default
+ * template and its SEO data; an existing one (matched by domain, then by subdomain) keeps its organization
+ * and landing; content is overwritten and products and promotions are replaced.
+ *
+ * Product images are taken from media_sources, i.e. URLs media-service has already ingested for the
+ * organization. Domains with images not ingested yet get no fingerprint, so the next regular sync
+ * processes them again and uploads the images.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleSheetsBulkImporter {
+
+    // Same template as the regular sync assigns to new landings (landing-basic)
+    private static final long DEFAULT_TEMPLATE_ID = 1L;
+
+    private static final List<String> CREATE_STAGING_TABLES = List.of("""
+            CREATE TEMP TABLE bulk_organizations (
+                position INTEGER NOT NULL,
+                domain TEXT NOT NULL,
+                subdomain TEXT NOT NULL,
+                name TEXT NOT NULL,
+                category TEXT,
+                type TEXT,
+                address TEXT,
+                phone TEXT,
+                website TEXT,
+                working_hours TEXT,
+                telegram_bot_token TEXT,
+                telegram_chat_id TEXT,
+                title TEXT,
+                meta_description TEXT,
+                h1 TEXT,
+                about_text TEXT,
+                content_data JSONB,
+                organization_id BIGINT,
+                landing_id BIGINT,
+                is_new BOOLEAN NOT NULL DEFAULT FALSE
+            ) ON COMMIT DROP
+            """, """
+            CREATE TEMP TABLE bulk_products (
+                domain TEXT NOT NULL,
+                position INTEGER NOT NULL,
+                name TEXT NOT NULL,
+                description TEXT,
+                price NUMERIC(10, 2),
+                category TEXT,
+                image_url TEXT
+            ) ON COMMIT DROP
+            """, """
+            CREATE TEMP TABLE bulk_promotions (
+                domain TEXT NOT NULL,
+                position INTEGER NOT NULL,
+                title TEXT NOT NULL,
+                description TEXT,
+                end_date DATE
+            ) ON COMMIT DROP
+            """);
+
+    // Autovacuum never analyzes temporary tables
+    private static final String ANALYZE_STAGING_TABLES = "ANALYZE bulk_organizations, bulk_products, bulk_promotions";
+
+    private static final String MATCH_BY_DOMAIN = """
+            UPDATE bulk_organizations b
+            SET organization_id = l.organization_id, landing_id = l.id
+            FROM landings l
+            WHERE l.domain = b.domain
+            """;
+
+    private static final String MATCH_BY_SUBDOMAIN = """
+            UPDATE bulk_organizations b
+            SET organization_id = l.organization_id, landing_id = l.id
+            FROM landings l
+            WHERE b.organization_id IS NULL AND l.subdomain = b.subdomain
+            """;
+
+    // Several sheet domains resolved to one existing organization: the first one in sheet order is kept
+    private static final String DROP_DUPLICATE_MATCHES = """
+            DELETE FROM bulk_organizations b
+            USING bulk_organizations kept
+            WHERE b.organization_id = kept.organization_id AND b.position > kept.position
+            RETURNING b.domain, kept.domain
+            """;
+
+    private static final String ALLOCATE_IDS = """
+            UPDATE bulk_organizations
+            SET organization_id = nextval(pg_get_serial_sequence('organizations', 'id')),
+                landing_id = nextval(pg_get_serial_sequence('landings', 'id')),
+                is_new = TRUE
+            WHERE organization_id IS NULL
+            """;
+
+    private static final String INSERT_ORGANIZATIONS = """
+            INSERT INTO organizations (id, name, category, type, address, phone, website, working_hours, status,
+                                       google_sheet_id, telegram_bot_token, telegram_chat_id, created_at, updated_at)
+            SELECT organization_id, name, category, type, address, phone, website, working_hours, 'ACTIVE',
+                   ?, telegram_bot_token, telegram_chat_id, ?, ?
+            FROM bulk_organizations
+            WHERE is_new
+            ORDER BY position
+            """;
+
+    private static final String INSERT_LANDINGS = """
+            INSERT INTO landings (id, organization_id, domain, subdomain, template_id, status, ssl_enabled,
+                                  created_at, updated_at)
+            SELECT landing_id, organization_id, domain, subdomain, ?, 'ACTIVE', FALSE, ?, ?
+            FROM bulk_organizations
+            WHERE is_new
+            ORDER BY position
+            """;
+
+    private static final String INSERT_SEO_DATA = """
+            INSERT INTO seo_data (landing_id, title, meta_description, og_title, og_description, created_at, updated_at)
+            SELECT landing_id, title, meta_description, title, meta_description, ?, ?
+            FROM bulk_organizations
+            WHERE is_new
+            """;
+
+    private static final String UPDATE_CONTENT = """
+            UPDATE organization_content c
+            SET title = b.title, meta_description = b.meta_description, h1 = b.h1, about_text = b.about_text,
+                content_data = b.content_data, version = COALESCE(c.version, 0) + 1, updated_at = ?
+            FROM bulk_organizations b
+            WHERE c.organization_id = b.organization_id
+            """;
+
+    private static final String INSERT_CONTENT = """
+            INSERT INTO organization_content (organization_id, title, meta_description, h1, about_text, content_data,
+                                              version, created_at, updated_at)
+            SELECT b.organization_id, b.title, b.meta_description, b.h1, b.about_text, b.content_data, 1, ?, ?
+            FROM bulk_organizations b
+            WHERE NOT EXISTS (SELECT 1 FROM organization_content c WHERE c.organization_id = b.organization_id)
+            """;
+
+    private static final String DELETE_PRODUCTS = """
+            DELETE FROM products p
+            USING bulk_organizations b
+            WHERE p.organization_id = b.organization_id AND NOT b.is_new
+            """;
+
+    private static final String INSERT_PRODUCTS = """
+            INSERT INTO products (organization_id, category, name, description, price, image_id, is_active,
+                                  created_at, updated_at)
+            SELECT b.organization_id, p.category, p.name, p.description, p.price, s.media_file_id, TRUE, ?, ?
+            FROM bulk_products p
+            JOIN bulk_organizations b ON b.domain = p.domain
+            LEFT JOIN media_sources s ON s.organization_id = b.organization_id AND s.source_url = p.image_url
+            ORDER BY b.position, p.position
+            """;
+
+    private static final String DOMAINS_WITH_PENDING_IMAGES = """
+            SELECT DISTINCT p.domain
+            FROM bulk_products p
+            JOIN bulk_organizations b ON b.domain = p.domain
+            LEFT JOIN media_sources s ON s.organization_id = b.organization_id AND s.source_url = p.image_url
+            WHERE p.image_url IS NOT NULL AND s.id IS NULL
+            """;
+
+    private static final String DELETE_PROMOTIONS = """
+            DELETE FROM promotions p
+            USING bulk_organizations b
+            WHERE p.organization_id = b.organization_id AND NOT b.is_new
+            """;
+
+    private static final String INSERT_PROMOTIONS = """
+            INSERT INTO promotions (organization_id, title, description, end_date, is_active, created_at, updated_at)
+            SELECT b.organization_id, p.title, p.description, p.end_date, TRUE, ?, ?
+            FROM bulk_promotions p
+            JOIN bulk_organizations b ON b.domain = p.domain
+            ORDER BY b.position, p.position
+            """;
+
+    private static final String SELECT_MERGED = """
+            SELECT b.domain, b.organization_id, b.is_new,
+                   ARRAY(SELECT l.id FROM landings l WHERE l.organization_id = b.organization_id) AS landing_ids
+            FROM bulk_organizations b
+            """;
+
+    private static final String UPSERT_FINGERPRINT = """
+            INSERT INTO google_sheets_sync_fingerprints (spreadsheet_id, domain, fingerprint, synced_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (spreadsheet_id, domain) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint, synced_at = EXCLUDED.synced_at
+            """;
+
+    private static final String DELETE_FINGERPRINT =
+            "DELETE FROM google_sheets_sync_fingerprints WHERE spreadsheet_id = ? AND domain = ?";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    /**
+     * Import the rows of a mass sync in one transaction, then invalidate caches once per organization
+     *
+     * @param rowsByDomain valid organization rows grouped by domain, in sheet order
+     * @return per-row counters as in the regular sync, and the errors of skipped rows
+     */
+    public Result importOrganizations(String spreadsheetId,
+                                      Map<String, List<OrganizationRow>> rowsByDomain,
+                                      Map<String, List<ProductRow>> productsByDomain,
+                                      Map<String, List<PromotionRow>> promotionsByDomain) {
+        long startedAt = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        int failed = 0;
+
+        List<StagedOrganization> staged = new ArrayList<>();
+        Map<String, String> domainBySubdomain = new HashMap<>();
+        for (List<OrganizationRow> domainRows : rowsByDomain.values()) {
+            // The regular sync applies the rows of a domain one after another, so the last row wins
+            OrganizationRow row = domainRows.get(domainRows.size() - 1);
+            String subdomain = row.domain().split("\\.")[0];
+            String problem = validate(row);
+            if (problem == null && domainBySubdomain.containsKey(subdomain)) {
+                problem = "subdomain '" + subdomain + "' is already used by " + domainBySubdomain.get(subdomain);
+            }
+            if (problem != null) {
+                failed += domainRows.size();
+                errors.add("Organization row " + row.rowNumber() + " (" + row.domain() + ") skipped: " + problem);
+                continue;
+            }
+            domainBySubdomain.put(subdomain, row.domain());
+            staged.add(new StagedOrganization(staged.size(), row, subdomain, domainRows.size(),
+                    SheetFingerprint.of(domainRows,
+                            productsByDomain.getOrDefault(row.domain(), List.of()),
+                            promotionsByDomain.getOrDefault(row.domain(), List.of()))));
+        }
+
+        Map<String, Integer> rowCounts = new HashMap<>();
+        staged.forEach(organization -> rowCounts.put(organization.row().domain(), organization.rowCount()));
+
+        List<MergedOrganization> merged = new ArrayList<>();
+        Set<String> pendingImageDomains = new HashSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                stage(connection, staged, productsByDomain, promotionsByDomain, errors);
+                failed += merge(connection, spreadsheetId, rowCounts, errors);
+                pendingImageDomains.addAll(queryStrings(connection, DOMAINS_WITH_PENDING_IMAGES));
+                merged.addAll(readMerged(connection));
+                storeFingerprints(connection, spreadsheetId, staged, merged, pendingImageDomains);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (Exception e) {
+            log.error("Bulk import of spreadsheet {} failed", spreadsheetId, e);
+            throw new RuntimeException("Bulk import failed: " + e.getMessage());
+        }
+
+        // One message per organization, only after the data is visible to the services
+        for (MergedOrganization organization : merged) {
+            cacheInvalidationPublisher.organizationChanged(organization.organizationId(), organization.landingIds());
+        }
+
+        int created = 0;
+        int updated = 0;
+        for (MergedOrganization organization : merged) {
+            int rows = rowCounts.getOrDefault(organization.domain(), 1);
+            created += organization.isNew() ? 1 : 0;
+            updated += organization.isNew() ? rows - 1 : rows;
+        }
+
+        log.info("Bulk import of spreadsheet {}: {} created, {} updated, {} failed, {} domains with images to upload in {} ms",
+                spreadsheetId, created, updated, failed, pendingImageDomains.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return new Result(created, updated, failed, pendingImageDomains.size(), errors);
+    }
+
+    private void stage(Connection connection,
+                       List<StagedOrganization> staged,
+                       Map<String, List<ProductRow>> productsByDomain,
+                       Map<String, List<PromotionRow>> promotionsByDomain,
+                       List<String> errors) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : CREATE_STAGING_TABLES) {
+                statement.execute(sql);
+            }
+        }
+
+        try (PgCopyWriter copy = PgCopyWriter.open(connection, "bulk_organizations",
+                "position", "domain", "subdomain", "name", "category", "type", "address", "phone", "website",
+                "working_hours", "telegram_bot_token", "telegram_chat_id", "title", "meta_description", "h1",
+                "about_text", "content_data")) {
+            for (StagedOrganization organization : staged) {
+                OrganizationRow row = organization.row();
+                copy.row(organization.position(), row.domain(), organization.subdomain(), row.name(),
+                        GoogleSheetsDataProcessor.orDefault(row.category(), "Общее"),
+                        GoogleSheetsDataProcessor.orDefault(row.type(), "Компания"),
+                        row.address(), row.phone(), row.website(), row.workingHours(),
+                        row.telegramBotToken(), row.telegramChatId(),
+                        GoogleSheetsDataProcessor.orDefault(row.title(), row.name()), row.description(),
+                        GoogleSheetsDataProcessor.orDefault(row.h1(), row.name()), row.aboutUs(),
+                        objectMapper.writeValueAsString(GoogleSheetsDataProcessor.contentData(row)));
+            }
+            copy.finish();
+        }
+
+        long products;
+        try (PgCopyWriter copy = PgCopyWriter.open(connection, "bulk_products",
+                "domain", "position", "name", "description", "price", "category", "image_url")) {
+            for (StagedOrganization organization : staged) {
+                List<ProductRow> rows = productsByDomain.getOrDefault(organization.row().domain(), List.of());
+                for (int position = 0; position < rows.size(); position++) {
+                    ProductRow product = rows.get(position);
+                    String problem = validate(product);
+                    if (problem != null) {
+                        errors.add("Product row " + product.rowNumber() + " (" + product.domain() + ") skipped: " + problem);
+                        continue;
+                    }
+                    copy.row(product.domain(), position, product.name(), product.description(), product.price(),
+                            product.category(), product.imageUrl().isEmpty() ? null : product.imageUrl());
+                }
+            }
+            products = copy.finish();
+        }
+
+        long promotions;
+        try (PgCopyWriter copy = PgCopyWriter.open(connection, "bulk_promotions",
+                "domain", "position", "title", "description", "end_date")) {
+            for (StagedOrganization organization : staged) {
+                List<PromotionRow> rows = promotionsByDomain.getOrDefault(organization.row().domain(), List.of());
+                for (int position = 0; position < rows.size(); position++) {
+                    PromotionRow promotion = rows.get(position);
+                    String problem = tooLong("Акция", promotion.title(), 255);
+                    if (problem != null) {
+                        errors.add("Promotion row " + promotion.rowNumber() + " (" + promotion.domain() + ") skipped: " + problem);
+                        continue;
+                    }
+                    copy.row(promotion.domain(), position, promotion.title(), promotion.description(), promotion.endDate());
+                }
+            }
+            promotions = copy.finish();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(ANALYZE_STAGING_TABLES);
+        }
+        log.info("Staged {} organizations, {} products and {} promotions", staged.size(), products, promotions);
+    }
+
+    /**
+     * Merge the staging tables into the content tables
+     *
+     * @return number of organization rows dropped because their domain resolved to an already staged organization
+     */
+    private int merge(Connection connection, String spreadsheetId, Map<String, Integer> rowCounts,
+                      List<String> errors) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        execute(connection, MATCH_BY_DOMAIN);
+        execute(connection, MATCH_BY_SUBDOMAIN);
+
+        int dropped = 0;
+        try (PreparedStatement statement = connection.prepareStatement(DROP_DUPLICATE_MATCHES);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                dropped += rowCounts.getOrDefault(rs.getString(1), 1);
+                errors.add("Organization " + rs.getString(1) + " skipped: its landing is matched by "
+                        + rs.getString(2) + " as well");
+            }
+        }
+
+        int created = execute(connection, ALLOCATE_IDS);
+        execute(connection, INSERT_ORGANIZATIONS, spreadsheetId, now, now);
+        execute(connection, INSERT_LANDINGS, DEFAULT_TEMPLATE_ID, now, now);
+        execute(connection, INSERT_SEO_DATA, now, now);
+
+        int contentUpdated = execute(connection, UPDATE_CONTENT, now);
+        int contentCreated = execute(connection, INSERT_CONTENT, now, now);
+
+        int productsDeleted = execute(connection, DELETE_PRODUCTS);
+        int productsCreated = execute(connection, INSERT_PRODUCTS, now, now);
+        int promotionsDeleted = execute(connection, DELETE_PROMOTIONS);
+        int promotionsCreated = execute(connection, INSERT_PROMOTIONS, now, now);
+
+        log.info("Merged {} new organizations; content {} updated, {} created; products {} replaced by {}; promotions {} replaced by {}",
+                created, contentUpdated, contentCreated, productsDeleted, productsCreated, promotionsDeleted, promotionsCreated);
+        return dropped;
+    }
+
+    private List<MergedOrganization> readMerged(Connection connection) throws SQLException {
+        List<MergedOrganization> merged = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_MERGED);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                Long[] landingIds = (Long[]) rs.getArray("landing_ids").getArray();
+                merged.add(new MergedOrganization(rs.getString("domain"), rs.getLong("organization_id"),
+                        rs.getBoolean("is_new"), List.of(landingIds)));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Remember the imported domains for the incremental sync; domains with images still to upload are
+     * forgotten instead, so the next regular sync processes them
+     */
+    private void storeFingerprints(Connection connection, String spreadsheetId, List<StagedOrganization> staged,
+                                   List<MergedOrganization> merged, Set<String> pendingImageDomains) throws SQLException {
+        Map<String, String> fingerprints = new HashMap<>();
+        staged.forEach(organization -> fingerprints.put(organization.row().domain(), organization.fingerprint()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT_FINGERPRINT);
+             PreparedStatement delete = connection.prepareStatement(DELETE_FINGERPRINT)) {
+            for (MergedOrganization organization : merged) {
+                if (pendingImageDomains.contains(organization.domain())) {
+                    delete.setString(1, spreadsheetId);
+                    delete.setString(2, organization.domain());
+                    delete.addBatch();
+                } else {
+                    upsert.setString(1, spreadsheetId);
+                    upsert.setString(2, organization.domain());
+                    upsert.setString(3, fingerprints.get(organization.domain()));
+                    upsert.setTimestamp(4, now);
+                    upsert.addBatch();
+                }
+            }
+            upsert.executeBatch();
+            delete.executeBatch();
+        }
+    }
+
+    private int execute(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private List<String> queryStrings(Connection connection, String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Rows the regular sync would fail on are rejected before COPY, where they would abort the whole import
+     */
+    private static String validate(OrganizationRow row) {
+        return Stream.of(
+                        tooLong("Домен", row.domain(), 255),
+                        tooLong("Название", row.name(), 255),
+                        tooLong("Категория", row.category(), 100),
+                        tooLong("Тип", row.type(), 100),
+                        tooLong("Телефон", row.phone(), 50),
+                        tooLong("Сайт", row.website(), 255),
+                        tooLong("Токен бота", row.telegramBotToken(), 500),
+                        tooLong("Chat ID", row.telegramChatId(), 100),
+                        tooLong("Title", GoogleSheetsDataProcessor.orDefault(row.title(), row.name()), 255),
+                        tooLong("H1", GoogleSheetsDataProcessor.orDefault(row.h1(), row.name()), 255))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String validate(ProductRow row) {
+        // products.price is NUMERIC(10, 2)
+        if (row.price() != null && row.price().setScale(2, RoundingMode.HALF_UP).precision() > 10) {
+            return "Цена " + row.price().toPlainString() + " is too large";
+        }
+        return Stream.of(tooLong("Товар", row.name(), 255), tooLong("Категория", row.category(), 100))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String tooLong(String column, String value, int maxLength) {
+        return value != null && value.length() > maxLength
+                ? column + " is longer than " + maxLength + " characters"
+                : null;
+    }
+
+    /**
+     * Outcome of a bulk import; counters are per organization row, as in the regular sync
+     *
+     * @param pendingImageDomains domains whose product images are uploaded by the next regular sync
+     */
+    public record Result(int created, int updated, int failed, int pendingImageDomains, List<String> errors) {
+    }
+
+    private record StagedOrganization(int position, OrganizationRow row, String subdomain, int rowCount,
+                                      String fingerprint) {
+    }
+
+    private record MergedOrganization(String domain, Long organizationId, boolean isNew, List<Long> landingIds) {
+    }
+}
@@ -6,6 +6,9 @@
  */
 package com.baganov.klassifikator.integration.service;
 
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.model.sheet.ProductRow;
+import com.baganov.klassifikator.integration.model.sheet.PromotionRow;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -15,9 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -56,131 +56,48 @@ public class GoogleSheetsDataProcessor {
 
     /**
      * Process Google Sheets data and update organization
+     * Products and promotions are replaced only when the sheet contains any
      */
-    public void processAndUpdateOrganization(Long organizationId, List<Map<String, Object>> sheetData) {
-        log.info("Processing {} rows for organization {}", sheetData.size(), organizationId);
-
-        if (sheetData.isEmpty()) {
-            log.warn("No data to process");
-            return;
-        }
-
-        // Assuming first row contains organization data
-        Map<String, Object> orgData = sheetData.get(0);
+    public void processAndUpdateOrganization(Long organizationId, OrganizationRow organization,
+                                             List<ProductRow> products, List<PromotionRow> promotions) {
+        log.info("Processing organization {} with {} products and {} promotions",
+                organizationId, products.size(), promotions.size());
 
         // Update organization content
-        updateOrganizationContent(organizationId, orgData);
+        updateOrganizationContent(organizationId, organization);
 
-        // Process products (if any)
-        List<Map<String, Object>> products = extractProducts(sheetData);
+        // Process products and promotions (if any); a failed item does not stop the others
+        List<String> failures = new ArrayList<>();
         if (!products.isEmpty()) {
-            updateProducts(organizationId, products);
+            failures.addAll(updateProducts(organizationId, products));
         }
-
-        // Process promotions (if any)
-        List<Map<String, Object>> promotions = extractPromotions(sheetData);
         if (!promotions.isEmpty()) {
-            updatePromotions(organizationId, promotions);
+            failures.addAll(updatePromotions(organizationId, promotions));
         }
+        failIfAny(organizationId, failures);
 
         log.info("Successfully processed data for organization {}", organizationId);
     }
 
-    /**
-     * Helper method to get string value with fallback for trailing spaces
-     * Tries field name with and without trailing space
-     */
-    private String getStringValueWithFallback(Map<String, Object> data, String key, String defaultValue) {
-        // Try both with and without trailing space
-        String value = getStringValue(data, key, key + " ", key.trim());
-        if (!value.isEmpty()) {
-            log.debug("Found value for key '{}': {}", key, value.length() > 50 ? value.substring(0, 50) + "..." : value);
-            return value;
-        }
-        
-        log.debug("No value found for key '{}', using default: '{}'", key, defaultValue);
-        return defaultValue;
-    }
-    
     /**
      * Update organization content
      */
-    private void updateOrganizationContent(Long organizationId, Map<String, Object> data) {
+    private void updateOrganizationContent(Long organizationId, OrganizationRow data) {
         log.debug("Updating content for organization {}", organizationId);
 
-        // Create additional content data
-        Map<String, Object> additionalData = new HashMap<>();
-        additionalData.put("phone", getStringValueWithFallback(data, "Телефон", ""));
-        additionalData.put("email", getStringValueWithFallback(data, "Email", ""));
-        additionalData.put("address", getStringValueWithFallback(data, "Адрес", ""));
-        additionalData.put("workingHours", getStringValueWithFallback(data, "Режим работы", ""));
-        additionalData.put("organizationName", getStringValueWithFallback(data, "Название", ""));
-        additionalData.put("category", getStringValueWithFallback(data, "Категория", ""));
-        additionalData.put("type", getStringValueWithFallback(data, "Тип", ""));
-        additionalData.put("domain", getStringValueWithFallback(data, "Домен", ""));
-        
-        // Yandex Reviews Widget (HTML код виджета)
-        String reviewsWidget = getStringValueWithFallback(data, "Отзывы", "");
-        if (!reviewsWidget.isEmpty()) {
-            additionalData.put("yandexReviewsWidget", reviewsWidget);
-        }
-        
-        // Yandex Map Widget (HTML код виджета карты)
-        String mapWidget = getStringValueWithFallback(data, "Карта", "");
-        if (!mapWidget.isEmpty()) {
-            additionalData.put("yandexMapWidget", mapWidget);
-        }
-        
-        // Company Photos for Hero Slider (ссылки на изображения для слайдера)
-        String companyPhotosStr = getStringValueWithFallback(data, "Фото компании", "");
-        if (!companyPhotosStr.isEmpty()) {
-            List<String> companyPhotosList = Arrays.stream(companyPhotosStr.split("[,;\\n]"))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .collect(Collectors.toList());
-            additionalData.put("companyPhotos", companyPhotosList);
-        }
-        
-        // Photos (ссылки на изображения для фотогалереи)
-        String photosStr = getStringValueWithFallback(data, "Фото", "");
-        if (!photosStr.isEmpty()) {
-            // Если это URL на папку S3 или список URL через запятую
-            List<String> photosList = Arrays.stream(photosStr.split("[,;\\n]"))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .collect(Collectors.toList());
-            additionalData.put("photos", photosList);
-        }
-        
-        // Features (особенности организации, разделенные запятой)
-        String featuresStr = getStringValueWithFallback(data, "Особенности", "");
-        if (!featuresStr.isEmpty()) {
-            List<String> featuresList = Arrays.stream(featuresStr.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .collect(Collectors.toList());
-            additionalData.put("features", featuresList);
-        }
-
         // Create ContentDto matching the expected structure
         Map<String, Object> contentDto = new HashMap<>();
         contentDto.put("organizationId", organizationId);
-        contentDto.put("title", getStringValueWithFallback(data, "Title", getStringValueWithFallback(data, "Название", "")));
-        contentDto.put("metaDescription", getStringValueWithFallback(data, "Description", ""));
-        contentDto.put("h1", getStringValueWithFallback(data, "H1", getStringValueWithFallback(data, "Название", "")));
+        contentDto.put("title", orDefault(data.title(), data.name()));
+        contentDto.put("metaDescription", data.description());
+        contentDto.put("h1", orDefault(data.h1(), data.name()));
         
         // About Us text
-        String aboutUsText = getStringValueWithFallback(data, "О нас", "");
-        contentDto.put("aboutText", aboutUsText);
-        
-        // Also add to additional data for template rendering
-        if (!aboutUsText.isEmpty()) {
-            additionalData.put("aboutUs", aboutUsText);
-        }
+        contentDto.put("aboutText", data.aboutUs());
         
-        contentDto.put("contentData", additionalData);
+        contentDto.put("contentData", contentData(data));
 
-        WebClient webClient = webClientBuilder.baseUrl(contentServiceUrl).build();
+        WebClient webClient = webClientBuilder.clone().baseUrl(contentServiceUrl).build();
 
         try {
             webClient.post()
@@ -198,64 +115,63 @@ public class GoogleSheetsDataProcessor {
     }
 
     /**
-     * Extract products from sheet data
+     * Additional content data (contentData) of the organization, as used for template rendering
      */
-    private List<Map<String, Object>> extractProducts(List<Map<String, Object>> sheetData) {
-        // Look for rows that contain product data
-        // Assuming products start from row 2 and have specific columns
-        return sheetData.stream()
-                .filter(row -> hasValue(row, "Товар", "Товар ", "Product"))
-                .map(row -> {
-                    Map<String, Object> product = new HashMap<>();
-                    product.put("name", getStringValue(row, "Товар", "Товар ", "Product"));
-                    product.put("description", getStringValue(row, "Описание товара", "Описание товара ", ""));
-                    // Try multiple variants of "Цена" with/without spaces
-                    String priceKey = hasValue(row, "Цена ") ? "Цена " : "Цена";
-                    product.put("price", getPriceValue(row, priceKey, "0"));
-                    product.put("category", getStringValue(row, "Категория товара", "Категория", ""));
-                    product.put("isActive", true);
-                    
-                    // Process image URL if provided
-                    String imageUrl = getStringValue(row, "Изображение", "Изображение ", "Image");
-                    if (!imageUrl.isEmpty()) {
-                        product.put("imageUrl", imageUrl);
-                    }
-                    
-                    return product;
-                })
-                .filter(product -> !product.get("name").toString().isEmpty())
-                .collect(Collectors.toList());
-    }
+    static Map<String, Object> contentData(OrganizationRow data) {
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("phone", data.phone());
+        additionalData.put("email", data.email());
+        additionalData.put("address", data.address());
+        additionalData.put("workingHours", data.workingHours());
+        additionalData.put("organizationName", data.name());
+        additionalData.put("category", data.category());
+        additionalData.put("type", data.type());
+        additionalData.put("domain", data.domain());
+        
+        // Yandex Reviews Widget (HTML код виджета)
+        if (!data.reviewsWidget().isEmpty()) {
+            additionalData.put("yandexReviewsWidget", data.reviewsWidget());
+        }
+        
+        // Yandex Map Widget (HTML код виджета карты)
+        if (!data.mapWidget().isEmpty()) {
+            additionalData.put("yandexMapWidget", data.mapWidget());
+        }
+        
+        // Company Photos for Hero Slider (ссылки на изображения для слайдера)
+        if (!data.companyPhotos().isEmpty()) {
+            additionalData.put("companyPhotos", splitList(data.companyPhotos(), "[,;\\n]"));
+        }
+        
+        // Photos (ссылки на изображения для фотогалереи)
+        if (!data.photos().isEmpty()) {
+            // Если это URL на папку S3 или список URL через запятую
+            additionalData.put("photos", splitList(data.photos(), "[,;\\n]"));
+        }
+        
+        // Features (особенности организации, разделенные запятой)
+        if (!data.features().isEmpty()) {
+            additionalData.put("features", splitList(data.features(), ","));
+        }
 
-    /**
-     * Extract promotions from sheet data
-     */
-    private List<Map<String, Object>> extractPromotions(List<Map<String, Object>> sheetData) {
-        return sheetData.stream()
-                .filter(row -> hasValue(row, "Акция", "Акция ", "Promotion"))
-                .map(row -> {
-                    Map<String, Object> promotion = new HashMap<>();
-                    promotion.put("title", getStringValue(row, "Акция", "Акция ", "Promotion"));
-                    promotion.put("description", getStringValue(row, "Описание акции", ""));
-                    promotion.put("validFrom", LocalDateTime.now());
-                    // Try multiple variants of "Действует до" with/without spaces
-                    String dateKey = hasValue(row, " Действует до") ? " Действует до" : "Действует до";
-                    promotion.put("validTo", getDateValue(row, dateKey, LocalDateTime.now().plusMonths(1)));
-                    promotion.put("isActive", true);
-                    return promotion;
-                })
-                .filter(promo -> !promo.get("title").toString().isEmpty())
-                .collect(Collectors.toList());
+        // About Us text for template rendering
+        if (!data.aboutUs().isEmpty()) {
+            additionalData.put("aboutUs", data.aboutUs());
+        }
+
+        return additionalData;
     }
 
     /**
      * Update products via Content Service
      * Replaces ALL existing products with new ones from Google Sheets
+     * @return failures of single deletes and creates; empty when every product was replaced
      */
-    private void updateProducts(Long organizationId, List<Map<String, Object>> products) {
+    private List<String> updateProducts(Long organizationId, List<ProductRow> products) {
         log.info("Replacing products for organization {} (deleting old, creating {} new)", organizationId, products.size());
 
-        WebClient webClient = webClientBuilder.baseUrl(contentServiceUrl).build();
+        WebClient webClient = webClientBuilder.clone().baseUrl(contentServiceUrl).build();
+        List<String> failures = new ArrayList<>();
 
         // Step 1: Delete ALL existing products for this organization
         try {
@@ -280,38 +196,35 @@ public class GoogleSheetsDataProcessor {
                             .block();
                 } catch (Exception e) {
                     log.warn("Failed to delete product with id: {}", productId, e);
+                    failures.add("delete product " + productId + ": " + e.getMessage());
                 }
             }
             
-            log.info("Successfully deleted {} old products", existingProductIds.size());
+            log.info("Deleted old products for organization {}", organizationId);
         } catch (Exception e) {
             log.warn("Failed to delete existing products: {}", e.getMessage());
+            failures.add("list products: " + e.getMessage());
         }
 
         // Step 2: Create ALL new products from Google Sheets
-        for (Map<String, Object> product : products) {
+        for (ProductRow productRow : products) {
+            String productName = productRow.name();
             try {
+                Map<String, Object> product = new HashMap<>();
                 product.put("organizationId", organizationId);
-                String productName = product.get("name").toString();
+                product.put("name", productName);
+                product.put("description", productRow.description());
+                product.put("price", productRow.price());
+                product.put("category", productRow.category());
+                product.put("isActive", true);
 
                 // Process image URL if provided
-                if (product.containsKey("imageUrl")) {
-                    String imageUrl = product.get("imageUrl").toString();
-                    if (!imageUrl.isEmpty()) {
-                        log.debug("Processing image for product: {}", productName);
-                        try {
-                            // Upload image to S3 via Media Service
-                            Long imageId = uploadImageFromUrl(imageUrl, organizationId, productName);
-                            if (imageId != null) {
-                                product.put("imageId", imageId);
-                                product.remove("imageUrl"); // Remove URL, use imageId instead
-                                log.debug("Image uploaded successfully for product: {} (imageId: {})", productName, imageId);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Failed to upload image for product: {}", productName, e);
-                            product.remove("imageUrl"); // Remove failed URL
-                        }
-                    }
+                if (!productRow.imageUrl().isEmpty()) {
+                    log.debug("Processing image for product: {}", productName);
+                    // Upload image to S3 via Media Service
+                    Long imageId = uploadImageFromUrl(productRow.imageUrl(), organizationId, productName);
+                    product.put("imageId", imageId);
+                    log.debug("Image uploaded successfully for product: {} (imageId: {})", productName, imageId);
                 }
 
                 // Create new product
@@ -325,11 +238,13 @@ public class GoogleSheetsDataProcessor {
 
                 log.debug("Created product: {}", productName);
             } catch (Exception e) {
-                log.error("Failed to create product: {}", product.get("name"), e);
+                log.error("Failed to create product: {} (row {})", productName, productRow.rowNumber(), e);
+                failures.add("create product '" + productName + "' (row " + productRow.rowNumber() + "): " + e.getMessage());
             }
         }
 
-        log.info("Successfully replaced products for organization {} ({} new products created)", organizationId, products.size());
+        log.info("Replaced products for organization {} ({} rows, {} failures)", organizationId, products.size(), failures.size());
+        return failures;
     }
     
     /**
@@ -355,19 +270,20 @@ public class GoogleSheetsDataProcessor {
             
             return productIds;
         } catch (Exception e) {
-            log.error("Failed to parse products JSON", e);
-            return new ArrayList<>();
+            throw new RuntimeException("Failed to parse products JSON: " + e.getMessage());
         }
     }
 
     /**
      * Update promotions via Content Service
      * Replaces ALL existing promotions with new ones from Google Sheets
+     * @return failures of single deletes and creates; empty when every promotion was replaced
      */
-    private void updatePromotions(Long organizationId, List<Map<String, Object>> promotions) {
+    private List<String> updatePromotions(Long organizationId, List<PromotionRow> promotions) {
         log.info("Replacing promotions for organization {} (deleting old, creating {} new)", organizationId, promotions.size());
 
-        WebClient webClient = webClientBuilder.baseUrl(contentServiceUrl).build();
+        WebClient webClient = webClientBuilder.clone().baseUrl(contentServiceUrl).build();
+        List<String> failures = new ArrayList<>();
 
         // Step 1: Delete ALL existing promotions for this organization
         try {
@@ -392,19 +308,28 @@ public class GoogleSheetsDataProcessor {
                             .block();
                 } catch (Exception e) {
                     log.warn("Failed to delete promotion with id: {}", promotionId, e);
+                    failures.add("delete promotion " + promotionId + ": " + e.getMessage());
                 }
             }
             
-            log.info("Successfully deleted {} old promotions", existingPromotionIds.size());
+            log.info("Deleted old promotions for organization {}", organizationId);
         } catch (Exception e) {
             log.warn("Failed to delete existing promotions: {}", e.getMessage());
+            failures.add("list promotions: " + e.getMessage());
         }
 
         // Step 2: Create ALL new promotions from Google Sheets
-        for (Map<String, Object> promotion : promotions) {
+        for (PromotionRow promotionRow : promotions) {
+            String promotionTitle = promotionRow.title();
             try {
+                Map<String, Object> promotion = new HashMap<>();
                 promotion.put("organizationId", organizationId);
-                String promotionTitle = promotion.get("title").toString();
+                promotion.put("title", promotionTitle);
+                promotion.put("description", promotionRow.description());
+                promotion.put("isActive", true);
+                if (promotionRow.endDate() != null) {
+                    promotion.put("endDate", promotionRow.endDate());
+                }
 
                 // Create new promotion
                 log.debug("Creating new promotion: {}", promotionTitle);
@@ -417,11 +342,13 @@ public class GoogleSheetsDataProcessor {
 
                 log.debug("Created promotion: {}", promotionTitle);
             } catch (Exception e) {
-                log.error("Failed to create promotion: {}", promotion.get("title"), e);
+                log.error("Failed to create promotion: {} (row {})", promotionTitle, promotionRow.rowNumber(), e);
+                failures.add("create promotion '" + promotionTitle + "' (row " + promotionRow.rowNumber() + "): " + e.getMessage());
             }
         }
 
-        log.info("Successfully replaced promotions for organization {} ({} new promotions created)", organizationId, promotions.size());
+        log.info("Replaced promotions for organization {} ({} rows, {} failures)", organizationId, promotions.size(), failures.size());
+        return failures;
     }
     
     /**
@@ -447,93 +374,47 @@ public class GoogleSheetsDataProcessor {
             
             return promotionIds;
         } catch (Exception e) {
-            log.error("Failed to parse promotions JSON", e);
-            return new ArrayList<>();
+            throw new RuntimeException("Failed to parse promotions JSON: " + e.getMessage());
         }
     }
 
     /**
-     * Get string value from row data
+     * Value of an optional cell, or the fallback when the cell is empty
      */
-    private String getStringValue(Map<String, Object> data, String... keys) {
-        for (String key : keys) {
-            if (data.containsKey(key) && data.get(key) != null) {
-                return data.get(key).toString().trim();
-            }
-        }
-        return "";
+    static String orDefault(String value, String defaultValue) {
+        return value.isEmpty() ? defaultValue : value;
     }
 
     /**
-     * Get price value from row data
+     * Fail the organization when any product or promotion could not be replaced,
+     * so the caller does not treat its sheet data as synced
      */
-    private BigDecimal getPriceValue(Map<String, Object> data, String key, String defaultValue) {
-        try {
-            String value = getStringValue(data, key);
-            if (value.isEmpty()) {
-                value = defaultValue;
-            }
-            // Remove currency symbols and spaces
-            value = value.replaceAll("[^0-9.,]", "");
-            value = value.replace(",", ".");
-            return new BigDecimal(value);
-        } catch (Exception e) {
-            log.warn("Failed to parse price value: {}", data.get(key));
-            return BigDecimal.ZERO;
+    private static void failIfAny(Long organizationId, List<String> failures) {
+        if (!failures.isEmpty()) {
+            throw new RuntimeException("Organization " + organizationId + " synced partially, "
+                    + failures.size() + " failed: " + String.join("; ", failures));
         }
     }
 
     /**
-     * Get date value from row data
+     * Split a multi-value cell (photo links, features) into trimmed non-empty items
      */
-    private LocalDateTime getDateValue(Map<String, Object> data, String key, LocalDateTime defaultValue) {
-        try {
-            String value = getStringValue(data, key);
-            if (value.isEmpty()) {
-                return defaultValue;
-            }
-
-            // Try different date formats
-            DateTimeFormatter[] formatters = {
-                    DateTimeFormatter.ofPattern("dd.MM.yyyy"),
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy")
-            };
-
-            for (DateTimeFormatter formatter : formatters) {
-                try {
-                    return LocalDateTime.parse(value, formatter);
-                } catch (Exception ignored) {
-                }
-            }
-
-            return defaultValue;
-        } catch (Exception e) {
-            log.warn("Failed to parse date value: {}", data.get(key));
-            return defaultValue;
-        }
-    }
-
-    /**
-     * Check if row has value for key
-     */
-    private boolean hasValue(Map<String, Object> data, String... keys) {
-        for (String key : keys) {
-            if (data.containsKey(key) && data.get(key) != null && !data.get(key).toString().trim().isEmpty()) {
-                return true;
-            }
-        }
-        return false;
+    private static List<String> splitList(String value, String separatorRegex) {
+        return Arrays.stream(value.split(separatorRegex))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
     }
 
     /**
      * Upload image from URL and return imageId
+     * @throws RuntimeException if Media Service did not store the image
      */
     private Long uploadImageFromUrl(String imageUrl, Long organizationId, String productName) {
         log.debug("Uploading image from URL for product: {}", productName);
 
         try {
-            WebClient webClient = webClientBuilder.baseUrl(mediaServiceUrl).build();
+            WebClient webClient = webClientBuilder.clone().baseUrl(mediaServiceUrl).build();
 
             Map<String, Object> request = new HashMap<>();
             request.put("organizationId", organizationId);
@@ -550,13 +431,11 @@ public class GoogleSheetsDataProcessor {
             if (response != null && response.containsKey("fileId")) {
                 return Long.valueOf(response.get("fileId").toString());
             }
-
-            log.warn("No fileId in response from Media Service");
-            return null;
+            throw new IllegalStateException("No fileId in response from Media Service");
 
         } catch (Exception e) {
             log.error("Failed to upload image from URL: {}", imageUrl, e);
-            return null;
+            throw new RuntimeException("Failed to upload image " + imageUrl + ": " + e.getMessage());
         }
     }
 
@@ -571,7 +450,7 @@ public class GoogleSheetsDataProcessor {
             // TODO: Upload to S3 via Media Service
             // TODO: Return S3 URL
 
-            WebClient webClient = webClientBuilder.baseUrl(mediaServiceUrl).build();
+            WebClient webClient = webClientBuilder.clone().baseUrl(mediaServiceUrl).build();
 
             // Placeholder implementation
             Map<String, Object> request = new HashMap<>();
@@ -637,34 +516,24 @@ public class GoogleSheetsDataProcessor {
         }
     }
 
-    /**
-     * Process a single organization row from Google Sheets (backward compatibility)
-     * @deprecated Use {@link #processOrganizationRow(Map, String, String, List, List)} instead
-     */
-    @Deprecated
-    public boolean processOrganizationRow(Map<String, Object> row, String domain, String name) {
-        return processOrganizationRow(row, domain, name, new ArrayList<>(), new ArrayList<>());
-    }
-    
     /**
      * Process a single organization row from Google Sheets
      * Creates Organization + Landing + Content if they don't exist
      * Updates Content if organization exists
      * 
-     * @param row Data from Google Sheets row
-     * @param domain Domain name (e.g., "modernissimo.volzhck.ru")
-     * @param name Organization name
-     * @param productsRows List of product rows for this domain
-     * @param promotionsRows List of promotion rows for this domain
+     * @param row Organization row (domain and name are non-empty)
+     * @param products Product rows for this domain
+     * @param promotions Promotion rows for this domain
      * @return true if new organization was created, false if updated
+     * @throws RuntimeException if the organization, its content or any product or promotion failed
      */
-    public boolean processOrganizationRow(Map<String, Object> row, String domain, String name, 
-                                          List<Map<String, Object>> productsRows, 
-                                          List<Map<String, Object>> promotionsRows) {
+    public boolean processOrganizationRow(OrganizationRow row, List<ProductRow> products, List<PromotionRow> promotions) {
+        String domain = row.domain();
+        String name = row.name();
         log.info("Processing organization: {} ({})", name, domain);
         
         try {
-            WebClient webClient = webClientBuilder.baseUrl(landingServiceUrl).build();
+            WebClient webClient = webClientBuilder.clone().baseUrl(landingServiceUrl).build();
             
             // Check if Landing with this domain or subdomain already exists
             String subdomain = domain.split("\\.")[0]; // Extract subdomain part
@@ -696,17 +565,17 @@ public class GoogleSheetsDataProcessor {
                 // 1. Create Organization
                 Map<String, Object> organizationData = new HashMap<>();
                 organizationData.put("name", name);
-                organizationData.put("category", getStringValueWithFallback(row, "Категория", "Общее"));
-                organizationData.put("type", getStringValueWithFallback(row, "Тип", "Компания"));
-                organizationData.put("phone", getStringValueWithFallback(row, "Телефон", ""));
-                organizationData.put("email", getStringValueWithFallback(row, "Email", ""));
-                organizationData.put("website", getStringValueWithFallback(row, "Сайт", ""));
-                organizationData.put("address", getStringValueWithFallback(row, "Адрес", ""));
-                organizationData.put("workingHours", getStringValueWithFallback(row, "Режим работы", ""));
+                organizationData.put("category", orDefault(row.category(), "Общее"));
+                organizationData.put("type", orDefault(row.type(), "Компания"));
+                organizationData.put("phone", row.phone());
+                organizationData.put("email", row.email());
+                organizationData.put("website", row.website());
+                organizationData.put("address", row.address());
+                organizationData.put("workingHours", row.workingHours());
                 
                 // Telegram bot for organization (optional)
-                organizationData.put("telegramBotToken", getStringValueWithFallback(row, "Токен бота", ""));
-                organizationData.put("telegramChatId", getStringValueWithFallback(row, "Chat ID", ""));
+                organizationData.put("telegramBotToken", row.telegramBotToken());
+                organizationData.put("telegramChatId", row.telegramChatId());
                 
                 organizationData.put("status", "ACTIVE");
                 
@@ -719,6 +588,9 @@ public class GoogleSheetsDataProcessor {
                         .block();
                 
                 organizationId = extractIdFromJson(orgResponse);
+                if (organizationId == null) {
+                    throw new IllegalStateException("Could not extract id of the created organization");
+                }
                 log.info("✅ Created organization with ID: {}", organizationId);
                 
                 // 2. Create Landing
@@ -727,8 +599,8 @@ public class GoogleSheetsDataProcessor {
                 landingData.put("domain", domain);
                 landingData.put("subdomain", domain.split("\\.")[0]); // Extract subdomain part
                 landingData.put("templateId", 1L); // Always use template ID = 1 (landing-basic)
-                landingData.put("title", getStringValueWithFallback(row, "Title", name));
-                landingData.put("metaDescription", getStringValueWithFallback(row, "Description", ""));
+                landingData.put("title", orDefault(row.title(), name));
+                landingData.put("metaDescription", row.description());
                 landingData.put("status", "ACTIVE");
                 
                 String landingResponse = webClient.post()
@@ -743,17 +615,16 @@ public class GoogleSheetsDataProcessor {
                 log.info("✅ Created landing with ID: {} for domain: {}", landingId, domain);
                 
                 // 3. Create Content from row data
-                List<Map<String, Object>> dataAsList = new ArrayList<>();
-                dataAsList.add(row);
-                processAndUpdateOrganization(organizationId, dataAsList);
+                updateOrganizationContent(organizationId, row);
                 
                 // 4. Process products from separate sheet (ALWAYS call to ensure deletion of old products)
-                log.info("Processing {} products for organization {}", productsRows.size(), organizationId);
-                updateProducts(organizationId, parseProductsFromSeparateSheet(productsRows));
+                log.info("Processing {} products for organization {}", products.size(), organizationId);
+                List<String> failures = new ArrayList<>(updateProducts(organizationId, products));
                 
                 // 5. Process promotions from separate sheet (ALWAYS call to ensure deletion of old promotions)
-                log.info("Processing {} promotions for organization {}", promotionsRows.size(), organizationId);
-                updatePromotions(organizationId, parsePromotionsFromSeparateSheet(promotionsRows));
+                log.info("Processing {} promotions for organization {}", promotions.size(), organizationId);
+                failures.addAll(updatePromotions(organizationId, promotions));
+                failIfAny(organizationId, failures);
                 
                 return true; // New organization created
                 
@@ -767,25 +638,23 @@ public class GoogleSheetsDataProcessor {
                         : checkBySubdomainResponse;
                 organizationId = extractOrganizationIdFromLandingJson(landingResponse);
                 
-                if (organizationId != null) {
-                    // Update content
-                    List<Map<String, Object>> dataAsList = new ArrayList<>();
-                    dataAsList.add(row);
-                    processAndUpdateOrganization(organizationId, dataAsList);
-                    
-                    // Update products from separate sheet (ALWAYS call to ensure deletion if no products in sheet)
-                    log.info("Updating {} products for organization {}", productsRows.size(), organizationId);
-                    updateProducts(organizationId, parseProductsFromSeparateSheet(productsRows));
-                    
-                    // Update promotions from separate sheet (ALWAYS call to ensure deletion if no promotions in sheet)
-                    log.info("Updating {} promotions for organization {}", promotionsRows.size(), organizationId);
-                    updatePromotions(organizationId, parsePromotionsFromSeparateSheet(promotionsRows));
-                    
-                    return false; // Existing organization updated
-                } else {
-                    log.warn("Could not extract organizationId from landing response");
-                    return false;
+                if (organizationId == null) {
+                    throw new IllegalStateException("Could not extract organizationId from landing response");
                 }
+                
+                // Update content
+                updateOrganizationContent(organizationId, row);
+                
+                // Update products from separate sheet (ALWAYS call to ensure deletion if no products in sheet)
+                log.info("Updating {} products for organization {}", products.size(), organizationId);
+                List<String> failures = new ArrayList<>(updateProducts(organizationId, products));
+                
+                // Update promotions from separate sheet (ALWAYS call to ensure deletion if no promotions in sheet)
+                log.info("Updating {} promotions for organization {}", promotions.size(), organizationId);
+                failures.addAll(updatePromotions(organizationId, promotions));
+                failIfAny(organizationId, failures);
+                
+                return false; // Existing organization updated
             }
             
         } catch (Exception e) {
@@ -796,118 +665,47 @@ public class GoogleSheetsDataProcessor {
     
     /**
      * Delete organizations and landings that are NOT in the Google Sheets
+     * Landing Service computes the set difference and deletes in a single transaction
      * @param sheetDomains Set of domains from Google Sheets
-     * @return Number of organizations deleted
+     * @return Number of landings deleted
      */
+    @SuppressWarnings("unchecked")
     public int deleteOrganizationsNotInSheet(Set<String> sheetDomains) {
-        log.info("Deleting organizations not in Google Sheets. Valid domains: {}", sheetDomains);
+        log.info("Deleting organizations not in Google Sheets. Valid domains: {}", sheetDomains.size());
         
-        WebClient landingClient = webClientBuilder.baseUrl(landingServiceUrl).build();
-        int deletedCount = 0;
+        if (sheetDomains.isEmpty()) {
+            // An empty or unreadable sheet must not wipe every landing
+            log.warn("No domains found in Google Sheets, skipping deletion");
+            return 0;
+        }
+        
+        WebClient landingClient = webClientBuilder.clone().baseUrl(landingServiceUrl).build();
         
         try {
-            // 1. Get all landings
-            String allLandingsJson = landingClient.get()
-                    .uri("/api/v1/landings")
+            Map<String, Object> response = landingClient.post()
+                    .uri("/api/v1/landings/reconcile")
+                    .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("domains", sheetDomains))
                     .retrieve()
-                    .bodyToMono(String.class)
+                    .bodyToMono(Map.class)
                     .block();
             
-            if (allLandingsJson == null || allLandingsJson.isEmpty() || "[]".equals(allLandingsJson.trim())) {
-                log.info("No landings found in database");
-                return 0;
-            }
-            
-            // 2. Parse landings and find those not in Google Sheets
-            // Simple JSON parsing to extract domains and IDs
-            String[] landingBlocks = allLandingsJson.split("\\{");
+            List<String> removedDomains = response != null && response.get("removedDomains") instanceof List<?> list
+                    ? (List<String>) list
+                    : List.of();
             
-            for (String block : landingBlocks) {
-                if (!block.contains("\"domain\"")) continue;
-                
-                try {
-                    // Extract domain from JSON block
-                    String domain = null;
-                    Long landingId = null;
-                    Long organizationId = null;
-                    
-                    // Find domain
-                    int domainStart = block.indexOf("\"domain\":\"") + 10;
-                    if (domainStart > 9) {
-                        int domainEnd = block.indexOf("\"", domainStart);
-                        if (domainEnd > domainStart) {
-                            domain = block.substring(domainStart, domainEnd).trim();
-                        }
-                    }
-                    
-                    // Find landing ID
-                    int idStart = block.indexOf("\"id\":") + 5;
-                    if (idStart > 4) {
-                        int idEnd = block.indexOf(",", idStart);
-                        if (idEnd == -1) idEnd = block.indexOf("}", idStart);
-                        if (idEnd > idStart) {
-                            String idStr = block.substring(idStart, idEnd).trim();
-                            landingId = Long.parseLong(idStr);
-                        }
-                    }
-                    
-                    // Find organization ID
-                    int orgIdStart = block.indexOf("\"organizationId\":") + 17;
-                    if (orgIdStart > 16) {
-                        int orgIdEnd = block.indexOf(",", orgIdStart);
-                        if (orgIdEnd == -1) orgIdEnd = block.indexOf("}", orgIdStart);
-                        if (orgIdEnd > orgIdStart) {
-                            String orgIdStr = block.substring(orgIdStart, orgIdEnd).trim();
-                            organizationId = Long.parseLong(orgIdStr);
-                        }
-                    }
-                    
-                    // If this domain is NOT in Google Sheets, delete it
-                    if (domain != null && landingId != null && organizationId != null) {
-                        if (!sheetDomains.contains(domain)) {
-                            log.info("🗑️  Deleting landing {} and organization {} for domain: {} (not in Google Sheets)", 
-                                    landingId, organizationId, domain);
-                            
-                            // Delete landing first
-                            try {
-                                landingClient.delete()
-                                        .uri("/api/v1/landings/{id}", landingId)
-                                        .retrieve()
-                                        .bodyToMono(Void.class)
-                                        .block();
-                                log.debug("Deleted landing {}", landingId);
-                            } catch (Exception e) {
-                                log.warn("Failed to delete landing {}: {}", landingId, e.getMessage());
-                            }
-                            
-                            // Then delete organization
-                            try {
-                                landingClient.delete()
-                                        .uri("/api/v1/organizations/{id}", organizationId)
-                                        .retrieve()
-                                        .bodyToMono(Void.class)
-                                        .block();
-                                log.debug("Deleted organization {}", organizationId);
-                                deletedCount++;
-                            } catch (Exception e) {
-                                log.warn("Failed to delete organization {}: {}", organizationId, e.getMessage());
-                            }
-                        }
-                    }
-                    
-                } catch (Exception e) {
-                    log.warn("Failed to parse landing block: {}", e.getMessage());
-                }
+            for (String domain : removedDomains) {
+                log.info("🗑️  Deleted landing for domain: {} (not in Google Sheets)", domain);
             }
+            log.info("Successfully deleted {} landings ({} organizations) not in Google Sheets",
+                    removedDomains.size(), response != null ? response.get("removedOrganizations") : 0);
             
-            log.info("Successfully deleted {} organizations not in Google Sheets", deletedCount);
+            return removedDomains.size();
             
         } catch (Exception e) {
             log.error("Failed to delete old organizations", e);
             throw new RuntimeException("Failed to delete old organizations: " + e.getMessage());
         }
-        
-        return deletedCount;
     }
     
     /**
@@ -993,81 +791,4 @@ public class GoogleSheetsDataProcessor {
             return null;
         }
     }
-    
-    /**
-     * Parse products from separate "goods" sheet
-     * Format: Домен | Товар | Описание товара | Цена | Категория товара | Изображение
-     */
-    private List<Map<String, Object>> parseProductsFromSeparateSheet(List<Map<String, Object>> productRows) {
-        List<Map<String, Object>> products = new ArrayList<>();
-        
-        for (Map<String, Object> row : productRows) {
-            String productName = getStringValueWithFallback(row, "Товар", "").trim();
-            
-            // Skip rows without product name
-            if (productName.isEmpty()) {
-                continue;
-            }
-            
-            Map<String, Object> product = new HashMap<>();
-            product.put("name", productName);
-            product.put("description", getStringValueWithFallback(row, "Описание товара", ""));
-            product.put("category", getStringValueWithFallback(row, "Категория товара", ""));
-            product.put("imageUrl", getStringValueWithFallback(row, "Изображение", ""));
-            
-            // Parse price
-            String priceStr = getStringValueWithFallback(row, "Цена", "0").trim();
-            double price = 0.0;
-            try {
-                if (!priceStr.isEmpty()) {
-                    // Remove all non-numeric characters except dot and comma
-                    priceStr = priceStr.replaceAll("[^0-9.,]", "");
-                    // Replace comma with dot for decimal separator
-                    priceStr = priceStr.replace(",", ".");
-                    price = Double.parseDouble(priceStr);
-                }
-                log.debug("Parsed price {} for product {}", price, productName);
-            } catch (NumberFormatException e) {
-                log.warn("Failed to parse price for product {}: {}", productName, priceStr);
-                price = 0.0;
-            }
-            product.put("price", price);
-            
-            products.add(product);
-            log.debug("Parsed product: {}", productName);
-        }
-        
-        return products;
-    }
-    
-    /**
-     * Parse promotions from separate "акции" sheet
-     * Format: Домен | Акция | Описание акции | Действует до
-     */
-    private List<Map<String, Object>> parsePromotionsFromSeparateSheet(List<Map<String, Object>> promotionRows) {
-        List<Map<String, Object>> promotions = new ArrayList<>();
-        
-        for (Map<String, Object> row : promotionRows) {
-            String promotionName = getStringValueWithFallback(row, "Акция", "").trim();
-            
-            // Skip rows without promotion name
-            if (promotionName.isEmpty()) {
-                log.debug("Skipping promotion row with no name");
-                continue;
-            }
-            
-            Map<String, Object> promotion = new HashMap<>();
-            promotion.put("title", promotionName);
-            promotion.put("description", getStringValueWithFallback(row, "Описание акции", ""));
-            String validUntil = getStringValueWithFallback(row, "Действует до", "");
-            promotion.put("validUntil", validUntil);
-            
-            promotions.add(promotion);
-            log.info("Parsed promotion: {} (until: {})", promotionName, validUntil);
-        }
-        
-        log.info("Total promotions parsed: {}", promotions.size());
-        return promotions;
-    }
 }
-
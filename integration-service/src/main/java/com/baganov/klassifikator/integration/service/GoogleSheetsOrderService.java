@@ -6,34 +6,87 @@
  */
 package com.baganov.klassifikator.integration.service;
 
-import com.google.api.services.sheets.v4.Sheets;
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsOrderOutbox;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsOrderOutboxRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.api.services.sheets.v4.model.AppendValuesResponse;
 import com.google.api.services.sheets.v4.model.ValueRange;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+/**
+ * Orders are written behind: each order row is stored in the google_sheets_order_outbox table
+ * and appended to the sheet in batches, so requests do not wait for the Sheets API and rows
+ * survive restarts and API errors.
+ * A flush claims its rows with a lease and calls the Sheets API outside any transaction,
+ * so neither row locks nor a database connection are held during the HTTP call.
+ * Delivery is at-least-once: rows of an instance that crashes after the append, or whose append
+ * outlasts the lease anyway, are appended again.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GoogleSheetsOrderService {
 
-    private final Sheets sheetsService;
+    private final GoogleSheetsApiClient sheetsApiClient;
+    private final GoogleSheetsOrderOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @Value("${google.sheets.spreadsheet-id}")
     private String spreadsheetId;
 
+    @Value("${google.sheets.orders.batch-size:100}")
+    private int batchSize;
+
+    @Value("${google.sheets.orders.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    @Value("${google.sheets.orders.retry-max-delay-ms:1800000}")
+    private long retryMaxDelayMs;
+
+    @Value("${google.sheets.orders.claim-lease-margin-ms:60000}")
+    private long claimLeaseMarginMs;
+
     private static final String ORDERS_SHEET_NAME = "orders";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final TypeReference<List<Object>> ROW_TYPE = new TypeReference<>() {};
+
+    /**
+     * Rows enqueued since the last flush; reaching batch size triggers an early flush
+     */
+    private final AtomicInteger enqueuedSinceFlush = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("sheets.orders.outbox.due", outboxRepository,
+                        repository -> repository.countByNextAttemptAtLessThanEqual(LocalDateTime.now()))
+                .description("Order rows due for appending to Google Sheets")
+                .register(meterRegistry);
+    }
 
     /**
-     * Write order to Google Sheets
+     * Queue order for writing to Google Sheets
      *
      * @param orderData Map containing order information:
      *                  - orderId: Order ID
@@ -49,28 +102,157 @@ public class GoogleSheetsOrderService {
      *                  - organizationTelegramBot: Organization's custom Telegram bot (optional)
      */
     public void writeOrderToSheet(Map<String, Object> orderData) {
+        // Format order data for Google Sheets (date is taken at receive time, not at flush time)
+        List<Object> row = formatOrderRow(orderData);
+
         try {
-            log.info("Writing order #{} to Google Sheets", orderData.get("orderId"));
+            LocalDateTime now = LocalDateTime.now();
+            GoogleSheetsOrderOutbox entry = GoogleSheetsOrderOutbox.builder()
+                    .spreadsheetId(spreadsheetId)
+                    .orderId(toLong(orderData.get("orderId")))
+                    .rowData(objectMapper.writeValueAsString(row))
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build();
+            outboxRepository.save(entry);
+
+            log.info("Order #{} queued for Google Sheets", orderData.get("orderId"));
+        } catch (Exception e) {
+            log.error("Failed to queue order #{} for Google Sheets, writing directly: {}",
+                    orderData.get("orderId"), e.getMessage(), e);
+            appendDirectly(orderData, row);
+            return;
+        }
 
-            // Format order data for Google Sheets
-            List<Object> row = formatOrderRow(orderData);
+        if (enqueuedSinceFlush.incrementAndGet() >= batchSize) {
+            Thread.ofVirtual().name("sheets-orders-flush").start(this::flushPendingOrders);
+        }
+    }
+
+    /**
+     * Append due rows from the outbox to the orders sheet, one append per batch
+     * Runs every flush interval and early when a full batch has been queued
+     */
+    @Scheduled(fixedDelayString = "${google.sheets.orders.flush-interval-ms:2000}")
+    public void flushPendingOrders() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            enqueuedSinceFlush.set(0);
+            int flushed;
+            do {
+                flushed = flushBatch();
+            } while (flushed >= batchSize);
+        } catch (Exception e) {
+            log.error("Failed to flush orders to Google Sheets: {}", e.getMessage(), e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Append one batch of due rows in three steps:
+     * claim the rows and commit, append them to the sheet, then delete or reschedule them.
+     * A claim pushes next_attempt_at past the lease, so other instances skip the rows meanwhile
+     * and rows of a crashed instance become due again when the lease runs out.
+     *
+     * @return number of rows appended
+     */
+    private int flushBatch() {
+        List<GoogleSheetsOrderOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<GoogleSheetsOrderOutbox> due = outboxRepository.lockDueRows(now, batchSize);
+            LocalDateTime leaseEnd = now.plus(claimLease());
+            due.forEach(entry -> entry.setNextAttemptAt(leaseEnd));
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
 
-            // Prepare value range
-            ValueRange body = new ValueRange()
-                    .setValues(Collections.singletonList(row));
+        Map<String, List<GoogleSheetsOrderOutbox>> bySpreadsheet = claimed.stream()
+                .collect(Collectors.groupingBy(GoogleSheetsOrderOutbox::getSpreadsheetId,
+                        LinkedHashMap::new, Collectors.toList()));
 
-            // Append to sheet
-            String range = ORDERS_SHEET_NAME + "!A:L";  // Columns A through L
-            AppendValuesResponse result = sheetsService.spreadsheets().values()
-                    .append(spreadsheetId, range, body)
-                    .setValueInputOption("RAW")
-                    .setInsertDataOption("INSERT_ROWS")
-                    .execute();
+        int count = 0;
+        for (Map.Entry<String, List<GoogleSheetsOrderOutbox>> group : bySpreadsheet.entrySet()) {
+            List<GoogleSheetsOrderOutbox> entries = group.getValue();
+            AppendValuesResponse result;
+            try {
+                List<List<Object>> rows = new ArrayList<>(entries.size());
+                for (GoogleSheetsOrderOutbox entry : entries) {
+                    rows.add(objectMapper.readValue(entry.getRowData(), ROW_TYPE));
+                }
+                result = append(group.getKey(), rows);
+            } catch (Exception e) {
+                scheduleRetry(entries, e);
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(entries));
+                continue;
+            }
 
+            List<Long> ids = entries.stream().map(GoogleSheetsOrderOutbox::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(ids));
+            count += entries.size();
+
+            log.info("✅ Appended {} orders to Google Sheets. Updated {} rows.",
+                    entries.size(), result.getUpdates().getUpdatedRows());
+        }
+        return count;
+    }
+
+    /**
+     * Lease of claimed rows: the slowest append the Sheets client can make with all its retries, plus a margin,
+     * so another instance does not pick the rows up while they are still being appended
+     */
+    private Duration claimLease() {
+        return sheetsApiClient.maxWriteDuration().plusMillis(claimLeaseMarginMs);
+    }
+
+    /**
+     * Postpone failed rows with exponential backoff and jitter; quota errors are expected and logged as warnings
+     */
+    private void scheduleRetry(List<GoogleSheetsOrderOutbox> entries, Exception e) {
+        boolean quotaError = GoogleSheetsApiClient.isRateLimited(e);
+        if (quotaError) {
+            log.warn("Google Sheets quota exceeded, postponing {} orders: {}", entries.size(), e.getMessage());
+        } else {
+            log.error("❌ Failed to append {} orders to Google Sheets: {}", entries.size(), e.getMessage(), e);
+        }
+
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        for (GoogleSheetsOrderOutbox entry : entries) {
+            int attempts = entry.getAttempts() + 1;
+            long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempts - 1, 20));
+            delay += ThreadLocalRandom.current().nextLong(Math.max(1, delay / 5));
+
+            entry.setAttempts(attempts);
+            entry.setLastError(error);
+            entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+        }
+    }
+
+    private AppendValuesResponse append(String targetSpreadsheetId, List<List<Object>> rows) throws IOException {
+        ValueRange body = new ValueRange().setValues(rows);
+
+        String range = ORDERS_SHEET_NAME + "!A:L";  // Columns A through L
+        return sheetsApiClient.appendValues(targetSpreadsheetId, range, body);
+    }
+
+    /**
+     * Last resort when the outbox is unavailable: write the single row inline
+     */
+    private void appendDirectly(Map<String, Object> orderData, List<Object> row) {
+        try {
+            AppendValuesResponse result = append(spreadsheetId, Collections.singletonList(row));
             log.info("✅ Order #{} successfully written to Google Sheets. Updated {} rows.",
                     orderData.get("orderId"),
                     result.getUpdates().getUpdatedRows());
-
         } catch (Exception e) {
             log.error("❌ Failed to write order #{} to Google Sheets: {}",
                     orderData.get("orderId"), e.getMessage(), e);
@@ -78,6 +260,17 @@ public class GoogleSheetsOrderService {
         }
     }
 
+    private Long toLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Format order data into a row for Google Sheets
      * Columns: Дата | Домен | Заказ № | Сумма | Товары | Имя | email | Телефон | Адрес доставки | Комментарий к заказу | Бот клиента
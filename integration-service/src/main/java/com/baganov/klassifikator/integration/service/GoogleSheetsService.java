@@ -30,6 +30,27 @@ public interface GoogleSheetsService {
      */
     Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName);
     
+    /**
+     * Sync all organizations from Google Sheets
+     * Organizations whose rows, goods and promotions are unchanged since the last successful sync are skipped
+     * unless force is set
+     */
+    Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName, boolean force);
+    
+    /**
+     * Sync all organizations from Google Sheets, reporting progress to the listener as domains are processed
+     */
+    Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName, boolean force,
+                                                      SyncProgressListener progressListener);
+    
+    /**
+     * Import all organizations with their goods and promotions straight into the database (COPY into
+     * staging tables and set-based merges) instead of through the service APIs; meant for onboarding
+     * large spreadsheets. Organizations missing from the sheet are not deleted.
+     */
+    Map<String, Object> bulkImportFromSheet(String spreadsheetId, String sheetName,
+                                            SyncProgressListener progressListener);
+    
     /**
      * Get list of all sheet names in a spreadsheet
      */
@@ -0,0 +1,36 @@
+/**
+ * @file: GoogleSheetsSyncJobService.java
+ * @description: Service interface for background Google Sheets mass sync jobs
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncJobDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface GoogleSheetsSyncJobService {
+
+    /**
+     * Queue a mass sync of the spreadsheet and return immediately.
+     * If a job for the same spreadsheet is already queued or running, that job is returned instead.
+     */
+    GoogleSheetsSyncJobDto submitSyncAll(String spreadsheetId, String sheetName, boolean force);
+
+    /**
+     * Queue a bulk import of the spreadsheet (see GoogleSheetsService#bulkImportFromSheet).
+     * Shares the one-active-job-per-spreadsheet rule with sync-all.
+     */
+    GoogleSheetsSyncJobDto submitBulkImport(String spreadsheetId, String sheetName);
+
+    GoogleSheetsSyncJobDto getJob(Long jobId);
+
+    /**
+     * Block until the job finishes or google.sheets.jobs.wait-timeout-ms passes, then return its state
+     */
+    GoogleSheetsSyncJobDto awaitJob(Long jobId);
+
+    /**
+     * Stream job progress as server-sent events; the stream completes when the job finishes
+     */
+    SseEmitter subscribe(Long jobId);
+}
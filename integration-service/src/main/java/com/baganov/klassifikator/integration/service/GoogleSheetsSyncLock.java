@@ -0,0 +1,91 @@
+/**
+ * @file: GoogleSheetsSyncLock.java
+ * @description: PostgreSQL advisory locks shared by scheduled syncs and mass sync jobs
+ * @dependencies: Spring, PostgreSQL advisory locks
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+
+/**
+ * A scheduled sync holds the lock of its sync id and a shared lock on the mass sync key;
+ * a mass sync (sync-all or bulk import) holds the mass sync key exclusively. So a mass sync
+ * waits for running scheduled syncs, and no scheduled sync starts while a mass sync is queued
+ * for the lock or running, cluster-wide. Locks are session level, held on a dedicated connection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GoogleSheetsSyncLock {
+
+    // Advisory lock namespace (first key); the second key is the sync id
+    private static final int SYNC_LOCK_NAMESPACE = 8_600_037;
+
+    // Second key of the mass sync lock; sync ids start at 1
+    private static final int MASS_SYNC_KEY = 0;
+
+    private final DataSource dataSource;
+
+    /**
+     * Run a scheduled sync while holding its lock
+     *
+     * @return false without running the work if the sync runs on another instance or a mass sync is active
+     */
+    public boolean tryRunSync(Long syncId, Runnable work) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!lock(connection, "SELECT pg_try_advisory_lock_shared(?, ?)", MASS_SYNC_KEY)) {
+                log.debug("A mass sync is active, skipping sync {}", syncId);
+                return false;
+            }
+            try {
+                if (!lock(connection, "SELECT pg_try_advisory_lock(?, ?)", syncId.intValue())) {
+                    log.debug("Sync {} is running on another instance, skipping", syncId);
+                    return false;
+                }
+                try {
+                    work.run();
+                    return true;
+                } finally {
+                    lock(connection, "SELECT pg_advisory_unlock(?, ?)", syncId.intValue());
+                }
+            } finally {
+                lock(connection, "SELECT pg_advisory_unlock_shared(?, ?)", MASS_SYNC_KEY);
+            }
+        }
+    }
+
+    /**
+     * Run a mass sync while holding the mass sync key exclusively, waiting for running scheduled syncs first
+     */
+    public <T> T runMassSync(Callable<T> work) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            // Returns void once the lock is granted
+            lock(connection, "SELECT pg_advisory_lock(?, ?)", MASS_SYNC_KEY);
+            try {
+                return work.call();
+            } finally {
+                lock(connection, "SELECT pg_advisory_unlock(?, ?)", MASS_SYNC_KEY);
+            }
+        }
+    }
+
+    private boolean lock(Connection connection, String sql, int key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, SYNC_LOCK_NAMESPACE);
+            statement.setInt(2, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * @file: GoogleSheetsSyncScheduler.java
+ * @description: Runs each Google Sheets sync at its own interval, once per cluster
+ * @dependencies: Spring, PostgreSQL advisory locks
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSync;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Each tick orders active syncs by due time (last sync + syncIntervalMinutes + jitter) and starts the due ones.
+ * A sync runs only while its replica holds a PostgreSQL advisory lock on the sync id, and the due time is
+ * re-checked under the lock, so a sync runs once cluster-wide even with several replicas.
+ * Syncs due while a mass sync job holds the lock are skipped until the next tick (see GoogleSheetsSyncLock).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleSheetsSyncScheduler {
+
+    private final GoogleSheetsSyncRepository syncRepository;
+    private final GoogleSheetsService googleSheetsService;
+    private final GoogleSheetsSyncLock syncLock;
+
+    @Value("${google.sheets.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${google.sheets.scheduler.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${google.sheets.scheduler.max-jitter-seconds:120}")
+    private long maxJitterSeconds;
+
+    // Used when a sync has no syncIntervalMinutes
+    @Value("${google.sheets.sync-interval-ms:1800000}")
+    private long defaultIntervalMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Long> runningSyncIds = ConcurrentHashMap.newKeySet();
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @Scheduled(fixedDelayString = "${google.sheets.scheduler.tick-ms:30000}",
+               initialDelayString = "${google.sheets.scheduler.initial-delay-ms:60000}")
+    public void runDueSyncs() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        PriorityQueue<DueSync> queue = new PriorityQueue<>(Comparator.comparing(DueSync::dueAt));
+        for (GoogleSheetsSync sync : syncRepository.findByIsActiveTrue()) {
+            queue.add(new DueSync(sync.getId(), dueAt(sync, true)));
+        }
+
+        while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+            DueSync due = queue.poll();
+            if (runningSyncIds.contains(due.syncId())) {
+                continue;
+            }
+            if (!permits.tryAcquire()) {
+                // Remaining due syncs are picked up on the next tick
+                log.debug("All {} sync slots are busy, {} due syncs postponed", maxConcurrent, queue.size() + 1);
+                break;
+            }
+
+            runningSyncIds.add(due.syncId());
+            executor.submit(() -> {
+                try {
+                    runWithLease(due.syncId());
+                } finally {
+                    runningSyncIds.remove(due.syncId());
+                    permits.release();
+                }
+            });
+        }
+
+        if (!queue.isEmpty()) {
+            log.debug("Next Google Sheets sync {} is due at {}", queue.peek().syncId(), queue.peek().dueAt());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run one sync while holding its advisory lock on a dedicated connection
+     */
+    private void runWithLease(Long syncId) {
+        try {
+            syncLock.tryRunSync(syncId, () -> {
+                // Another replica may have finished this sync between our read and the lock
+                GoogleSheetsSync sync = syncRepository.findById(syncId).orElse(null);
+                if (sync == null || !Boolean.TRUE.equals(sync.getIsActive())
+                        || dueAt(sync, false).isAfter(LocalDateTime.now())) {
+                    return;
+                }
+
+                log.info("Running scheduled sync {} for organization {}", syncId, sync.getOrganizationId());
+                googleSheetsService.syncOrganizationData(sync.getOrganizationId());
+            });
+        } catch (Exception e) {
+            // Failure is recorded in lastSyncStatus; the sync is retried after its interval
+            log.error("Scheduled sync {} failed: {}", syncId, e.getMessage());
+        }
+    }
+
+    /**
+     * Due time of a sync; jitter is stable for a given last run so the order does not change between ticks
+     */
+    private LocalDateTime dueAt(GoogleSheetsSync sync, boolean withJitter) {
+        Duration interval = sync.getSyncIntervalMinutes() != null && sync.getSyncIntervalMinutes() > 0
+                ? Duration.ofMinutes(sync.getSyncIntervalMinutes())
+                : Duration.ofMillis(defaultIntervalMs);
+
+        // Never synced: due right away, spread by jitter from the moment the sync was created
+        LocalDateTime dueAt = sync.getLastSyncAt() != null
+                ? sync.getLastSyncAt().plus(interval)
+                : Objects.requireNonNullElse(sync.getCreatedAt(), LocalDateTime.MIN);
+        return withJitter && dueAt != LocalDateTime.MIN ? dueAt.plusSeconds(jitterSeconds(sync, interval)) : dueAt;
+    }
+
+    private long jitterSeconds(GoogleSheetsSync sync, Duration interval) {
+        // At most a tenth of the interval, so short intervals keep their cadence
+        long bound = Math.min(maxJitterSeconds, interval.toSeconds() / 10);
+        if (bound <= 0) {
+            return 0;
+        }
+        return Math.floorMod(Objects.hash(sync.getId(), sync.getLastSyncAt()), bound + 1);
+    }
+
+    private record DueSync(Long syncId, LocalDateTime dueAt) {
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * @file: SyncProgressListener.java
+ * @description: Callback receiving progress of a Google Sheets mass sync
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+/**
+ * Called once the sheet has been read and then after every processed domain.
+ * Domains are processed concurrently, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface SyncProgressListener {
+
+    SyncProgressListener NONE = progress -> {
+    };
+
+    void onProgress(Progress progress);
+
+    /**
+     * Row counters of the organizations sheet; processed counts skipped rows too
+     */
+    record Progress(int totalRows, int processedRows, int created, int updated, int skipped, int failed) {
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * @file: TelegramApiClient.java
+ * @description: Reactive Telegram Bot API client with a shared connection pool, timeouts and metrics
+ * @dependencies: WebClient, Reactor Netty, Micrometer
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All Bot API calls of the service go through this client:
+ * - one Reactor Netty connection pool; its size caps requests in flight, callers beyond it wait
+ *   in a bounded pending queue and fail fast when that is full or the wait times out;
+ * - connect and response timeouts, so a stalled Telegram never holds a caller or a connection;
+ * - errors are returned as a {@link SendResult} instead of signalled, callers decide about retries;
+ * - a timer per bot, method and outcome.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelegramApiClient {
+
+    private static final String METRIC_PREFIX = "telegram.api.";
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${telegram.bot.api-url:https://api.telegram.org/bot}")
+    private String apiUrl;
+
+    @Value("${telegram.client.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${telegram.client.response-timeout-ms:10000}")
+    private long responseTimeoutMs;
+
+    @Value("${telegram.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${telegram.client.max-pending:500}")
+    private int maxPending;
+
+    @Value("${telegram.client.pending-timeout-ms:5000}")
+    private long pendingTimeoutMs;
+
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    // Keyed by bot|method|outcome; bots are only known once they send, so timers cannot all be created in init
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        connectionProvider = ConnectionProvider.builder("telegram")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPending)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+
+        webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Send a text message
+     *
+     * @param token Telegram bot token
+     * @param chatId Chat ID to send to
+     * @param text Message text
+     * @param parseMode Markdown, HTML or null for plain text
+     */
+    public Mono<SendResult> sendMessage(String token, String chatId, String text, String parseMode) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("chat_id", chatId);
+        request.put("text", text);
+        if (parseMode != null) {
+            request.put("parse_mode", parseMode);
+        }
+        return call(token, "sendMessage", request);
+    }
+
+    private Mono<SendResult> call(String token, String method, Map<String, Object> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri(apiUrl + token + "/" + method)
+                    .bodyValue(request)
+                    .exchangeToMono(response -> response.bodyToMono(RESPONSE_TYPE)
+                            .onErrorResume(e -> Mono.just(Map.of("description", "Unreadable response body")))
+                            .defaultIfEmpty(Map.of())
+                            .map(body -> new SendResult(response.statusCode().value(), body)))
+                    .onErrorResume(e -> Mono.just(SendResult.failure(e)))
+                    .doOnNext(result -> {
+                        timer(botId(token), method, result.outcome()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (!result.isOk()) {
+                            log.debug("Telegram {} for bot {} returned {} {}",
+                                    method, botId(token), result.status(), result.description());
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Timer of a bot, method and outcome, registered on first use and reused afterwards
+     */
+    private Timer timer(String botId, String method, String outcome) {
+        return timers.computeIfAbsent(botId + "|" + method + "|" + outcome, key -> Timer.builder(METRIC_PREFIX + "requests")
+                .tag("bot", botId)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Numeric bot id from the token, safe to log and tag metrics with unlike the token itself
+     */
+    public static String botId(String token) {
+        int separator = token.indexOf(':');
+        return separator > 0 ? token.substring(0, separator) : "unknown";
+    }
+
+    /**
+     * Outcome of a Bot API call
+     *
+     * @param status HTTP status, 0 if no response was received
+     * @param body Parsed response body
+     */
+    public record SendResult(int status, Map<String, Object> body) {
+
+        static SendResult failure(Throwable e) {
+            return new SendResult(0, Map.of("description", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+        }
+
+        public boolean isOk() {
+            return status >= 200 && status < 300 && !Boolean.FALSE.equals(body.get("ok"));
+        }
+
+        /**
+         * Rate limited, no response or a server error: worth another attempt later
+         */
+        public boolean isRetryable() {
+            return status == 429 || status == 0 || status >= 500;
+        }
+
+        /**
+         * Seconds Telegram asks to wait after a 429
+         */
+        public long retryAfterSeconds() {
+            if (body.get("parameters") instanceof Map<?, ?> parameters
+                    && parameters.get("retry_after") instanceof Number retryAfter) {
+                return retryAfter.longValue();
+            }
+            return 1;
+        }
+
+        public String description() {
+            return String.valueOf(body.getOrDefault("description", ""));
+        }
+
+        private String outcome() {
+            if (isOk()) {
+                return "success";
+            }
+            if (status == 429) {
+                return "throttled";
+            }
+            return status == 0 ? "network_error" : status >= 500 ? "server_error" : "client_error";
+        }
+    }
+}
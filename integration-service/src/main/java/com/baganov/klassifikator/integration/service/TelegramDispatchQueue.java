@@ -0,0 +1,357 @@
+/**
+ * @file: TelegramDispatchQueue.java
+ * @description: In-process queue that delivers Telegram messages within Bot API rate limits
+ * @dependencies: TelegramApiClient, Micrometer, TokenBucket
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.service.TelegramApiClient.SendResult;
+import com.baganov.klassifikator.integration.util.TelegramMarkdown;
+import com.baganov.klassifikator.integration.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Telegram allows a bot about 30 messages per second overall and about one per second per chat.
+ * Messages are queued per (bot, chat) and drained by one virtual thread per busy chat, which takes
+ * a token from the chat bucket and from the bot bucket before each send:
+ * - a 429 pauses both buckets for the retry_after returned by Telegram, then the message is retried;
+ * - network errors and 5xx are retried with exponential backoff, other errors drop the message;
+ * - a merged message Telegram rejects with a 4xx is split back into its parts, so one bad order does not
+ *   take the others down with it, and a single message rejected that way is resent once as plain text;
+ * - a new message is merged into the last one still waiting for the same chat while it fits into
+ *   one Telegram message, so a burst of orders becomes a few longer messages instead of a backlog;
+ * - the number of waiting messages is bounded overall and per chat, overflow is dropped and counted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelegramDispatchQueue {
+
+    private static final String METRIC_PREFIX = "telegram.dispatch.";
+    private static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final String MERGE_SEPARATOR = "\n\n➖➖➖➖➖\n\n";
+    private static final List<String> OUTCOMES = List.of(
+            "sent", "merged", "split", "throttled", "retried", "failed", "dropped_chat_full", "dropped_queue_full");
+
+    private final TelegramApiClient telegramApiClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${telegram.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${telegram.dispatch.max-per-chat:50}")
+    private int maxPerChat;
+
+    @Value("${telegram.dispatch.bot-messages-per-second:30}")
+    private int botMessagesPerSecond;
+
+    @Value("${telegram.dispatch.chat-messages-per-second:1}")
+    private int chatMessagesPerSecond;
+
+    @Value("${telegram.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${telegram.dispatch.retry-base-delay-ms:1000}")
+    private long retryBaseDelayMs;
+
+    @Value("${telegram.dispatch.idle-eviction-ms:60000}")
+    private long idleEvictionMs;
+
+    private Timer latencyTimer;
+    private final Map<String, Counter> outcomeCounters = new HashMap<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Map<String, ChatQueue> chats = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> bots = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        latencyTimer = Timer.builder(METRIC_PREFIX + "latency")
+                .description("Time from enqueue to delivery")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.depth", depth, AtomicInteger::get)
+                .description("Messages waiting for delivery")
+                .register(meterRegistry);
+        for (String outcome : OUTCOMES) {
+            outcomeCounters.put(outcome, Counter.builder(METRIC_PREFIX + "messages")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (depth.get() > 0) {
+            log.warn("Shutting down with {} undelivered Telegram messages", depth.get());
+        }
+    }
+
+    /**
+     * Queue a message for delivery
+     *
+     * @param token Telegram bot token
+     * @param chatId Chat ID to send to
+     * @param text Message text in Telegram Markdown
+     * @return false if the message was dropped because the queue is full
+     */
+    public boolean enqueue(String token, String chatId, String text) {
+        if (text.length() > MAX_MESSAGE_LENGTH) {
+            text = text.substring(0, MAX_MESSAGE_LENGTH - 1) + "…";
+        }
+
+        String key = token + "|" + chatId;
+        while (true) {
+            ChatQueue chat = chats.computeIfAbsent(key, k -> new ChatQueue(token, chatId,
+                    new TokenBucket(chatMessagesPerSecond, Duration.ofSeconds(1))));
+            boolean startDrain;
+            chat.lock.lock();
+            try {
+                if (chat.retired) {
+                    // Evicted between lookup and lock, take the fresh entry
+                    continue;
+                }
+                chat.lastActivityNanos = System.nanoTime();
+
+                Pending last = chat.messages.peekLast();
+                if (last != null && !last.plainText
+                        && last.text.length() + MERGE_SEPARATOR.length() + text.length() <= MAX_MESSAGE_LENGTH) {
+                    last.text = last.text + MERGE_SEPARATOR + text;
+                    last.parts.add(text);
+                    count("merged");
+                    return true;
+                }
+                if (chat.messages.size() >= maxPerChat) {
+                    count("dropped_chat_full");
+                    log.warn("Telegram queue for chat {} of bot {} is full, dropping message", chatId, TelegramApiClient.botId(token));
+                    return false;
+                }
+                if (depth.incrementAndGet() > queueCapacity) {
+                    depth.decrementAndGet();
+                    count("dropped_queue_full");
+                    log.warn("Telegram dispatch queue is full ({} messages), dropping message for chat {}", queueCapacity, chatId);
+                    return false;
+                }
+
+                chat.messages.addLast(new Pending(text, System.nanoTime()));
+                startDrain = !chat.draining;
+                chat.draining = true;
+            } finally {
+                chat.lock.unlock();
+            }
+
+            if (startDrain) {
+                Thread.ofVirtual().name("telegram-dispatch-" + chatId).start(() -> drain(chat));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Forget buckets of chats and bots that have been idle, so the maps do not grow with every chat ever seen
+     */
+    @Scheduled(fixedDelayString = "${telegram.dispatch.idle-eviction-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+        chats.forEach((key, chat) -> {
+            chat.lock.lock();
+            try {
+                if (!chat.draining && chat.messages.isEmpty() && now - chat.lastActivityNanos > idleNanos) {
+                    chat.retired = true;
+                    chats.remove(key, chat);
+                }
+            } finally {
+                chat.lock.unlock();
+            }
+        });
+        // Atomic per key with the lookup in deliver, so a bucket in use or paused after a 429 is never dropped
+        Duration idle = Duration.ofMillis(idleEvictionMs);
+        for (String token : bots.keySet()) {
+            bots.computeIfPresent(token, (key, bucket) -> bucket.isIdleFor(idle) ? null : bucket);
+        }
+    }
+
+    private void drain(ChatQueue chat) {
+        while (true) {
+            Pending next;
+            chat.lock.lock();
+            try {
+                next = chat.messages.pollFirst();
+                if (next == null) {
+                    chat.draining = false;
+                    chat.lastActivityNanos = System.nanoTime();
+                    return;
+                }
+            } finally {
+                chat.lock.unlock();
+            }
+
+            try {
+                deliver(chat, next);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                chat.lock.lock();
+                try {
+                    chat.messages.addFirst(next);
+                    chat.draining = false;
+                } finally {
+                    chat.lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private void deliver(ChatQueue chat, Pending message) throws InterruptedException {
+        TokenBucket botBucket = bots.compute(chat.token, (token, bucket) -> {
+            TokenBucket current = bucket != null ? bucket : new TokenBucket(botMessagesPerSecond, Duration.ofSeconds(1));
+            current.touch();
+            return current;
+        });
+        boolean chatThrottled = chat.bucket.acquire();
+        boolean botThrottled = botBucket.acquire();
+        if (chatThrottled || botThrottled) {
+            count("throttled");
+        }
+
+        SendResult result = telegramApiClient.sendMessage(chat.token, chat.chatId, message.text,
+                message.plainText ? null : "Markdown").block();
+        if (result.isOk()) {
+            depth.decrementAndGet();
+            latencyTimer.record(System.nanoTime() - message.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+            count("sent");
+            return;
+        }
+
+        // 400 is a problem with the message itself; 401/403/404 concern the bot or chat and would fail for every part
+        if (result.status() == 400 && resend(chat, message, result)) {
+            return;
+        }
+
+        message.attempts++;
+        if (!result.isRetryable() || message.attempts >= maxAttempts) {
+            depth.decrementAndGet();
+            count("failed");
+            log.error("❌ Failed to deliver Telegram message to chat {} of bot {} after {} attempts: {} {}",
+                    chat.chatId, TelegramApiClient.botId(chat.token), message.attempts, result.status(), result.description());
+            return;
+        }
+
+        Duration delay;
+        if (result.status() == 429) {
+            delay = Duration.ofSeconds(Math.max(1, result.retryAfterSeconds()));
+            // Flood control may apply to the whole bot, so other chats of the bot wait too
+            botBucket.pauseFor(delay);
+        } else {
+            delay = Duration.ofMillis(retryBaseDelayMs << Math.min(message.attempts - 1, 10));
+        }
+        chat.bucket.pauseFor(delay);
+        count("retried");
+        log.warn("Telegram send to chat {} of bot {} failed with {} (attempt {}/{}), retrying in {} ms",
+                chat.chatId, TelegramApiClient.botId(chat.token), result.status(), message.attempts, maxAttempts, delay.toMillis());
+
+        chat.lock.lock();
+        try {
+            chat.messages.addFirst(message);
+        } finally {
+            chat.lock.unlock();
+        }
+    }
+
+    /**
+     * Resend a message Telegram rejected as malformed, typically 400 "can't parse entities":
+     * a merged message goes back to the head of the chat queue as its original parts,
+     * a single Markdown message is sent once more as plain text
+     *
+     * @return false if there is nothing left to try and the message has failed
+     */
+    private boolean resend(ChatQueue chat, Pending message, SendResult result) {
+        List<Pending> retry = new ArrayList<>();
+        if (message.parts.size() > 1) {
+            for (String part : message.parts) {
+                retry.add(new Pending(part, message.enqueuedAtNanos));
+            }
+            depth.addAndGet(retry.size() - 1);
+            count("split");
+            log.warn("Telegram rejected merged message for chat {} of bot {} with {} {}, resending its {} parts one by one",
+                    chat.chatId, TelegramApiClient.botId(chat.token), result.status(), result.description(), retry.size());
+        } else if (!message.plainText) {
+            message.text = TelegramMarkdown.toPlainText(message.text);
+            message.plainText = true;
+            retry.add(message);
+            count("retried");
+            log.warn("Telegram rejected message for chat {} of bot {} with {} {}, resending as plain text",
+                    chat.chatId, TelegramApiClient.botId(chat.token), result.status(), result.description());
+        } else {
+            return false;
+        }
+
+        chat.lock.lock();
+        try {
+            for (int i = retry.size() - 1; i >= 0; i--) {
+                chat.messages.addFirst(retry.get(i));
+            }
+        } finally {
+            chat.lock.unlock();
+        }
+        return true;
+    }
+
+    private void count(String outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    private static final class ChatQueue {
+        private final String token;
+        private final String chatId;
+        private final TokenBucket bucket;
+        private final ArrayDeque<Pending> messages = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean draining;
+        private boolean retired;
+        private long lastActivityNanos = System.nanoTime();
+
+        private ChatQueue(String token, String chatId, TokenBucket bucket) {
+            this.token = token;
+            this.chatId = chatId;
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class Pending {
+        private String text;
+        // Texts merged into this message, in order, so it can be split again if Telegram rejects it
+        private final List<String> parts = new ArrayList<>();
+        private final long enqueuedAtNanos;
+        private int attempts;
+        private boolean plainText;
+
+        private Pending(String text, long enqueuedAtNanos) {
+            this.text = text;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+            parts.add(text);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 /**
  * @file: TelegramNotificationService.java
  * @description: Service for sending notifications via Telegram Bot
- * @dependencies: WebClient
+ * @dependencies: TelegramDispatchQueue, TelegramOrderDigest
  * @created: 2025-11-03
  */
 package com.baganov.klassifikator.integration.service;
@@ -10,18 +10,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import static com.baganov.klassifikator.integration.util.TelegramMarkdown.escape;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TelegramNotificationService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final TelegramDispatchQueue dispatchQueue;
+    private final TelegramOrderDigest orderDigest;
 
     @Value("${telegram.bot.token:}")
     private String botToken;
@@ -34,17 +34,20 @@ public class TelegramNotificationService {
 
     /**
      * Send order notification to Telegram (both main bot and organization bot if configured)
+     * Messages are queued and delivered within Telegram rate limits, see {@link TelegramDispatchQueue}
+     * Organizations with digest mode get one summary per window for busy periods, see {@link TelegramOrderDigest}
      */
     public void sendOrderNotification(Map<String, Object> orderData) {
         String message = buildOrderMessage(orderData);
         
         // 1. Send to MAIN bot @ZZZorderbot (ALWAYS)
         if (enabled && !botToken.isEmpty() && !chatId.isEmpty()) {
-            try {
-                sendMessage(message, botToken, chatId);
-                log.info("✅ Telegram notification sent to MAIN bot @ZZZorderbot for order #{}", orderData.get("orderId"));
-            } catch (Exception e) {
-                log.error("❌ Failed to send Telegram notification to MAIN bot", e);
+            if (addToDigest(orderData, botToken, chatId)) {
+                log.info("📦 Order #{} added to Telegram digest for MAIN bot", orderData.get("orderId"));
+            } else if (sendMessage(message, botToken, chatId)) {
+                log.info("✅ Telegram notification queued for MAIN bot @ZZZorderbot for order #{}", orderData.get("orderId"));
+            } else {
+                log.error("❌ Failed to queue Telegram notification for MAIN bot, order #{}", orderData.get("orderId"));
             }
         } else {
             log.warn("⚠️ Main Telegram bot is not configured. Skipping main bot notification.");
@@ -56,11 +59,12 @@ public class TelegramNotificationService {
         
         if (orgTelegramBotToken != null && !orgTelegramBotToken.isEmpty() 
                 && orgTelegramChatId != null && !orgTelegramChatId.isEmpty()) {
-            try {
-                sendMessage(message, orgTelegramBotToken, orgTelegramChatId);
-                log.info("✅ Telegram notification sent to ORGANIZATION bot for order #{}", orderData.get("orderId"));
-            } catch (Exception e) {
-                log.error("❌ Failed to send Telegram notification to ORGANIZATION bot", e);
+            if (addToDigest(orderData, orgTelegramBotToken, orgTelegramChatId)) {
+                log.info("📦 Order #{} added to Telegram digest for ORGANIZATION bot", orderData.get("orderId"));
+            } else if (sendMessage(message, orgTelegramBotToken, orgTelegramChatId)) {
+                log.info("✅ Telegram notification queued for ORGANIZATION bot for order #{}", orderData.get("orderId"));
+            } else {
+                log.error("❌ Failed to queue Telegram notification for ORGANIZATION bot, order #{}", orderData.get("orderId"));
             }
         } else {
             log.debug("ℹ️ Organization bot is not configured for this order. Skipping organization bot notification.");
@@ -68,7 +72,16 @@ public class TelegramNotificationService {
     }
 
     /**
-     * Build order message text
+     * Add the order to the organization's digest if digest mode is on and a notification went out recently
+     */
+    private boolean addToDigest(Map<String, Object> orderData, String token, String chatId) {
+        return orderData.get("organizationTelegramDigestSeconds") instanceof Number window
+                && window.intValue() > 0
+                && orderDigest.offer(token, chatId, window.intValue(), orderData);
+    }
+
+    /**
+     * Build order message text; every value from the order is escaped, the text is legacy Telegram Markdown
      */
     private String buildOrderMessage(Map<String, Object> orderData) {
         StringBuilder message = new StringBuilder();
@@ -76,28 +89,28 @@ public class TelegramNotificationService {
         
         // Organization and domain info
         if (orderData.containsKey("organizationName") && orderData.get("organizationName") != null) {
-            message.append(String.format("🏢 Организация: %s\n", orderData.get("organizationName")));
+            message.append(String.format("🏢 Организация: %s\n", escape(orderData.get("organizationName"))));
         }
         if (orderData.containsKey("domain") && orderData.get("domain") != null) {
-            message.append(String.format("🌐 Домен: %s\n", orderData.get("domain")));
+            message.append(String.format("🌐 Домен: %s\n", escape(orderData.get("domain"))));
         }
         if (orderData.containsKey("organizationName") || orderData.containsKey("domain")) {
             message.append("\n");
         }
         
-        message.append(String.format("📋 Заказ #%s\n", orderData.get("orderId")));
-        message.append(String.format("👤 Клиент: %s\n", orderData.get("customerName")));
-        message.append(String.format("📞 Телефон: %s\n", orderData.get("customerPhone")));
+        message.append(String.format("📋 Заказ #%s\n", escape(orderData.get("orderId"))));
+        message.append(String.format("👤 Клиент: %s\n", escape(orderData.get("customerName"))));
+        message.append(String.format("📞 Телефон: %s\n", escape(orderData.get("customerPhone"))));
         
         if (orderData.containsKey("customerEmail") && orderData.get("customerEmail") != null) {
-            message.append(String.format("✉️ Email: %s\n", orderData.get("customerEmail")));
+            message.append(String.format("✉️ Email: %s\n", escape(orderData.get("customerEmail"))));
         }
         
         if (orderData.containsKey("deliveryAddress") && orderData.get("deliveryAddress") != null) {
-            message.append(String.format("🚚 Адрес: %s\n", orderData.get("deliveryAddress")));
+            message.append(String.format("🚚 Адрес: %s\n", escape(orderData.get("deliveryAddress"))));
         }
         
-        message.append(String.format("\n💰 Сумма: %s руб\n\n", orderData.get("totalAmount")));
+        message.append(String.format("\n💰 Сумма: %s руб\n\n", escape(orderData.get("totalAmount"))));
         
         // Add items
         if (orderData.containsKey("items")) {
@@ -106,14 +119,14 @@ public class TelegramNotificationService {
             java.util.List<Map<String, Object>> items = (java.util.List<Map<String, Object>>) orderData.get("items");
             for (Map<String, Object> item : items) {
                 message.append(String.format("  • %s × %s = %s руб\n", 
-                    item.get("productName"), 
-                    item.get("quantity"),
-                    item.get("totalPrice")));
+                    escape(item.get("productName")),
+                    escape(item.get("quantity")),
+                    escape(item.get("totalPrice"))));
             }
         }
         
         if (orderData.containsKey("comment") && orderData.get("comment") != null) {
-            message.append(String.format("\n💬 Комментарий: %s\n", orderData.get("comment")));
+            message.append(String.format("\n💬 Комментарий: %s\n", escape(orderData.get("comment"))));
         }
         
         message.append("\n🕐 " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm")));
@@ -122,38 +135,22 @@ public class TelegramNotificationService {
     }
 
     /**
-     * Send message to Telegram bot
+     * Queue message for Telegram bot
      * 
      * @param message Message text
      * @param token Telegram bot token
      * @param chatId Chat ID to send to
+     * @return false if the dispatch queue dropped the message
      */
-    private void sendMessage(String message, String token, String chatId) {
-        String url = String.format("https://api.telegram.org/bot%s/sendMessage", token);
-        
-        Map<String, Object> request = new HashMap<>();
-        request.put("chat_id", chatId);
-        request.put("text", message);
-        request.put("parse_mode", "Markdown");
-        
-        WebClient webClient = webClientBuilder.baseUrl(url).build();
-        
-        webClient.post()
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .onErrorResume(e -> {
-                    log.error("Telegram API error for chat {}: {}", chatId, e.getMessage());
-                    return Mono.empty();
-                })
-                .subscribe(response -> log.debug("Telegram response: {}", response));
+    private boolean sendMessage(String message, String token, String chatId) {
+        return dispatchQueue.enqueue(token, chatId, message);
     }
     
     /**
-     * Send message to Telegram (legacy method for main bot)
+     * Queue message for Telegram (legacy method for main bot)
      */
-    private void sendMessage(String message) {
-        sendMessage(message, botToken, chatId);
+    private boolean sendMessage(String message) {
+        return sendMessage(message, botToken, chatId);
     }
 
     /**
@@ -165,13 +162,7 @@ public class TelegramNotificationService {
             return false;
         }
 
-        try {
-            sendMessage("✅ Тест уведомлений Klassifikator\n\nСистема уведомлений работает!");
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to send test message", e);
-            return false;
-        }
+        return sendMessage("✅ Тест уведомлений Klassifikator\n\nСистема уведомлений работает!");
     }
 }
 
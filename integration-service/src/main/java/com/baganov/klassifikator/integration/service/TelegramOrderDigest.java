@@ -0,0 +1,244 @@
+/**
+ * @file: TelegramOrderDigest.java
+ * @description: Coalesces order notifications of high-volume organizations into periodic summary messages
+ * @dependencies: TelegramDispatchQueue, TelegramApiClient
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.service.TelegramApiClient.SendResult;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+import static com.baganov.klassifikator.integration.util.TelegramMarkdown.escape;
+
+/**
+ * Digest mode is enabled per organization with a window in seconds. Per (bot, chat, organization):
+ * - an order arriving when no notification went out during the last window is sent immediately,
+ *   so low-volume organizations see no delay;
+ * - orders arriving within the window after a notification are collected and sent as one summary
+ *   when the window ends.
+ * A chat therefore receives at most one message per window from an organization, whatever the order rate.
+ * State is kept in memory. On shutdown pending digests are sent directly, not through the dispatch queue,
+ * since the queue is not drained once the application stops; the whole flush is bounded by shutdown-timeout-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelegramOrderDigest {
+
+    private static final int MAX_LISTED_ORDERS = 40;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final TelegramDispatchQueue dispatchQueue;
+    private final TelegramApiClient telegramApiClient;
+
+    @Value("${telegram.digest.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private final Map<String, Digest> digests = new ConcurrentHashMap<>();
+
+    /**
+     * Offer an order to the digest of its organization
+     *
+     * @param token Telegram bot token
+     * @param chatId Chat ID to send to
+     * @param windowSeconds Digest window of the organization
+     * @param orderData Order data as received from order-service
+     * @return true if the order was added to a pending digest, false if it should be sent right away
+     */
+    public boolean offer(String token, String chatId, int windowSeconds, Map<String, Object> orderData) {
+        String key = token + "|" + chatId + "|" + orderData.get("organizationId");
+        long windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+
+        while (true) {
+            Digest digest = digests.computeIfAbsent(key, k -> new Digest(token, chatId));
+            digest.lock.lock();
+            try {
+                if (digest.retired) {
+                    // Evicted between lookup and lock, take the fresh entry
+                    continue;
+                }
+                long now = System.nanoTime();
+                digest.windowNanos = windowNanos;
+
+                if (digest.count == 0 && (!digest.sentBefore || now - digest.lastSentNanos >= windowNanos)) {
+                    digest.sentBefore = true;
+                    digest.lastSentNanos = now;
+                    return false;
+                }
+                if (digest.count == 0) {
+                    digest.dueNanos = digest.lastSentNanos + windowNanos;
+                }
+                digest.add(orderData);
+                return true;
+            } finally {
+                digest.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Send digests whose window has ended and forget idle ones
+     */
+    @Scheduled(fixedDelayString = "${telegram.digest.flush-interval-ms:1000}")
+    public void flushDue() {
+        flush(false, (digest, message) -> {
+            if (!dispatchQueue.enqueue(digest.token, digest.chatId, message)) {
+                log.error("❌ Failed to queue Telegram order digest for chat {}", digest.chatId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        flush(true, (digest, message) -> sendBeforeShutdown(digest, message, deadline));
+    }
+
+    private void sendBeforeShutdown(Digest digest, String message, long deadline) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+            log.error("❌ Shutdown timeout reached, Telegram order digest for chat {} is lost", digest.chatId);
+            return;
+        }
+        try {
+            SendResult result = telegramApiClient.sendMessage(digest.token, digest.chatId, message, "Markdown")
+                    .block(Duration.ofNanos(remainingNanos));
+            if (result == null || !result.isOk()) {
+                log.error("❌ Failed to send Telegram order digest for chat {} on shutdown: {}",
+                        digest.chatId, result != null ? result.status() + " " + result.description() : "no response");
+            }
+        } catch (RuntimeException e) {
+            // block() throws when the timeout elapses
+            log.error("❌ Failed to send Telegram order digest for chat {} on shutdown: {}", digest.chatId, e.getMessage());
+        }
+    }
+
+    private void flush(boolean all, BiConsumer<Digest, String> sender) {
+        digests.forEach((key, digest) -> {
+            String message = null;
+            digest.lock.lock();
+            try {
+                long now = System.nanoTime();
+                if (digest.count > 0 && (all || now - digest.dueNanos >= 0)) {
+                    message = digest.buildMessage();
+                    digest.clear();
+                    digest.lastSentNanos = now;
+                } else if (digest.count == 0 && now - digest.lastSentNanos > digest.windowNanos) {
+                    digest.retired = true;
+                    digests.remove(key, digest);
+                }
+            } finally {
+                digest.lock.unlock();
+            }
+
+            if (message != null) {
+                sender.accept(digest, message);
+            }
+        });
+    }
+
+    private static final class Digest {
+        private final String token;
+        private final String chatId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<String> lines = new ArrayList<>();
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+        private Object organizationName;
+        private Object domain;
+        private LocalDateTime firstOrderAt;
+        private LocalDateTime lastOrderAt;
+        private boolean sentBefore;
+        private boolean retired;
+        private long lastSentNanos;
+        private long dueNanos;
+        private long windowNanos;
+
+        private Digest(String token, String chatId) {
+            this.token = token;
+            this.chatId = chatId;
+        }
+
+        private void add(Map<String, Object> orderData) {
+            LocalDateTime now = LocalDateTime.now();
+            if (count == 0) {
+                firstOrderAt = now;
+            }
+            lastOrderAt = now;
+            count++;
+            organizationName = orderData.get("organizationName");
+            domain = orderData.get("domain");
+
+            Object amount = orderData.get("totalAmount");
+            if (amount != null) {
+                try {
+                    total = total.add(new BigDecimal(amount.toString()));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring non-numeric order total {} in Telegram digest", amount);
+                }
+            }
+
+            // Only the first orders are listed, the total covers all of them
+            if (lines.size() < MAX_LISTED_ORDERS) {
+                // Customer input is escaped, one stray _ or * would make Telegram reject the whole digest
+                lines.add(String.format("• #%s · %s · %s · %s руб",
+                        escape(orderData.get("orderId")),
+                        escape(orderData.get("customerName")),
+                        escape(orderData.get("customerPhone")),
+                        escape(amount)));
+            }
+        }
+
+        private String buildMessage() {
+            StringBuilder message = new StringBuilder();
+            message.append(String.format("🛒 *СВОДКА ЗАКАЗОВ: %d*\n\n", count));
+
+            if (organizationName != null) {
+                message.append(String.format("🏢 Организация: %s\n", escape(organizationName)));
+            }
+            if (domain != null) {
+                message.append(String.format("🌐 Домен: %s\n", escape(domain)));
+            }
+            if (organizationName != null || domain != null) {
+                message.append("\n");
+            }
+
+            for (String line : lines) {
+                message.append(line).append("\n");
+            }
+            if (count > lines.size()) {
+                message.append(String.format("…и ещё %d\n", count - lines.size()));
+            }
+
+            message.append(String.format("\n💰 Итого: %s руб\n", total.toPlainString()));
+            message.append(String.format("\n🕐 %s – %s",
+                    firstOrderAt.format(DATE_TIME_FORMATTER), lastOrderAt.format(TIME_FORMATTER)));
+            return message.toString();
+        }
+
+        private void clear() {
+            lines.clear();
+            count = 0;
+            total = BigDecimal.ZERO;
+        }
+    }
+}
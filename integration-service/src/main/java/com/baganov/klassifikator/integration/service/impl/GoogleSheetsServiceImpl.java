@@ -7,28 +7,54 @@
 package com.baganov.klassifikator.integration.service.impl;
 
 import com.baganov.klassifikator.common.model.entity.GoogleSheetsSync;
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncFingerprint;
 import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncDto;
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.model.sheet.ProductRow;
+import com.baganov.klassifikator.integration.model.sheet.PromotionRow;
+import com.baganov.klassifikator.integration.model.sheet.SheetCellError;
+import com.baganov.klassifikator.integration.model.sheet.SheetParseResult;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncFingerprintRepository;
 import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import com.baganov.klassifikator.integration.service.GoogleSheetsApiClient;
+import com.baganov.klassifikator.integration.service.GoogleSheetsBulkImporter;
 import com.baganov.klassifikator.integration.service.GoogleSheetsService;
-import com.google.api.services.sheets.v4.Sheets;
+import com.baganov.klassifikator.integration.service.SyncProgressListener;
+import com.baganov.klassifikator.integration.util.SheetFingerprint;
+import com.baganov.klassifikator.integration.util.SheetRowParser;
+import com.baganov.klassifikator.integration.util.SheetTable;
+import com.google.api.services.sheets.v4.model.BatchGetValuesResponse;
 import com.google.api.services.sheets.v4.model.ValueRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GoogleSheetsServiceImpl implements GoogleSheetsService {
 
+    private static final List<String> PRODUCTS_SHEET_NAMES = List.of("goods");
+    private static final List<String> PROMOTION_SHEET_NAMES = List.of("promotion", "Promotions", "Акции", "акции");
+
     private final GoogleSheetsSyncRepository syncRepository;
-    private final Sheets sheetsService;
+    private final GoogleSheetsSyncFingerprintRepository fingerprintRepository;
+    private final GoogleSheetsApiClient sheetsApiClient;
     private final com.baganov.klassifikator.integration.service.GoogleSheetsDataProcessor dataProcessor;
+    private final GoogleSheetsBulkImporter bulkImporter;
+
+    @Value("${google.sheets.sync-concurrency:8}")
+    private int syncConcurrency;
 
     @Override
     @Transactional
@@ -58,8 +84,10 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
         return mapToDto(sync);
     }
 
+    /**
+     * Not transactional: processing is remote calls only, and a FAILED status must survive the thrown exception
+     */
     @Override
-    @Transactional
     public void syncOrganizationData(Long organizationId) {
         log.info("Syncing data for organization {}", organizationId);
 
@@ -68,15 +96,44 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
 
         try {
             String range = sync.getSheetName() != null ? sync.getSheetName() + "!A:Z" : "A:Z";
-            List<Map<String, Object>> data = readSpreadsheetData(sync.getSpreadsheetId(), range);
-
-            log.info("Read {} rows from spreadsheet", data.size());
+            SheetTable table = SheetTable.of(sync.getSheetName() != null ? sync.getSheetName() : "",
+                    sheetsApiClient.getValues(sync.getSpreadsheetId(), range).getValues());
+            int rowCount = table.rowCount();
+
+            log.info("Read {} rows from spreadsheet", rowCount);
+
+            // First row holds the organization, other rows may hold products and promotions
+            List<OrganizationRow> organization = rowCount > 0
+                    ? List.of(SheetRowParser.organization(table, 0))
+                    : List.of();
+            SheetParseResult<ProductRow> products = SheetRowParser.products(table);
+            SheetParseResult<PromotionRow> promotions = SheetRowParser.promotions(table);
+            List<SheetCellError> cellErrors = new ArrayList<>(products.errors());
+            cellErrors.addAll(promotions.errors());
+            cellErrors.forEach(error -> log.warn("Organization {}: {}", organizationId, error));
+
+            // Skip downstream updates when the sheet has not changed since the last successful sync
+            String fingerprint = SheetFingerprint.of(organization, products.rows(), promotions.rows());
+            if (fingerprint.equals(sync.getDataFingerprint())) {
+                log.info("Sheet data for organization {} is unchanged, skipping", organizationId);
+                sync.setLastSyncAt(LocalDateTime.now());
+                sync.setLastSyncStatus("SUCCESS - Unchanged, skipped " + rowCount + " rows");
+                syncRepository.save(sync);
+                return;
+            }
 
             // Process data and update organization
-            dataProcessor.processAndUpdateOrganization(organizationId, data);
+            if (organization.isEmpty()) {
+                log.warn("No data to process");
+            } else {
+                dataProcessor.processAndUpdateOrganization(organizationId, organization.get(0),
+                        products.rows(), promotions.rows());
+            }
 
             sync.setLastSyncAt(LocalDateTime.now());
-            sync.setLastSyncStatus("SUCCESS - Processed " + data.size() + " rows");
+            sync.setLastSyncStatus("SUCCESS - Processed " + rowCount + " rows"
+                    + (cellErrors.isEmpty() ? "" : ", " + cellErrors.size() + " invalid cells"));
+            sync.setDataFingerprint(fingerprint);
             syncRepository.save(sync);
 
             log.info("Successfully synced organization {}", organizationId);
@@ -90,8 +147,11 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
         }
     }
 
+    /**
+     * Sync all active organizations at once
+     * Scheduled runs go through GoogleSheetsSyncScheduler, which honors each sync's interval
+     */
     @Override
-    @Scheduled(fixedDelayString = "${google.sheets.sync-interval-ms:1800000}") // 30 minutes
     public void syncAllActiveOrganizations() {
         log.info("Starting scheduled sync for all active organizations");
 
@@ -114,9 +174,7 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
         log.debug("Reading data from spreadsheet {} range {}", spreadsheetId, range);
 
         try {
-            ValueRange response = sheetsService.spreadsheets().values()
-                    .get(spreadsheetId, range)
-                    .execute();
+            ValueRange response = sheetsApiClient.getValues(spreadsheetId, range);
 
             List<List<Object>> values = response.getValues();
             if (values == null || values.isEmpty()) {
@@ -124,133 +182,162 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
                 return Collections.emptyList();
             }
 
-            // First row is headers
-            List<Object> headers = values.get(0);
-            List<Map<String, Object>> result = new ArrayList<>();
+            return toRows(values);
 
-            for (int i = 1; i < values.size(); i++) {
-                List<Object> row = values.get(i);
-                Map<String, Object> rowData = new HashMap<>();
+        } catch (Exception e) {
+            log.error("Failed to read spreadsheet data", e);
+            throw new RuntimeException("Failed to read spreadsheet: " + e.getMessage());
+        }
+    }
 
-                for (int j = 0; j < headers.size(); j++) {
-                    String header = headers.get(j).toString();
-                    Object value = j < row.size() ? row.get(j) : "";
-                    rowData.put(header, value);
-                }
+    /**
+     * Read several ranges of a spreadsheet in one values.batchGet request
+     * Value ranges are returned in the same order as requested
+     */
+    private List<ValueRange> batchReadRanges(String spreadsheetId, List<String> ranges) {
+        log.debug("Batch reading ranges {} from spreadsheet {}", ranges, spreadsheetId);
 
-                result.add(rowData);
-            }
+        try {
+            BatchGetValuesResponse response = sheetsApiClient.batchGetValues(spreadsheetId, ranges);
 
-            return result;
+            List<ValueRange> valueRanges = response.getValueRanges();
+            if (valueRanges == null || valueRanges.size() != ranges.size()) {
+                throw new IllegalStateException("Expected " + ranges.size() + " value ranges, got "
+                        + (valueRanges == null ? 0 : valueRanges.size()));
+            }
+            return valueRanges;
 
         } catch (Exception e) {
-            log.error("Failed to read spreadsheet data", e);
+            log.error("Failed to batch read spreadsheet data", e);
             throw new RuntimeException("Failed to read spreadsheet: " + e.getMessage());
         }
     }
 
+    /**
+     * Convert raw sheet values to row maps keyed by header
+     * Headers are taken from the first row and resolved once for the whole tab
+     */
+    private List<Map<String, Object>> toRows(List<List<Object>> values) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> headerRow = values.get(0);
+        String[] headers = new String[headerRow.size()];
+        for (int j = 0; j < headers.length; j++) {
+            headers[j] = headerRow.get(j).toString();
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(values.size() - 1);
+        for (int i = 1; i < values.size(); i++) {
+            List<Object> row = values.get(i);
+            Map<String, Object> rowData = new HashMap<>(headers.length * 2);
+
+            for (int j = 0; j < headers.length; j++) {
+                rowData.put(headers[j], j < row.size() ? row.get(j) : "");
+            }
+
+            result.add(rowData);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the first existing sheet among name variants
+     * Exact match wins, otherwise names are compared ignoring case
+     */
+    private String findSheet(List<String> availableSheets, List<String> variants) {
+        for (String variant : variants) {
+            if (availableSheets.contains(variant)) {
+                return variant;
+            }
+        }
+        for (String variant : variants) {
+            for (String sheet : availableSheets) {
+                if (sheet.equalsIgnoreCase(variant)) {
+                    return sheet;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Build A1 range with a quoted sheet name
+     */
+    private String toRange(String sheet, String columns) {
+        return "'" + sheet.replace("'", "''") + "'!" + columns;
+    }
+
     @Override
     public Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName) {
-        log.info("Syncing all organizations from spreadsheet: {}, sheet: {}", spreadsheetId, sheetName);
+        return syncAllOrganizationsFromSheet(spreadsheetId, sheetName, false);
+    }
+
+    @Override
+    public Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName, boolean force) {
+        return syncAllOrganizationsFromSheet(spreadsheetId, sheetName, force, SyncProgressListener.NONE);
+    }
+
+    @Override
+    public Map<String, Object> syncAllOrganizationsFromSheet(String spreadsheetId, String sheetName, boolean force,
+                                                             SyncProgressListener progressListener) {
+        log.info("Syncing all organizations from spreadsheet: {}, sheet: {}, force: {}", spreadsheetId, sheetName, force);
         
-        // Use default spreadsheet ID from first sync record if not provided
-        if (spreadsheetId == null || spreadsheetId.isEmpty()) {
-            GoogleSheetsSync firstSync = syncRepository.findAll().stream()
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("No sync configuration found and spreadsheetId not provided"));
-            spreadsheetId = firstSync.getSpreadsheetId();
-        }
+        String syncSpreadsheetId = resolveSpreadsheetId(spreadsheetId);
         
-        int created = 0;
-        int updated = 0;
-        int failed = 0;
+        AtomicInteger createdCount = new AtomicInteger();
+        AtomicInteger updatedCount = new AtomicInteger();
+        AtomicInteger failedCount = new AtomicInteger();
+        AtomicInteger skippedCount = new AtomicInteger();
+        AtomicInteger processedCount = new AtomicInteger();
         int deleted = 0;
         int total = 0;
-        List<String> errors = new ArrayList<>();
-        List<Map<String, Object>> rows = new ArrayList<>();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
         Set<String> sheetDomains = new HashSet<>();  // Track domains from Google Sheets
         
         try {
-            // Read all rows from Google Sheets
-            rows = readSpreadsheetData(spreadsheetId, sheetName + "!A:AB");
-            total = rows.size();
-            log.info("Read {} rows from Google Sheets (Organizations)", total);
+            SheetData sheetData = readSheetData(syncSpreadsheetId, sheetName, errors);
+            total = sheetData.totalRows();
+            Map<String, List<OrganizationRow>> rowsByDomain = sheetData.rowsByDomain();
+            Map<String, List<ProductRow>> productsByDomain = sheetData.productsByDomain();
+            Map<String, List<PromotionRow>> promotionsByDomain = sheetData.promotionsByDomain();
+            rowsByDomain.keySet().forEach(sheetDomains::add);
             
-            // Read products from separate sheet
-            List<Map<String, Object>> productsRows = new ArrayList<>();
-            try {
-                productsRows = readSpreadsheetData(spreadsheetId, "goods!A:F");
-                log.info("Read {} rows from Google Sheets (goods/products)", productsRows.size());
-            } catch (Exception e) {
-                log.warn("Failed to read products sheet 'goods': {}", e.getMessage());
+            // Fingerprints of the last successful sync per domain
+            Map<String, GoogleSheetsSyncFingerprint> storedFingerprints = new HashMap<>();
+            for (GoogleSheetsSyncFingerprint stored : fingerprintRepository.findBySpreadsheetId(syncSpreadsheetId)) {
+                storedFingerprints.put(stored.getDomain(), stored);
             }
             
-            // Read promotions from separate sheet
-            List<Map<String, Object>> promotionsRows = new ArrayList<>();
-            // Try different sheet name variants
-            String[] promotionSheetNames = {"promotion", "Promotions", "Акции", "акции"};
-            for (String sheetNameVariant : promotionSheetNames) {
-                try {
-                    promotionsRows = readSpreadsheetData(spreadsheetId, sheetNameVariant + "!A:D");
-                    log.info("Read {} rows from Google Sheets (promotions/{})", promotionsRows.size(), sheetNameVariant);
-                    break; // Success, stop trying
-                } catch (Exception e) {
-                    log.debug("Failed to read promotions sheet '{}': {}", sheetNameVariant, e.getMessage());
-                }
-            }
-            if (promotionsRows.isEmpty()) {
-                log.warn("Could not read promotions from any sheet variant");
-            }
-            
-            // Group products by domain
-            Map<String, List<Map<String, Object>>> productsByDomain = groupByDomain(productsRows);
-            log.info("Grouped products into {} domains", productsByDomain.size());
+            int validRows = rowsByDomain.values().stream().mapToInt(List::size).sum();
+            reportProgress(progressListener, validRows, 0, createdCount, updatedCount, skippedCount, failedCount);
             
-            // Group promotions by domain
-            Map<String, List<Map<String, Object>>> promotionsByDomain = groupByDomain(promotionsRows);
-            log.info("Grouped promotions into {} domains", promotionsByDomain.size());
+            int concurrency = Math.max(1, syncConcurrency);
+            log.info("Processing {} domains with concurrency {}", rowsByDomain.size(), concurrency);
+            Semaphore permits = new Semaphore(concurrency);
             
-            for (Map<String, Object> row : rows) {
-                try {
-                    String domain = getStringValue(row, "Домен", "").trim();
-                    String name = getStringValue(row, "Название", "").trim();
-                    
-                    // Skip empty rows
-                    if (domain.isEmpty() || name.isEmpty()) {
-                        log.debug("Skipping row with empty domain or name");
-                        continue;
-                    }
-                    
-                    // Clean domain: remove protocol and trailing slashes
-                    domain = domain.replaceAll("^https?://", "").replaceAll("/$", "");
-                    
-                    // Track this domain
-                    sheetDomains.add(domain);
-                    
-                    // Get products and promotions for this domain
-                    List<Map<String, Object>> domainProducts = productsByDomain.getOrDefault(domain, new ArrayList<>());
-                    List<Map<String, Object>> domainPromotions = promotionsByDomain.getOrDefault(domain, new ArrayList<>());
-                    
-                    log.info("Domain {} has {} products and {} promotions", domain, domainProducts.size(), domainPromotions.size());
-                    
-                    // Process this organization with its products and promotions
-                    boolean isNew = dataProcessor.processOrganizationRow(row, domain, name, domainProducts, domainPromotions);
-                    
-                    if (isNew) {
-                        created++;
-                        log.info("✅ Created new organization: {} ({}) with {} products, {} promotions", 
-                                name, domain, domainProducts.size(), domainPromotions.size());
-                    } else {
-                        updated++;
-                        log.info("🔄 Updated existing organization: {} ({}) with {} products, {} promotions", 
-                                name, domain, domainProducts.size(), domainPromotions.size());
-                    }
-                    
-                } catch (Exception e) {
-                    failed++;
-                    String errorMsg = "Failed to process row: " + e.getMessage();
-                    errors.add(errorMsg);
-                    log.error(errorMsg, e);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (List<OrganizationRow> domainRows : rowsByDomain.values()) {
+                    executor.submit(() -> {
+                        try {
+                            permits.acquire();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            failedCount.addAndGet(domainRows.size());
+                            errors.add("Sync interrupted before processing domain: " + domainRows.get(0).domain());
+                            return;
+                        }
+                        try {
+                            syncDomain(syncSpreadsheetId, domainRows, productsByDomain, promotionsByDomain,
+                                    storedFingerprints, force, createdCount, updatedCount, failedCount, skippedCount, errors);
+                        } finally {
+                            permits.release();
+                            reportProgress(progressListener, validRows, processedCount.addAndGet(domainRows.size()),
+                                    createdCount, updatedCount, skippedCount, failedCount);
+                        }
+                    });
                 }
             }
             
@@ -263,56 +350,302 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
                 errors.add("Failed to delete old organizations: " + e.getMessage());
             }
             
+            // Forget fingerprints of removed domains so they are fully processed if added back
+            if (sheetDomains.isEmpty()) {
+                fingerprintRepository.deleteBySpreadsheetId(syncSpreadsheetId);
+            } else {
+                fingerprintRepository.deleteBySpreadsheetIdAndDomainNotIn(syncSpreadsheetId, sheetDomains);
+            }
+            
         } catch (Exception e) {
             log.error("Failed to sync all organizations", e);
             throw new RuntimeException("Failed to sync all organizations: " + e.getMessage());
         }
         
+        int created = createdCount.get();
+        int updated = updatedCount.get();
+        int failed = failedCount.get();
+        int skipped = skippedCount.get();
+        
         Map<String, Object> result = new HashMap<>();
         result.put("total", total);
         result.put("created", created);
         result.put("deleted", deleted);
         result.put("updated", updated);
         result.put("failed", failed);
-        result.put("errors", errors);
+        result.put("skipped", skipped);
+        result.put("errors", new ArrayList<>(errors));
         result.put("status", "SUCCESS");
         result.put("timestamp", LocalDateTime.now());
         
-        log.info("Sync completed: {} created, {} updated, {} failed", created, updated, failed);
+        log.info("Sync completed: {} created, {} updated, {} skipped, {} failed", created, updated, skipped, failed);
+        return result;
+    }
+    
+    /**
+     * Read the organizations tab with its goods and promotions tabs and group the typed rows by domain.
+     * Invalid cells are added to errors.
+     */
+    private SheetData readSheetData(String spreadsheetId, String sheetName, List<String> errors) {
+        // Discover tabs once, then fetch organizations, goods and promotions in a single batchGet
+        List<String> availableSheets = getSheetNames(spreadsheetId);
+        String productsSheet = findSheet(availableSheets, PRODUCTS_SHEET_NAMES);
+        String promotionsSheet = findSheet(availableSheets, PROMOTION_SHEET_NAMES);
+        
+        List<String> ranges = new ArrayList<>();
+        ranges.add(toRange(sheetName, "A:AB"));
+        if (productsSheet != null) {
+            ranges.add(toRange(productsSheet, "A:F"));
+        }
+        if (promotionsSheet != null) {
+            ranges.add(toRange(promotionsSheet, "A:D"));
+        }
+        
+        List<ValueRange> valueRanges = batchReadRanges(spreadsheetId, ranges);
+        
+        // Headers are resolved once per tab; rows become typed records read by column index
+        SheetTable organizationsTable = SheetTable.of(sheetName, valueRanges.get(0).getValues());
+        log.info("Read {} rows from Google Sheets (Organizations)", organizationsTable.rowCount());
+        
+        // Products from separate sheet
+        List<ProductRow> productRows = new ArrayList<>();
+        if (productsSheet != null) {
+            SheetParseResult<ProductRow> products =
+                    SheetRowParser.products(SheetTable.of(productsSheet, valueRanges.get(1).getValues()));
+            productRows = products.rows();
+            addCellErrors(products.errors(), errors);
+            log.info("Read {} products from Google Sheets (goods)", productRows.size());
+        } else {
+            log.warn("Products sheet 'goods' not found in spreadsheet");
+        }
+        
+        // Promotions from separate sheet
+        List<PromotionRow> promotionRows = new ArrayList<>();
+        if (promotionsSheet != null) {
+            SheetParseResult<PromotionRow> promotions = SheetRowParser.promotions(
+                    SheetTable.of(promotionsSheet, valueRanges.get(valueRanges.size() - 1).getValues()));
+            promotionRows = promotions.rows();
+            addCellErrors(promotions.errors(), errors);
+            log.info("Read {} promotions from Google Sheets ({})", promotionRows.size(), promotionsSheet);
+        }
+        if (promotionRows.isEmpty()) {
+            log.warn("Could not read promotions from any sheet variant");
+        }
+        
+        // Group products by domain
+        Map<String, List<ProductRow>> productsByDomain = groupByDomain(productRows, ProductRow::domain);
+        log.info("Grouped products into {} domains", productsByDomain.size());
+        
+        // Group promotions by domain
+        Map<String, List<PromotionRow>> promotionsByDomain = groupByDomain(promotionRows, PromotionRow::domain);
+        log.info("Grouped promotions into {} domains", promotionsByDomain.size());
+        
+        // Collect valid rows per domain, preserving sheet order (rows without domain or name are
+        // skipped by the parser). Rows sharing a domain stay in one task so that the same landing
+        // is never created twice concurrently.
+        Map<String, List<OrganizationRow>> rowsByDomain = new LinkedHashMap<>();
+        for (OrganizationRow row : SheetRowParser.organizations(organizationsTable).rows()) {
+            rowsByDomain.computeIfAbsent(row.domain(), k -> new ArrayList<>()).add(row);
+        }
+        
+        return new SheetData(organizationsTable.rowCount(), rowsByDomain, productsByDomain, promotionsByDomain);
+    }
+    
+    @Override
+    public Map<String, Object> bulkImportFromSheet(String spreadsheetId, String sheetName,
+                                                   SyncProgressListener progressListener) {
+        log.info("Bulk importing organizations from spreadsheet: {}, sheet: {}", spreadsheetId, sheetName);
+        
+        String importSpreadsheetId = resolveSpreadsheetId(spreadsheetId);
+        List<String> errors = new ArrayList<>();
+        int total;
+        GoogleSheetsBulkImporter.Result imported;
+        
+        try {
+            SheetData sheetData = readSheetData(importSpreadsheetId, sheetName, errors);
+            total = sheetData.totalRows();
+            int validRows = sheetData.rowsByDomain().values().stream().mapToInt(List::size).sum();
+            reportProgress(progressListener, new SyncProgressListener.Progress(validRows, 0, 0, 0, 0, 0));
+            
+            imported = bulkImporter.importOrganizations(importSpreadsheetId, sheetData.rowsByDomain(),
+                    sheetData.productsByDomain(), sheetData.promotionsByDomain());
+            errors.addAll(imported.errors());
+            if (imported.pendingImageDomains() > 0) {
+                errors.add(imported.pendingImageDomains() + " domains have product images that are not uploaded yet; "
+                        + "the next sync-all processes them");
+            }
+            reportProgress(progressListener, new SyncProgressListener.Progress(validRows, validRows,
+                    imported.created(), imported.updated(), 0, imported.failed()));
+        } catch (Exception e) {
+            log.error("Failed to bulk import organizations", e);
+            throw new RuntimeException("Failed to bulk import organizations: " + e.getMessage());
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("total", total);
+        result.put("created", imported.created());
+        result.put("deleted", 0);
+        result.put("updated", imported.updated());
+        result.put("failed", imported.failed());
+        result.put("skipped", 0);
+        result.put("errors", errors);
+        result.put("status", "SUCCESS");
+        result.put("timestamp", LocalDateTime.now());
         return result;
     }
     
-    private String getStringValue(Map<String, Object> data, String key, String defaultValue) {
-        Object value = data.get(key);
-        return value != null && !value.toString().trim().isEmpty() ? value.toString().trim() : defaultValue;
+    /**
+     * Spreadsheet to sync; defaults to the spreadsheet of the first sync configuration
+     */
+    private String resolveSpreadsheetId(String spreadsheetId) {
+        if (spreadsheetId != null && !spreadsheetId.isEmpty()) {
+            return spreadsheetId;
+        }
+        return syncRepository.findAll().stream()
+                .findFirst()
+                .map(GoogleSheetsSync::getSpreadsheetId)
+                .orElseThrow(() -> new RuntimeException("No sync configuration found and spreadsheetId not provided"));
+    }
+    
+    private void reportProgress(SyncProgressListener progressListener, int totalRows, int processedRows,
+                                AtomicInteger createdCount, AtomicInteger updatedCount,
+                                AtomicInteger skippedCount, AtomicInteger failedCount) {
+        reportProgress(progressListener, new SyncProgressListener.Progress(totalRows, processedRows,
+                createdCount.get(), updatedCount.get(), skippedCount.get(), failedCount.get()));
+    }
+    
+    private void reportProgress(SyncProgressListener progressListener, SyncProgressListener.Progress progress) {
+        try {
+            progressListener.onProgress(progress);
+        } catch (Exception e) {
+            // Progress reporting must never fail the sync itself
+            log.warn("Failed to report sync progress: {}", e.getMessage());
+        }
     }
     
     /**
-     * Group rows by domain
-     * @param rows List of rows from Google Sheets
-     * @return Map of domain to list of rows
+     * Sync all rows of one domain, skipping them when their fingerprint matches the last successful sync
      */
-    private Map<String, List<Map<String, Object>>> groupByDomain(List<Map<String, Object>> rows) {
-        Map<String, List<Map<String, Object>>> grouped = new HashMap<>();
+    private void syncDomain(String spreadsheetId,
+                            List<OrganizationRow> domainRows,
+                            Map<String, List<ProductRow>> productsByDomain,
+                            Map<String, List<PromotionRow>> promotionsByDomain,
+                            Map<String, GoogleSheetsSyncFingerprint> storedFingerprints,
+                            boolean force,
+                            AtomicInteger createdCount,
+                            AtomicInteger updatedCount,
+                            AtomicInteger failedCount,
+                            AtomicInteger skippedCount,
+                            List<String> errors) {
+        String domain = domainRows.get(0).domain();
         
-        for (Map<String, Object> row : rows) {
-            String domain = getStringValue(row, "Домен", "").trim();
-            
-            // Skip empty domains
-            if (domain.isEmpty()) {
-                continue;
+        String fingerprint = SheetFingerprint.of(domainRows,
+                productsByDomain.getOrDefault(domain, List.of()),
+                promotionsByDomain.getOrDefault(domain, List.of()));
+        
+        GoogleSheetsSyncFingerprint stored = storedFingerprints.get(domain);
+        if (!force && stored != null && fingerprint.equals(stored.getFingerprint())) {
+            log.debug("Domain {} is unchanged since {}, skipping", domain, stored.getSyncedAt());
+            skippedCount.addAndGet(domainRows.size());
+            return;
+        }
+        
+        boolean allSucceeded = true;
+        for (OrganizationRow organizationRow : domainRows) {
+            allSucceeded &= processOrganizationRow(organizationRow, productsByDomain, promotionsByDomain,
+                    createdCount, updatedCount, failedCount, errors);
+        }
+        
+        // Remember the fingerprint only after a clean run, so failed domains are retried next time
+        if (allSucceeded) {
+            try {
+                GoogleSheetsSyncFingerprint entity = stored != null ? stored : GoogleSheetsSyncFingerprint.builder()
+                        .spreadsheetId(spreadsheetId)
+                        .domain(domain)
+                        .build();
+                entity.setFingerprint(fingerprint);
+                entity.setSyncedAt(LocalDateTime.now());
+                fingerprintRepository.save(entity);
+            } catch (Exception e) {
+                log.warn("Failed to store sync fingerprint for domain {}: {}", domain, e.getMessage());
             }
+        }
+    }
+    
+    /**
+     * Process a single organization row, isolating its failure from the rest of the sync
+     * @return true if the row was processed without errors
+     */
+    private boolean processOrganizationRow(OrganizationRow organizationRow,
+                                        Map<String, List<ProductRow>> productsByDomain,
+                                        Map<String, List<PromotionRow>> promotionsByDomain,
+                                        AtomicInteger createdCount,
+                                        AtomicInteger updatedCount,
+                                        AtomicInteger failedCount,
+                                        List<String> errors) {
+        String domain = organizationRow.domain();
+        String name = organizationRow.name();
+        
+        try {
+            // Get products and promotions for this domain
+            List<ProductRow> domainProducts = productsByDomain.getOrDefault(domain, List.of());
+            List<PromotionRow> domainPromotions = promotionsByDomain.getOrDefault(domain, List.of());
+            
+            log.info("Domain {} has {} products and {} promotions", domain, domainProducts.size(), domainPromotions.size());
             
-            // Clean domain: remove protocol and trailing slashes
-            domain = domain.replaceAll("^https?://", "").replaceAll("/$", "");
+            // Process this organization with its products and promotions
+            boolean isNew = dataProcessor.processOrganizationRow(organizationRow, domainProducts, domainPromotions);
             
-            // Add row to domain group
-            grouped.computeIfAbsent(domain, k -> new ArrayList<>()).add(row);
+            if (isNew) {
+                createdCount.incrementAndGet();
+                log.info("✅ Created new organization: {} ({}) with {} products, {} promotions", 
+                        name, domain, domainProducts.size(), domainPromotions.size());
+            } else {
+                updatedCount.incrementAndGet();
+                log.info("🔄 Updated existing organization: {} ({}) with {} products, {} promotions", 
+                        name, domain, domainProducts.size(), domainPromotions.size());
+            }
+            return true;
+            
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            String errorMsg = "Failed to process row: " + e.getMessage();
+            errors.add(errorMsg);
+            log.error(errorMsg, e);
+            return false;
+        }
+    }
+    
+    private void addCellErrors(List<SheetCellError> cellErrors, List<String> errors) {
+        for (SheetCellError error : cellErrors) {
+            log.warn("Invalid cell {}", error);
+            errors.add("Invalid cell " + error);
+        }
+    }
+    
+    /**
+     * Group rows by their normalized domain, skipping rows without one
+     */
+    private <T> Map<String, List<T>> groupByDomain(List<T> rows, Function<T, String> domainOf) {
+        Map<String, List<T>> grouped = new HashMap<>();
+        for (T row : rows) {
+            String domain = domainOf.apply(row);
+            if (!domain.isEmpty()) {
+                grouped.computeIfAbsent(domain, k -> new ArrayList<>()).add(row);
+            }
         }
-        
         return grouped;
     }
 
+    /**
+     * Rows of a mass sync: organization rows in sheet order and goods and promotions, all grouped by domain
+     */
+    private record SheetData(int totalRows,
+                             Map<String, List<OrganizationRow>> rowsByDomain,
+                             Map<String, List<ProductRow>> productsByDomain,
+                             Map<String, List<PromotionRow>> promotionsByDomain) {
+    }
+
     private GoogleSheetsSyncDto mapToDto(GoogleSheetsSync entity) {
         return GoogleSheetsSyncDto.builder()
                 .id(entity.getId())
@@ -331,14 +664,7 @@ public class GoogleSheetsServiceImpl implements GoogleSheetsService {
     public List<String> getSheetNames(String spreadsheetId) {
         try {
             log.info("Getting sheet names for spreadsheet: {}", spreadsheetId);
-            com.google.api.services.sheets.v4.model.Spreadsheet spreadsheet = 
-                sheetsService.spreadsheets()
-                    .get(spreadsheetId)
-                    .execute();
-            
-            return spreadsheet.getSheets().stream()
-                .map(sheet -> sheet.getProperties().getTitle())
-                .collect(java.util.stream.Collectors.toList());
+            return sheetsApiClient.getSheetTitles(spreadsheetId);
         } catch (Exception e) {
             log.error("Failed to get sheet names: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to get sheet names: " + e.getMessage(), e);
@@ -0,0 +1,488 @@
+/**
+ * @file: GoogleSheetsSyncJobServiceImpl.java
+ * @description: Runs Google Sheets mass syncs as background jobs with persisted progress
+ * @dependencies: Spring, Spring Data JPA, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service.impl;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSync;
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncJob;
+import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncJobDto;
+import com.baganov.klassifikator.integration.model.enums.SyncJobMode;
+import com.baganov.klassifikator.integration.model.enums.SyncJobStatus;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncJobRepository;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import com.baganov.klassifikator.integration.service.GoogleSheetsService;
+import com.baganov.klassifikator.integration.service.GoogleSheetsSyncJobService;
+import com.baganov.klassifikator.integration.service.GoogleSheetsSyncLock;
+import com.baganov.klassifikator.integration.service.SyncProgressListener;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * POST sync-all only records a QUEUED job and hands it to a dedicated bounded executor.
+ * The runner writes progress to google_sheets_sync_jobs at most every progress interval, so polling
+ * and SSE subscribers on any replica read the same state. A partial unique index allows one active
+ * job per spreadsheet: concurrent triggers get the already queued or running job.
+ * A job runs under the mass sync advisory lock, so it never overlaps scheduled per-organization syncs.
+ * Liveness is tracked in heartbeat_at; updated_at changes only with progress, which is what SSE publishes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GoogleSheetsSyncJobServiceImpl implements GoogleSheetsSyncJobService {
+
+    private static final List<String> ACTIVE_STATUSES =
+            List.of(SyncJobStatus.QUEUED.name(), SyncJobStatus.RUNNING.name());
+    private static final TypeReference<List<String>> ERRORS_TYPE = new TypeReference<>() {};
+    private static final int MAX_STORED_ERRORS = 100;
+
+    private final GoogleSheetsSyncJobRepository jobRepository;
+    private final GoogleSheetsSyncRepository syncRepository;
+    private final GoogleSheetsService googleSheetsService;
+    private final GoogleSheetsSyncLock syncLock;
+    private final ObjectMapper objectMapper;
+
+    @Value("${google.sheets.jobs.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${google.sheets.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${google.sheets.jobs.progress-interval-ms:1000}")
+    private long progressIntervalMs;
+
+    @Value("${google.sheets.jobs.stale-after-ms:900000}")
+    private long staleAfterMs;
+
+    @Value("${google.sheets.jobs.sse-timeout-ms:3600000}")
+    private long sseTimeoutMs;
+
+    @Value("${google.sheets.jobs.sse-poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${google.sheets.jobs.wait-timeout-ms:1800000}")
+    private long waitTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    // Jobs queued or running on this instance; their rows are kept fresh by the heartbeat
+    private final Set<Long> localJobIds = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> lastPublished = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, maxConcurrent);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sheets-sync-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public GoogleSheetsSyncJobDto submitSyncAll(String spreadsheetId, String sheetName, boolean force) {
+        return submit(spreadsheetId, sheetName, force, SyncJobMode.SYNC);
+    }
+
+    @Override
+    public GoogleSheetsSyncJobDto submitBulkImport(String spreadsheetId, String sheetName) {
+        return submit(spreadsheetId, sheetName, false, SyncJobMode.BULK_IMPORT);
+    }
+
+    private GoogleSheetsSyncJobDto submit(String spreadsheetId, String sheetName, boolean force, SyncJobMode mode) {
+        String targetSpreadsheetId = resolveSpreadsheetId(spreadsheetId);
+
+        Optional<GoogleSheetsSyncJob> active = findActiveJob(targetSpreadsheetId);
+        if (active.isPresent()) {
+            log.info("Sync of spreadsheet {} is already {} as job {}, joining it",
+                    targetSpreadsheetId, active.get().getStatus(), active.get().getId());
+            return toDto(active.get());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        GoogleSheetsSyncJob job;
+        try {
+            job = jobRepository.saveAndFlush(GoogleSheetsSyncJob.builder()
+                    .spreadsheetId(targetSpreadsheetId)
+                    .sheetName(sheetName)
+                    .force(force)
+                    .mode(mode.name())
+                    .status(SyncJobStatus.QUEUED.name())
+                    .processedRows(0)
+                    .createdCount(0)
+                    .updatedCount(0)
+                    .skippedCount(0)
+                    .failedCount(0)
+                    .deletedCount(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .heartbeatAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another trigger, possibly on another replica, queued a job in the meantime
+            return findActiveJob(targetSpreadsheetId)
+                    .map(this::toDto)
+                    .orElseThrow(() -> new RuntimeException("Failed to queue sync job: " + e.getMessage()));
+        }
+
+        Long jobId = job.getId();
+        localJobIds.add(jobId);
+        try {
+            executor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            localJobIds.remove(jobId);
+            markFailed(job, "Too many sync jobs queued");
+            throw new RuntimeException("Too many Google Sheets sync jobs are queued, try again later");
+        }
+
+        log.info("Queued {} job {} for spreadsheet {} (sheet: {}, force: {})", mode, jobId, targetSpreadsheetId, sheetName, force);
+        return toDto(job);
+    }
+
+    @Override
+    public GoogleSheetsSyncJobDto getJob(Long jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    @Override
+    public GoogleSheetsSyncJobDto awaitJob(Long jobId) {
+        long deadline = System.nanoTime() + waitTimeoutMs * 1_000_000;
+        GoogleSheetsSyncJob job = findJob(jobId);
+        while (!SyncJobStatus.valueOf(job.getStatus()).isFinished() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(Math.max(1, pollMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            job = findJob(jobId);
+        }
+        return toDto(job);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long jobId) {
+        GoogleSheetsSyncJob job = findJob(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+
+        if (!send(emitter, job)) {
+            return emitter;
+        }
+        if (SyncJobStatus.valueOf(job.getStatus()).isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        Runnable unsubscribe = () -> removeSubscriber(jobId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Push persisted progress to SSE subscribers; reads the database so jobs running on other replicas are seen too
+     */
+    @Scheduled(fixedDelayString = "${google.sheets.jobs.sse-poll-ms:1000}")
+    public void publishProgress() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            for (GoogleSheetsSyncJob job : jobRepository.findAllById(new ArrayList<>(subscribers.keySet()))) {
+                if (job.getUpdatedAt().equals(lastPublished.get(job.getId()))) {
+                    continue;
+                }
+                lastPublished.put(job.getId(), job.getUpdatedAt());
+
+                boolean finished = SyncJobStatus.valueOf(job.getStatus()).isFinished();
+                for (SseEmitter emitter : subscribers.getOrDefault(job.getId(), List.of())) {
+                    if (send(emitter, job) && finished) {
+                        emitter.complete();
+                    }
+                }
+                if (finished) {
+                    subscribers.remove(job.getId());
+                    lastPublished.remove(job.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to publish sync job progress: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keep jobs queued or running on this instance from being taken for abandoned ones
+     */
+    @Scheduled(fixedDelayString = "${google.sheets.jobs.heartbeat-ms:60000}")
+    public void heartbeat() {
+        if (localJobIds.isEmpty()) {
+            return;
+        }
+        try {
+            jobRepository.touchActive(new ArrayList<>(localJobIds), ACTIVE_STATUSES, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Failed to refresh sync job heartbeat: {}", e.getMessage());
+        }
+    }
+
+    private void runJob(Long jobId) {
+        try {
+            GoogleSheetsSyncJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || !SyncJobStatus.QUEUED.name().equals(job.getStatus())) {
+                log.warn("Sync job {} is no longer queued, skipping", jobId);
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(SyncJobStatus.RUNNING.name());
+            job.setStartedAt(now);
+            job.setUpdatedAt(now);
+            jobRepository.save(job);
+
+            ProgressWriter progressWriter = new ProgressWriter(job);
+            try {
+                // Waits for scheduled syncs that are running; new ones are skipped until the job is done
+                Map<String, Object> result = syncLock.runMassSync(() -> SyncJobMode.BULK_IMPORT.name().equals(job.getMode())
+                        ? googleSheetsService.bulkImportFromSheet(job.getSpreadsheetId(), job.getSheetName(), progressWriter)
+                        : googleSheetsService.syncAllOrganizationsFromSheet(job.getSpreadsheetId(), job.getSheetName(),
+                                Boolean.TRUE.equals(job.getForce()), progressWriter));
+                progressWriter.complete(result);
+                log.info("Sync job {} finished: {} created, {} updated, {} skipped, {} failed",
+                        jobId, job.getCreatedCount(), job.getUpdatedCount(), job.getSkippedCount(), job.getFailedCount());
+            } catch (Exception e) {
+                log.error("Sync job {} failed", jobId, e);
+                progressWriter.fail(e);
+            }
+        } catch (Exception e) {
+            log.error("Failed to record state of sync job {}", jobId, e);
+        } finally {
+            localJobIds.remove(jobId);
+        }
+    }
+
+    /**
+     * Applies progress to the job row; database writes are throttled to one per progress interval.
+     * Domains report from virtual threads, so a ReentrantLock is used instead of synchronized.
+     */
+    private class ProgressWriter implements SyncProgressListener {
+
+        private final GoogleSheetsSyncJob job;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long lastWriteNanos = System.nanoTime();
+
+        ProgressWriter(GoogleSheetsSyncJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onProgress(Progress progress) {
+            lock.lock();
+            try {
+                job.setTotalRows(progress.totalRows());
+                job.setProcessedRows(progress.processedRows());
+                job.setCreatedCount(progress.created());
+                job.setUpdatedCount(progress.updated());
+                job.setSkippedCount(progress.skipped());
+                job.setFailedCount(progress.failed());
+
+                long now = System.nanoTime();
+                if (progress.processedRows() == 0 || now - lastWriteNanos >= progressIntervalMs * 1_000_000) {
+                    lastWriteNanos = now;
+                    job.setUpdatedAt(LocalDateTime.now());
+                    jobRepository.save(job);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void complete(Map<String, Object> result) {
+            lock.lock();
+            try {
+                job.setCreatedCount(intValue(result.get("created")));
+                job.setUpdatedCount(intValue(result.get("updated")));
+                job.setSkippedCount(intValue(result.get("skipped")));
+                job.setFailedCount(intValue(result.get("failed")));
+                job.setDeletedCount(intValue(result.get("deleted")));
+                if (job.getTotalRows() != null) {
+                    job.setProcessedRows(job.getTotalRows());
+                }
+                if (result.get("errors") instanceof List<?> errors && !errors.isEmpty()) {
+                    job.setErrors(writeErrors(errors));
+                }
+                finish(job, SyncJobStatus.SUCCEEDED, null);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void fail(Exception e) {
+            lock.lock();
+            try {
+                finish(job, SyncJobStatus.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void markFailed(GoogleSheetsSyncJob job, String errorMessage) {
+        try {
+            finish(job, SyncJobStatus.FAILED, errorMessage);
+        } catch (Exception e) {
+            log.error("Failed to mark sync job {} as failed", job.getId(), e);
+        }
+    }
+
+    private void finish(GoogleSheetsSyncJob job, SyncJobStatus status, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(status.name());
+        job.setErrorMessage(truncate(errorMessage, 1000));
+        job.setFinishedAt(now);
+        job.setUpdatedAt(now);
+        jobRepository.save(job);
+    }
+
+    /**
+     * Active job of the spreadsheet; a job with neither progress nor heartbeat for stale-after-ms is
+     * left over from a crashed instance and is marked failed so that a new run can start
+     */
+    private Optional<GoogleSheetsSyncJob> findActiveJob(String spreadsheetId) {
+        Optional<GoogleSheetsSyncJob> active =
+                jobRepository.findFirstBySpreadsheetIdAndStatusInOrderByIdDesc(spreadsheetId, ACTIVE_STATUSES);
+        if (active.isPresent() && lastSeenAt(active.get()).isBefore(LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000))) {
+            GoogleSheetsSyncJob abandoned = active.get();
+            log.warn("Sync job {} has not been seen alive since {}, marking it as failed",
+                    abandoned.getId(), lastSeenAt(abandoned));
+            markFailed(abandoned, "Abandoned: no progress or heartbeat since " + lastSeenAt(abandoned));
+            return Optional.empty();
+        }
+        return active;
+    }
+
+    private LocalDateTime lastSeenAt(GoogleSheetsSyncJob job) {
+        LocalDateTime heartbeatAt = job.getHeartbeatAt();
+        return heartbeatAt != null && heartbeatAt.isAfter(job.getUpdatedAt()) ? heartbeatAt : job.getUpdatedAt();
+    }
+
+    private GoogleSheetsSyncJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Sync job not found: " + jobId));
+    }
+
+    private String resolveSpreadsheetId(String spreadsheetId) {
+        if (spreadsheetId != null && !spreadsheetId.isEmpty()) {
+            return spreadsheetId;
+        }
+        // Same default as the synchronous sync: the spreadsheet of the first sync configuration
+        return syncRepository.findAll().stream()
+                .findFirst()
+                .map(GoogleSheetsSync::getSpreadsheetId)
+                .orElseThrow(() -> new RuntimeException("No sync configuration found and spreadsheetId not provided"));
+    }
+
+    private boolean send(SseEmitter emitter, GoogleSheetsSyncJob job) {
+        try {
+            String event = SyncJobStatus.valueOf(job.getStatus()).isFinished() ? "finished" : "progress";
+            emitter.send(SseEmitter.event()
+                    .name(event)
+                    .id(String.valueOf(job.getUpdatedAt()))
+                    .data(toDto(job)));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void removeSubscriber(Long jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private GoogleSheetsSyncJobDto toDto(GoogleSheetsSyncJob job) {
+        return GoogleSheetsSyncJobDto.builder()
+                .id(job.getId())
+                .spreadsheetId(job.getSpreadsheetId())
+                .sheetName(job.getSheetName())
+                .force(job.getForce())
+                .mode(job.getMode())
+                .status(job.getStatus())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .created(job.getCreatedCount())
+                .updated(job.getUpdatedCount())
+                .skipped(job.getSkippedCount())
+                .failed(job.getFailedCount())
+                .deleted(job.getDeletedCount())
+                .errors(readErrors(job.getErrors()))
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+
+    private String writeErrors(List<?> errors) {
+        try {
+            List<String> stored = errors.stream().limit(MAX_STORED_ERRORS).map(String::valueOf).toList();
+            return objectMapper.writeValueAsString(stored);
+        } catch (Exception e) {
+            log.warn("Failed to serialize sync job errors: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> readErrors(String errors) {
+        if (errors == null || errors.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(errors, ERRORS_TYPE);
+        } catch (Exception e) {
+            return List.of(errors);
+        }
+    }
+
+    private int intValue(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
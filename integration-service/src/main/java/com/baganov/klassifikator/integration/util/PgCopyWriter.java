@@ -0,0 +1,95 @@
+/**
+ * @file: PgCopyWriter.java
+ * @description: Streams rows into a PostgreSQL table with COPY ... FROM STDIN in CSV format
+ * @dependencies: PostgreSQL JDBC driver
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.util;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Rows are encoded as CSV and sent in chunks of about 64 KB, so memory does not grow with the row count.
+ * Every value is quoted, which keeps empty strings apart from NULL (an unquoted empty field).
+ * The copy belongs to the connection's current transaction; close() cancels an unfinished copy.
+ */
+public final class PgCopyWriter implements AutoCloseable {
+
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 4096);
+
+    private PgCopyWriter(CopyIn copyIn) {
+        this.copyIn = copyIn;
+    }
+
+    public static PgCopyWriter open(Connection connection, String table, String... columns) throws SQLException {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        return new PgCopyWriter(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql));
+    }
+
+    /**
+     * @param values one value per column; null is written as NULL
+     */
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            if (values[i] != null) {
+                appendQuoted(values[i] instanceof BigDecimal decimal ? decimal.toPlainString() : values[i].toString());
+            }
+        }
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the remaining rows and complete the copy
+     *
+     * @return number of rows copied
+     */
+    public long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append("\"\"");
+            } else if (c != '\u0000') {
+                // PostgreSQL text cannot hold NUL characters
+                buffer.append(c);
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
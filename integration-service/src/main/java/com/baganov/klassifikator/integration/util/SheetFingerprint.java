@@ -0,0 +1,63 @@
+/**
+ * @file: SheetFingerprint.java
+ * @description: Stable SHA-256 fingerprint of Google Sheets rows for incremental sync
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.util;
+
+import com.baganov.klassifikator.integration.model.sheet.SheetRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Row order is significant (products are created in sheet order); only mapped fields are covered,
+ * so edits in columns the sync does not read do not trigger reprocessing.
+ * Bump {@link #VERSION} whenever the mapping of sheet data changes so that every organization is reprocessed once.
+ */
+public final class SheetFingerprint {
+
+    // v2: typed rows (SheetRecord.values) instead of raw header/cell maps; promotions carry a parsed end date
+    private static final String VERSION = "v2";
+
+    private static final byte UNIT_SEPARATOR = 0x1F;
+    private static final byte RECORD_SEPARATOR = 0x1E;
+    private static final byte GROUP_SEPARATOR = 0x1D;
+
+    private SheetFingerprint() {
+    }
+
+    /**
+     * Fingerprint of one or more groups of rows, e.g. organization rows, goods rows and promotion rows
+     */
+    @SafeVarargs
+    public static String of(List<? extends SheetRecord>... groups) {
+        MessageDigest digest = sha256();
+        digest.update(VERSION.getBytes(StandardCharsets.UTF_8));
+
+        for (List<? extends SheetRecord> rows : groups) {
+            digest.update(GROUP_SEPARATOR);
+            for (SheetRecord row : rows) {
+                digest.update(RECORD_SEPARATOR);
+                for (String value : row.values()) {
+                    digest.update(value.getBytes(StandardCharsets.UTF_8));
+                    digest.update(UNIT_SEPARATOR);
+                }
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * @file: SheetRowParser.java
+ * @description: Maps Google Sheets tables to typed organization, product and promotion rows
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.util;
+
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.model.sheet.ProductRow;
+import com.baganov.klassifikator.integration.model.sheet.PromotionRow;
+import com.baganov.klassifikator.integration.model.sheet.SheetCellError;
+import com.baganov.klassifikator.integration.model.sheet.SheetParseResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Columns are resolved once per table; rows that cannot be used (no domain / name / title) are skipped
+ * silently, while unparseable prices and dates are reported as cell errors and the row is kept.
+ */
+public final class SheetRowParser {
+
+    private static final Pattern NON_PRICE_CHARACTERS = Pattern.compile("[^0-9.,]");
+    private static final Pattern URL_SCHEME = Pattern.compile("^https?://");
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ofPattern("d.M.uuuu"),
+            DateTimeFormatter.ofPattern("uuuu-M-d"),
+            DateTimeFormatter.ofPattern("d/M/uuuu")
+    };
+
+    private SheetRowParser() {
+    }
+
+    /**
+     * Organization rows of the organizations sheet; rows without domain or name are skipped
+     */
+    public static SheetParseResult<OrganizationRow> organizations(SheetTable table) {
+        OrganizationColumns columns = new OrganizationColumns(table);
+        List<OrganizationRow> rows = new ArrayList<>(table.rowCount());
+        for (int row = 0; row < table.rowCount(); row++) {
+            OrganizationRow organization = columns.read(row);
+            if (!organization.domain().isEmpty() && !organization.name().isEmpty()) {
+                rows.add(organization);
+            }
+        }
+        return new SheetParseResult<>(rows, List.of());
+    }
+
+    /**
+     * Organization data of a single data row, without any filtering
+     */
+    public static OrganizationRow organization(SheetTable table, int row) {
+        return new OrganizationColumns(table).read(row);
+    }
+
+    /**
+     * Rows having a product name; the domain is empty when the table has no domain column
+     */
+    public static SheetParseResult<ProductRow> products(SheetTable table) {
+        int domain = table.column("Домен");
+        int name = table.column("Товар", "Product");
+        int description = table.column("Описание товара");
+        int price = table.column("Цена", "Price");
+        int category = table.column("Категория товара", "Категория");
+        int image = table.column("Изображение", "Image");
+
+        List<ProductRow> rows = new ArrayList<>();
+        List<SheetCellError> errors = new ArrayList<>();
+        for (int row = 0; row < table.rowCount(); row++) {
+            String productName = table.text(row, name);
+            if (productName.isEmpty()) {
+                continue;
+            }
+            rows.add(new ProductRow(
+                    table.rowNumber(row),
+                    normalizeDomain(table.text(row, domain)),
+                    productName,
+                    table.text(row, description),
+                    parsePrice(table, row, price, errors),
+                    table.text(row, category),
+                    table.text(row, image)));
+        }
+        return new SheetParseResult<>(rows, errors);
+    }
+
+    /**
+     * Rows having a promotion title; the domain is empty when the table has no domain column
+     */
+    public static SheetParseResult<PromotionRow> promotions(SheetTable table) {
+        int domain = table.column("Домен");
+        int title = table.column("Акция", "Promotion");
+        int description = table.column("Описание акции");
+        int endDate = table.column("Действует до");
+
+        List<PromotionRow> rows = new ArrayList<>();
+        List<SheetCellError> errors = new ArrayList<>();
+        for (int row = 0; row < table.rowCount(); row++) {
+            String promotionTitle = table.text(row, title);
+            if (promotionTitle.isEmpty()) {
+                continue;
+            }
+            rows.add(new PromotionRow(
+                    table.rowNumber(row),
+                    normalizeDomain(table.text(row, domain)),
+                    promotionTitle,
+                    table.text(row, description),
+                    parseDate(table, row, endDate, errors)));
+        }
+        return new SheetParseResult<>(rows, errors);
+    }
+
+    /**
+     * Domain without protocol and trailing slash, as used by landings
+     */
+    public static String normalizeDomain(String domain) {
+        if (domain.isEmpty()) {
+            return domain;
+        }
+        String normalized = URL_SCHEME.matcher(domain).replaceFirst("");
+        return normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    private static BigDecimal parsePrice(SheetTable table, int row, int column, List<SheetCellError> errors) {
+        String text = table.text(row, column);
+        if (text.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        // Currency symbols and spaces are dropped, a decimal comma is accepted
+        String cleaned = NON_PRICE_CHARACTERS.matcher(text).replaceAll("").replace(',', '.');
+        try {
+            return new BigDecimal(cleaned);
+        } catch (NumberFormatException e) {
+            errors.add(new SheetCellError(table.cellReference(row, column), table.header(column), text,
+                    "not a price"));
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static LocalDate parseDate(SheetTable table, int row, int column, List<SheetCellError> errors) {
+        String text = table.text(row, column);
+        if (text.isEmpty()) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        errors.add(new SheetCellError(table.cellReference(row, column), table.header(column), text,
+                "not a date (expected dd.MM.yyyy, yyyy-MM-dd or dd/MM/yyyy)"));
+        return null;
+    }
+
+    /**
+     * Column indexes of the organization fields, resolved once per table
+     */
+    private static final class OrganizationColumns {
+
+        private final SheetTable table;
+        private final int domain;
+        private final int name;
+        private final int category;
+        private final int type;
+        private final int phone;
+        private final int email;
+        private final int website;
+        private final int address;
+        private final int workingHours;
+        private final int telegramBotToken;
+        private final int telegramChatId;
+        private final int title;
+        private final int description;
+        private final int h1;
+        private final int aboutUs;
+        private final int reviewsWidget;
+        private final int mapWidget;
+        private final int companyPhotos;
+        private final int photos;
+        private final int features;
+
+        OrganizationColumns(SheetTable table) {
+            this.table = table;
+            this.domain = table.column("Домен");
+            this.name = table.column("Название");
+            this.category = table.column("Категория");
+            this.type = table.column("Тип");
+            this.phone = table.column("Телефон");
+            this.email = table.column("Email");
+            this.website = table.column("Сайт");
+            this.address = table.column("Адрес");
+            this.workingHours = table.column("Режим работы");
+            this.telegramBotToken = table.column("Токен бота");
+            this.telegramChatId = table.column("Chat ID");
+            this.title = table.column("Title");
+            this.description = table.column("Description");
+            this.h1 = table.column("H1");
+            this.aboutUs = table.column("О нас");
+            this.reviewsWidget = table.column("Отзывы");
+            this.mapWidget = table.column("Карта");
+            this.companyPhotos = table.column("Фото компании");
+            this.photos = table.column("Фото");
+            this.features = table.column("Особенности");
+        }
+
+        OrganizationRow read(int row) {
+            return new OrganizationRow(
+                    table.rowNumber(row),
+                    normalizeDomain(table.text(row, domain)),
+                    table.text(row, name),
+                    table.text(row, category),
+                    table.text(row, type),
+                    table.text(row, phone),
+                    table.text(row, email),
+                    table.text(row, website),
+                    table.text(row, address),
+                    table.text(row, workingHours),
+                    table.text(row, telegramBotToken),
+                    table.text(row, telegramChatId),
+                    table.text(row, title),
+                    table.text(row, description),
+                    table.text(row, h1),
+                    table.text(row, aboutUs),
+                    table.text(row, reviewsWidget),
+                    table.text(row, mapWidget),
+                    table.text(row, companyPhotos),
+                    table.text(row, photos),
+                    table.text(row, features));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * @file: SheetTable.java
+ * @description: Header-indexed view over raw Google Sheets values
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Headers of the first row are normalized once (trimmed, inner whitespace collapsed, case-insensitive),
+ * so "Цена ", " Действует до" or "email" resolve to the same column as their canonical spelling.
+ * Cells are then read by column index without per-row maps.
+ */
+public final class SheetTable {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String sheetName;
+    private final List<List<Object>> values;
+    private final String[] headers;
+    private final Map<String, Integer> columns;
+
+    private SheetTable(String sheetName, List<List<Object>> values) {
+        this.sheetName = sheetName;
+        this.values = values != null ? values : List.of();
+
+        List<Object> headerRow = this.values.isEmpty() ? List.of() : this.values.get(0);
+        this.headers = new String[headerRow.size()];
+        this.columns = new HashMap<>(headerRow.size() * 2);
+        for (int column = 0; column < headers.length; column++) {
+            Object header = headerRow.get(column);
+            headers[column] = header != null ? header.toString() : "";
+            // The first of duplicate headers wins, as a reader of the sheet would expect
+            columns.putIfAbsent(normalizeHeader(headers[column]), column);
+        }
+    }
+
+    /**
+     * @param values raw values of the tab, the first row being the header row
+     */
+    public static SheetTable of(String sheetName, List<List<Object>> values) {
+        return new SheetTable(sheetName, values);
+    }
+
+    public String sheetName() {
+        return sheetName;
+    }
+
+    /**
+     * Number of data rows (without the header row)
+     */
+    public int rowCount() {
+        return Math.max(0, values.size() - 1);
+    }
+
+    /**
+     * Index of the first header variant present in the sheet, or -1 if none is
+     */
+    public int column(String... headerVariants) {
+        for (String variant : headerVariants) {
+            Integer column = columns.get(normalizeHeader(variant));
+            if (column != null) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Trimmed text of a cell; "" for missing columns, short rows and empty cells
+     *
+     * @param row 0-based data row
+     */
+    public String text(int row, int column) {
+        if (column < 0) {
+            return "";
+        }
+        List<Object> cells = values.get(row + 1);
+        if (column >= cells.size()) {
+            return "";
+        }
+        Object value = cells.get(column);
+        if (value == null) {
+            return "";
+        }
+        // strip() returns the same instance when there is nothing to strip
+        return (value instanceof String text ? text : value.toString()).strip();
+    }
+
+    /**
+     * 1-based row number in the sheet
+     */
+    public int rowNumber(int row) {
+        return row + 2;
+    }
+
+    public String header(int column) {
+        return column >= 0 && column < headers.length ? headers[column].strip() : "";
+    }
+
+    /**
+     * A1 reference of a cell, e.g. goods!D15 (just D15 for an unnamed sheet)
+     */
+    public String cellReference(int row, int column) {
+        StringBuilder letters = new StringBuilder();
+        for (int index = column + 1; index > 0; index = (index - 1) / 26) {
+            letters.insert(0, (char) ('A' + (index - 1) % 26));
+        }
+        letters.append(rowNumber(row));
+        return sheetName.isEmpty() ? letters.toString() : sheetName + "!" + letters;
+    }
+
+    static String normalizeHeader(String header) {
+        return WHITESPACE.matcher(header.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * @file: TelegramMarkdown.java
+ * @description: Escaping of values put into legacy Telegram Markdown messages
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Customer input (names, emails like ivan_petrov@mail.ru, addresses, comments) must never open an entity:
+ * one unbalanced _ or * makes Telegram reject the whole message with 400 "can't parse entities".
+ * Legacy Markdown escapes _, *, ` and [ outside of entities with a backslash.
+ */
+public final class TelegramMarkdown {
+
+    private static final Pattern SPECIAL = Pattern.compile("([_*`\\[])");
+    private static final Pattern ESCAPED = Pattern.compile("\\\\([_*`\\[])");
+
+    private TelegramMarkdown() {
+    }
+
+    /**
+     * Value as literal text of a Markdown message; null is rendered as "null" like String.format does
+     */
+    public static String escape(Object value) {
+        return SPECIAL.matcher(String.valueOf(value)).replaceAll("\\\\$1");
+    }
+
+    /**
+     * Markdown message as plain text, for resending a message Telegram could not parse
+     */
+    public static String toPlainText(String markdown) {
+        return ESCAPED.matcher(markdown).replaceAll("$1");
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * @file: StubBackend.java
+ * @description: In-process stand-in for the Sheets API and the landing, content and media services
+ * @dependencies: JDK HttpServer, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.perf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One HTTP server answers everything the mass sync talks to:
+ * - the Sheets API v4 endpoints used by GoogleSheetsApiClient, backed by a {@link SyncLoadFixture};
+ * - the landing, content and media endpoints used by GoogleSheetsDataProcessor, backed by in-memory state
+ *   so that a second run sees the organizations, products and promotions created by the first one.
+ * Every call is counted per route; optional latency simulates network and downstream work.
+ */
+final class StubBackend implements AutoCloseable {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final SyncLoadFixture fixture;
+    private final long sheetsLatencyMs;
+    private final long serviceLatencyMs;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    // domain / subdomain -> {landingId, organizationId}
+    private final Map<String, long[]> landingsByDomain = new ConcurrentHashMap<>();
+    private final Map<String, long[]> landingsBySubdomain = new ConcurrentHashMap<>();
+    // organizationId -> product / promotion ids
+    private final Map<Long, Set<Long>> products = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> promotions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> contentOwners = new ConcurrentHashMap<>();
+
+    StubBackend(SyncLoadFixture fixture, long sheetsLatencyMs, long serviceLatencyMs) throws IOException {
+        this.fixture = fixture;
+        this.sheetsLatencyMs = sheetsLatencyMs;
+        this.serviceLatencyMs = serviceLatencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Call counts per route since the last reset, sorted by route
+     */
+    Map<String, Long> snapshotCalls() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        calls.forEach((route, count) -> snapshot.put(route, count.sum()));
+        return snapshot;
+    }
+
+    void resetCalls() {
+        calls.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            String[] segments = path.substring(1).split("/");
+
+            if (path.startsWith("/v4/spreadsheets/")) {
+                sleep(sheetsLatencyMs);
+                handleSheets(exchange, method, segments);
+            } else {
+                sleep(serviceLatencyMs);
+                handleServices(exchange, method, path, segments);
+            }
+        } catch (Exception e) {
+            count("ERROR " + e.getClass().getSimpleName());
+            respond(exchange, 500, Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void handleSheets(HttpExchange exchange, String method, String[] segments) throws IOException {
+        // v4 / spreadsheets / {id} [ / values:batchGet | / values / {range} ]
+        String spreadsheetId = segments[2];
+        if (segments.length == 3) {
+            count("sheets spreadsheets.get");
+            List<Map<String, Object>> sheets = fixture.sheetTitles().stream()
+                    .map(title -> Map.<String, Object>of("properties", Map.of("title", title)))
+                    .toList();
+            respond(exchange, 200, Map.of("spreadsheetId", spreadsheetId, "sheets", sheets));
+        } else if (segments.length == 4 && segments[3].equals("values:batchGet")) {
+            count("sheets values.batchGet");
+            List<Map<String, Object>> valueRanges = new ArrayList<>();
+            for (String range : queryValues(exchange, "ranges")) {
+                valueRanges.add(valueRange(range));
+            }
+            respond(exchange, 200, Map.of("spreadsheetId", spreadsheetId, "valueRanges", valueRanges));
+        } else if (segments.length == 5 && segments[3].equals("values") && "GET".equals(method)) {
+            count("sheets values.get");
+            respond(exchange, 200, valueRange(segments[4]));
+        } else {
+            count("sheets unsupported");
+            respond(exchange, 404, Map.of("error", "Unsupported Sheets API call"));
+        }
+    }
+
+    private Map<String, Object> valueRange(String range) {
+        return Map.of("range", range, "majorDimension", "ROWS", "values", fixture.values(range));
+    }
+
+    private void handleServices(HttpExchange exchange, String method, String path, String[] segments) throws IOException {
+        String route = method + " " + path;
+
+        if ("GET".equals(method) && path.startsWith("/api/v1/landings/domain/")) {
+            count("landing GET /landings/domain/{domain}");
+            respondLanding(exchange, landingsByDomain.get(segments[4]), segments[4]);
+        } else if ("GET".equals(method) && path.startsWith("/api/v1/landings/by-subdomain/")) {
+            count("landing GET /landings/by-subdomain/{subdomain}");
+            respondLanding(exchange, landingsBySubdomain.get(segments[4]), segments[4]);
+        } else if ("POST".equals(method) && path.equals("/api/v1/organizations")) {
+            count("landing POST /organizations");
+            readBody(exchange);
+            respond(exchange, 201, Map.of("id", ids.incrementAndGet()));
+        } else if ("POST".equals(method) && path.equals("/api/v1/landings")) {
+            count("landing POST /landings");
+            Map<String, Object> body = readBody(exchange);
+            long[] landing = {ids.incrementAndGet(), Long.parseLong(body.get("organizationId").toString())};
+            landingsByDomain.put(body.get("domain").toString(), landing);
+            landingsBySubdomain.put(body.get("subdomain").toString(), landing);
+            respond(exchange, 201, Map.of("id", landing[0], "organizationId", landing[1], "domain", body.get("domain")));
+        } else if ("POST".equals(method) && path.equals("/api/v1/landings/reconcile")) {
+            count("landing POST /landings/reconcile");
+            readBody(exchange);
+            respond(exchange, 200, Map.of("removedDomains", List.of(), "removedOrganizations", 0));
+        } else if ("POST".equals(method) && path.equals("/api/v1/content")) {
+            count("content POST /content");
+            readBody(exchange);
+            respond(exchange, 201, Map.of("id", ids.incrementAndGet()));
+        } else if ("GET".equals(method) && path.startsWith("/api/v1/content/organization/")) {
+            // /api/v1/content/organization/{id}/products|promotions
+            Map<Long, Set<Long>> owned = segments[5].equals("products") ? products : promotions;
+            count("content GET /content/organization/{id}/" + segments[5]);
+            List<Map<String, Object>> items = owned.getOrDefault(Long.parseLong(segments[4]), Set.of()).stream()
+                    .map(id -> Map.<String, Object>of("id", id))
+                    .toList();
+            respond(exchange, 200, items);
+        } else if ("POST".equals(method) && (path.equals("/api/v1/content/products") || path.equals("/api/v1/content/promotions"))) {
+            Map<Long, Set<Long>> owned = path.endsWith("products") ? products : promotions;
+            count("content " + route);
+            Map<String, Object> body = readBody(exchange);
+            long organizationId = Long.parseLong(body.get("organizationId").toString());
+            long id = ids.incrementAndGet();
+            owned.computeIfAbsent(organizationId, k -> ConcurrentHashMap.newKeySet()).add(id);
+            contentOwners.put(id, organizationId);
+            respond(exchange, 201, Map.of("id", id));
+        } else if ("DELETE".equals(method) && path.startsWith("/api/v1/content/")) {
+            // /api/v1/content/products|promotions/{id}
+            Map<Long, Set<Long>> owned = segments[3].equals("products") ? products : promotions;
+            count("content DELETE /content/" + segments[3] + "/{id}");
+            long id = Long.parseLong(segments[4]);
+            Long organizationId = contentOwners.remove(id);
+            if (organizationId != null) {
+                owned.getOrDefault(organizationId, Set.of()).remove(id);
+            }
+            respond(exchange, 204, null);
+        } else if ("POST".equals(method) && path.equals("/api/v1/media/upload-from-url")) {
+            count("media POST /media/upload-from-url");
+            Map<String, Object> body = readBody(exchange);
+            long fileId = ids.incrementAndGet();
+            respond(exchange, 200, Map.of("fileId", fileId, "url", body.get("imageUrl")));
+        } else {
+            count("unmatched " + route);
+            respond(exchange, 404, Map.of("error", "Not found"));
+        }
+    }
+
+    private void respondLanding(HttpExchange exchange, long[] landing, String domain) throws IOException {
+        if (landing == null) {
+            respond(exchange, 404, Map.of("error", "Landing not found"));
+            return;
+        }
+        respond(exchange, 200, Map.of("id", landing[0], "organizationId", landing[1], "domain", domain));
+    }
+
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readAllBytes();
+            return body.length == 0 ? Map.of() : objectMapper.readValue(body, JSON_OBJECT);
+        }
+    }
+
+    private List<String> queryValues(HttpExchange exchange, String name) {
+        List<String> values = new ArrayList<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                values.add(URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void count(String route) {
+        calls.computeIfAbsent(route, k -> new LongAdder()).increment();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * @file: SyncLoadFixture.java
+ * @description: Generated spreadsheet contents for the Google Sheets sync load harness
+ * @dependencies: none
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.perf;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the three tabs read by a mass sync (organizations, goods, promotions) with the same
+ * headers as the production spreadsheet. Cell values are deterministic, so two harness runs
+ * over the same fixture exercise the "unchanged" path of the sync.
+ */
+final class SyncLoadFixture {
+
+    static final String ORGANIZATIONS_SHEET = "Organizations";
+    static final String PRODUCTS_SHEET = "goods";
+    static final String PROMOTIONS_SHEET = "Акции";
+
+    private static final List<Object> ORGANIZATION_HEADERS = List.of(
+            "Домен", "Название", "Категория", "Тип", "Телефон", "Email", "Сайт", "Адрес", "Режим работы",
+            "Title", "Description", "Слоган", "О компании", "Токен бота", "Chat ID");
+    private static final List<Object> PRODUCT_HEADERS = List.of(
+            "Домен", "Товар", "Описание товара", "Цена", "Категория товара", "Изображение");
+    private static final List<Object> PROMOTION_HEADERS = List.of(
+            "Домен", "Акция", "Описание акции", "Действует до");
+
+    private final Map<String, List<List<Object>>> sheets = new LinkedHashMap<>();
+
+    SyncLoadFixture(int organizations, int productsPerOrganization, int promotionsPerOrganization, boolean images) {
+        List<List<Object>> organizationRows = new ArrayList<>(organizations + 1);
+        List<List<Object>> productRows = new ArrayList<>(organizations * productsPerOrganization + 1);
+        List<List<Object>> promotionRows = new ArrayList<>(organizations * promotionsPerOrganization + 1);
+        organizationRows.add(ORGANIZATION_HEADERS);
+        productRows.add(PRODUCT_HEADERS);
+        promotionRows.add(PROMOTION_HEADERS);
+
+        for (int org = 1; org <= organizations; org++) {
+            String domain = "org" + org + ".load.test";
+            organizationRows.add(List.of(
+                    domain, "Организация " + org, "Категория " + (org % 20), "Компания",
+                    "+7 900 000-" + String.format("%04d", org % 10_000), "org" + org + "@load.test",
+                    "https://" + domain, "ул. Тестовая, " + org, "09:00-18:00",
+                    "Организация " + org, "Описание организации " + org, "Слоган " + org,
+                    "Текст о компании " + org, "", ""));
+
+            for (int p = 1; p <= productsPerOrganization; p++) {
+                productRows.add(List.of(
+                        domain, "Товар " + p, "Описание товара " + p + " организации " + org,
+                        (100 + p) + ",00", "Категория " + (p % 5),
+                        images ? "https://images.load.test/" + org + "/" + p + ".jpg" : ""));
+            }
+            for (int p = 1; p <= promotionsPerOrganization; p++) {
+                promotionRows.add(List.of(domain, "Акция " + p, "Описание акции " + p, "31.12.2030"));
+            }
+        }
+
+        sheets.put(ORGANIZATIONS_SHEET, organizationRows);
+        sheets.put(PRODUCTS_SHEET, productRows);
+        sheets.put(PROMOTIONS_SHEET, promotionRows);
+    }
+
+    List<String> sheetTitles() {
+        return List.copyOf(sheets.keySet());
+    }
+
+    /**
+     * Values of a range like 'goods'!A:F; column bounds are ignored, every fixture tab fits them
+     */
+    List<List<Object>> values(String range) {
+        String sheet = range.contains("!") ? range.substring(0, range.indexOf('!')) : range;
+        if (sheet.length() > 1 && sheet.startsWith("'") && sheet.endsWith("'")) {
+            sheet = sheet.substring(1, sheet.length() - 1).replace("''", "'");
+        }
+        return sheets.getOrDefault(sheet, List.of());
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * @file: SyncLoadHarness.java
+ * @description: Load harness for the Google Sheets mass sync against in-process fakes
+ * @dependencies: Google Sheets API, Spring WebFlux, Micrometer, Logback
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.perf;
+
+import ch.qos.logback.classic.Level;
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncFingerprint;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncFingerprintRepository;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import com.baganov.klassifikator.integration.service.GoogleSheetsApiClient;
+import com.baganov.klassifikator.integration.service.GoogleSheetsDataProcessor;
+import com.baganov.klassifikator.integration.service.impl.GoogleSheetsServiceImpl;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs GoogleSheetsServiceImpl.syncAllOrganizationsFromSheet end to end without Google, Postgres
+ * or the other services: the Sheets API and the landing / content / media endpoints are served by
+ * {@link StubBackend}, repositories are kept in memory. The production classes are wired by hand
+ * with the same collaborators Spring would inject.
+ *
+ * Usage: ./gradlew :integration-service:syncLoadTest -PsyncLoadArgs="--organizations=10000 --products=20"
+ *
+ * Options (defaults in brackets):
+ *   --organizations [1000]       organization rows in the sheet
+ *   --products [10]              goods rows per organization
+ *   --promotions [2]             promotion rows per organization
+ *   --images [true]              fill the image column of goods rows
+ *   --runs [2]                   consecutive syncs; later runs update existing organizations
+ *   --force [false]              ignore stored fingerprints on every run
+ *   --concurrency [8]            google.sheets.sync-concurrency
+ *   --sheets-latency-ms [50]     latency added to every Sheets API call
+ *   --service-latency-ms [5]     latency added to every landing / content / media call
+ *   --reads-per-minute [100000]  google.sheets.quota.reads-per-minute
+ *   --log-level [WARN]           root log level while syncing
+ *   --max-seconds [0]            fail a run slower than this; 0 disables the check
+ *
+ * For every run the harness prints wall time, sync counters, downstream calls per route,
+ * Sheets client metrics and the allocation rate of the JVM. It then checks the result:
+ * no failed rows or errors, every organization created on the first run, and on later runs
+ * every organization skipped (or updated with --force) without landing or content calls.
+ * Any violated check is reported and the process exits with status 1, failing the Gradle task.
+ */
+public final class SyncLoadHarness {
+
+    private static final String SPREADSHEET_ID = "load-test-spreadsheet";
+
+    private SyncLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int organizations = intOption(options, "organizations", 1000);
+        int products = intOption(options, "products", 10);
+        int promotions = intOption(options, "promotions", 2);
+        boolean images = Boolean.parseBoolean(options.getOrDefault("images", "true"));
+        int runs = intOption(options, "runs", 2);
+        boolean force = Boolean.parseBoolean(options.getOrDefault("force", "false"));
+        int concurrency = intOption(options, "concurrency", 8);
+        long sheetsLatencyMs = intOption(options, "sheets-latency-ms", 50);
+        long serviceLatencyMs = intOption(options, "service-latency-ms", 5);
+        int readsPerMinute = intOption(options, "reads-per-minute", 100_000);
+        int maxSeconds = intOption(options, "max-seconds", 0);
+
+        ch.qos.logback.classic.Logger rootLogger =
+                (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.toLevel(options.getOrDefault("log-level", "WARN"), Level.WARN));
+
+        System.out.printf("Fixture: %d organizations, %d products and %d promotions each, images=%s%n",
+                organizations, products, promotions, images);
+        SyncLoadFixture fixture = new SyncLoadFixture(organizations, products, promotions, images);
+        List<String> violations = new ArrayList<>();
+
+        try (StubBackend backend = new StubBackend(fixture, sheetsLatencyMs, serviceLatencyMs)) {
+            backend.start();
+
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            GoogleSheetsServiceImpl syncService = wire(backend.baseUrl(), meterRegistry, concurrency, readsPerMinute);
+
+            for (int run = 1; run <= runs; run++) {
+                backend.resetCalls();
+                meterRegistry.clear();
+                runOnce(run, syncService, backend, meterRegistry, organizations, force, maxSeconds, violations);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            System.out.printf("%nFAILED: %d check(s) violated%n", violations.size());
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.printf("%nOK: all checks passed%n");
+    }
+
+    private static void runOnce(int run, GoogleSheetsServiceImpl syncService, StubBackend backend,
+                                SimpleMeterRegistry meterRegistry, int organizations, boolean force,
+                                int maxSeconds, List<String> violations) {
+        System.gc();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long[] gcBefore = gcTotals();
+        long started = System.nanoTime();
+
+        Map<String, Object> result = syncService.syncAllOrganizationsFromSheet(
+                SPREADSHEET_ID, SyncLoadFixture.ORGANIZATIONS_SHEET, force);
+
+        long wallNanos = System.nanoTime() - started;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        long[] gcAfter = gcTotals();
+        double seconds = wallNanos / 1e9;
+
+        System.out.printf("%n=== Run %d%s ===%n", run, force ? " (force)" : "");
+        System.out.printf("Wall time:      %.2f s (%.1f organizations/s)%n", seconds, organizations / seconds);
+        System.out.printf("Result:         created=%s updated=%s skipped=%s failed=%s deleted=%s%n",
+                result.get("created"), result.get("updated"), result.get("skipped"),
+                result.get("failed"), result.get("deleted"));
+        if (result.get("errors") instanceof List<?> errors && !errors.isEmpty()) {
+            System.out.printf("Errors:         %d (first: %s)%n", errors.size(), errors.get(0));
+        }
+        System.out.printf("Allocated:      %.1f MB (%.1f MB/s, %.1f KB per organization)%n",
+                allocated / 1048576.0, allocated / 1048576.0 / seconds, allocated / 1024.0 / Math.max(1, organizations));
+        System.out.printf("GC:             %d collections, %d ms%n", gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+
+        Map<String, Long> calls = backend.snapshotCalls();
+        System.out.printf("Downstream calls: %d total%n", calls.values().stream().mapToLong(Long::longValue).sum());
+        calls.forEach((route, count) -> System.out.printf("  %-52s %8d%n", route, count));
+
+        System.out.println("Sheets client metrics:");
+        for (Meter meter : meterRegistry.getMeters()) {
+            meter.measure().forEach(measurement -> System.out.printf("  %-52s %12.1f%n",
+                    meter.getId().getName() + meter.getId().getTags() + " " + measurement.getStatistic(),
+                    measurement.getValue()));
+        }
+
+        check(run, violations, count(result, "failed") == 0, "failed=" + result.get("failed"));
+        if (result.get("errors") instanceof List<?> errors) {
+            check(run, violations, errors.isEmpty(), errors.size() + " errors");
+        }
+        calls.keySet().stream()
+                .filter(route -> route.startsWith("ERROR") || route.startsWith("unmatched") || route.equals("sheets unsupported"))
+                .forEach(route -> violations.add("run " + run + ": stub backend got " + calls.get(route) + " x " + route));
+        if (run == 1) {
+            check(run, violations, count(result, "created") == organizations,
+                    "created=" + result.get("created") + ", expected " + organizations);
+        } else if (force) {
+            check(run, violations, count(result, "updated") == organizations,
+                    "updated=" + result.get("updated") + ", expected " + organizations);
+        } else {
+            check(run, violations, count(result, "skipped") == organizations,
+                    "skipped=" + result.get("skipped") + ", expected " + organizations);
+            long downstream = calls.entrySet().stream()
+                    .filter(call -> !call.getKey().startsWith("sheets") && !call.getKey().contains("reconcile"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            check(run, violations, downstream == 0, downstream + " landing/content/media calls for an unchanged sheet");
+        }
+        if (maxSeconds > 0) {
+            check(run, violations, seconds <= maxSeconds, String.format("wall time %.2f s exceeds %d s", seconds, maxSeconds));
+        }
+    }
+
+    private static void check(int run, List<String> violations, boolean passed, String message) {
+        if (!passed) {
+            violations.add("run " + run + ": " + message);
+        }
+    }
+
+    private static long count(Map<String, Object> result, String key) {
+        return result.get(key) instanceof Number number ? number.longValue() : -1;
+    }
+
+    /**
+     * Wire the production services the way Spring would, pointing them at the stub backend
+     */
+    private static GoogleSheetsServiceImpl wire(String baseUrl, SimpleMeterRegistry meterRegistry,
+                                                int concurrency, int readsPerMinute) throws Exception {
+        Sheets sheets = new Sheets.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), null)
+                .setRootUrl(baseUrl + "/")
+                .setApplicationName("sync-load-harness")
+                .build();
+
+        GoogleSheetsApiClient sheetsApiClient = new GoogleSheetsApiClient(sheets, meterRegistry);
+        setField(sheetsApiClient, "readsPerMinute", readsPerMinute);
+        setField(sheetsApiClient, "writesPerMinute", 60);
+        setField(sheetsApiClient, "maxRetries", 5);
+        setField(sheetsApiClient, "backoffBaseMs", 1000L);
+        setField(sheetsApiClient, "backoffMaxMs", 64000L);
+        sheetsApiClient.init();
+
+        GoogleSheetsDataProcessor dataProcessor = new GoogleSheetsDataProcessor(WebClient.builder());
+        setField(dataProcessor, "contentServiceUrl", baseUrl);
+        setField(dataProcessor, "mediaServiceUrl", baseUrl);
+        setField(dataProcessor, "landingServiceUrl", baseUrl);
+
+        // The bulk import writes to PostgreSQL directly and is not exercised by the harness
+        GoogleSheetsServiceImpl syncService = new GoogleSheetsServiceImpl(
+                emptySyncRepository(), inMemoryFingerprintRepository(), sheetsApiClient, dataProcessor, null);
+        setField(syncService, "syncConcurrency", concurrency);
+        return syncService;
+    }
+
+    /**
+     * The mass sync is always given a spreadsheet id, so sync configurations are never read
+     */
+    private static GoogleSheetsSyncRepository emptySyncRepository() {
+        return repositoryProxy(GoogleSheetsSyncRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static GoogleSheetsSyncFingerprintRepository inMemoryFingerprintRepository() {
+        Map<String, GoogleSheetsSyncFingerprint> rows = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+
+        return repositoryProxy(GoogleSheetsSyncFingerprintRepository.class, (method, args) -> switch (method) {
+            case "findBySpreadsheetId" -> rows.values().stream()
+                    .filter(row -> row.getSpreadsheetId().equals(args[0]))
+                    .toList();
+            case "save" -> {
+                GoogleSheetsSyncFingerprint row = (GoogleSheetsSyncFingerprint) args[0];
+                if (row.getId() == null) {
+                    row.setId(ids.incrementAndGet());
+                }
+                rows.put(row.getSpreadsheetId() + "|" + row.getDomain(), row);
+                yield row;
+            }
+            case "deleteBySpreadsheetIdAndDomainNotIn" -> {
+                Collection<?> domains = (Collection<?>) args[1];
+                List<String> stale = new ArrayList<>();
+                rows.forEach((key, row) -> {
+                    if (row.getSpreadsheetId().equals(args[0]) && !domains.contains(row.getDomain())) {
+                        stale.add(key);
+                    }
+                });
+                stale.forEach(rows::remove);
+                yield stale.size();
+            }
+            case "deleteBySpreadsheetId" -> {
+                int before = rows.size();
+                rows.values().removeIf(row -> row.getSpreadsheetId().equals(args[0]));
+                yield before - rows.size();
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @FunctionalInterface
+    private interface RepositoryMethod {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T repositoryProxy(Class<T> type, RepositoryMethod handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> "InMemory" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> handler.invoke(method.getName(), args);
+                });
+        return type.cast(proxy);
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long timeMs = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            timeMs += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, timeMs};
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
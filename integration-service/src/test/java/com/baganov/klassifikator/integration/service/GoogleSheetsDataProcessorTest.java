@@ -0,0 +1,122 @@
+/**
+ * @file: GoogleSheetsDataProcessorTest.java
+ * @description: Regression tests for reporting partial failures of an organization sync
+ * @dependencies: JUnit 5, Spring WebFlux, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.model.sheet.ProductRow;
+import com.baganov.klassifikator.integration.model.sheet.PromotionRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleSheetsDataProcessorTest {
+
+    private static final String DOMAIN = "mebel.example.ru";
+    private static final String LANDING = "{\"id\":5,\"organizationId\":9,\"domain\":\"" + DOMAIN + "\"}";
+
+    // "METHOD path" -> response; unknown requests answer 200 with an empty JSON object
+    private final Map<String, ClientResponse> responses = new HashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private GoogleSheetsDataProcessor dataProcessor;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            String call = request.method().name() + " " + request.url().getPath();
+            requests.add(call);
+            ClientResponse response = responses.get(call);
+            return Mono.just(response != null ? response : json(HttpStatus.OK, "{}"));
+        });
+        dataProcessor = new GoogleSheetsDataProcessor(webClientBuilder);
+        ReflectionTestUtils.setField(dataProcessor, "contentServiceUrl", "http://content");
+        ReflectionTestUtils.setField(dataProcessor, "mediaServiceUrl", "http://media");
+        ReflectionTestUtils.setField(dataProcessor, "landingServiceUrl", "http://landing");
+
+        responses.put("GET /api/v1/landings/domain/" + DOMAIN, json(HttpStatus.OK, LANDING));
+        responses.put("GET /api/v1/content/organization/9/products", json(HttpStatus.OK, "[{\"id\":101}]"));
+        responses.put("GET /api/v1/content/organization/9/promotions", json(HttpStatus.OK, "[]"));
+    }
+
+    @Test
+    void fullyReplacedOrganizationSucceeds() {
+        assertThatCode(() -> dataProcessor.processOrganizationRow(organization(), List.of(product("")), List.of(promotion())))
+                .doesNotThrowAnyException();
+        assertThat(requests).contains("DELETE /api/v1/content/products/101", "POST /api/v1/content/products",
+                "POST /api/v1/content/promotions");
+    }
+
+    @Test
+    void failedProductCreateFailsTheRowButOtherItemsAreStillWritten() {
+        responses.put("POST /api/v1/content/products", json(HttpStatus.INTERNAL_SERVER_ERROR, "{}"));
+
+        assertThatThrownBy(() -> dataProcessor.processOrganizationRow(organization(), List.of(product("")), List.of(promotion())))
+                .hasMessageContaining("create product 'Стол'");
+        assertThat(requests).contains("POST /api/v1/content/promotions");
+    }
+
+    @Test
+    void failedDeleteFailsTheRow() {
+        responses.put("DELETE /api/v1/content/products/101", json(HttpStatus.SERVICE_UNAVAILABLE, "{}"));
+
+        assertThatThrownBy(() -> dataProcessor.processOrganizationRow(organization(), List.of(product("")), List.of()))
+                .hasMessageContaining("delete product 101");
+    }
+
+    @Test
+    void failedImageUploadFailsTheRowInsteadOfCreatingProductWithoutImage() {
+        responses.put("POST /api/v1/media/upload-from-url", json(HttpStatus.BAD_GATEWAY, "{}"));
+
+        assertThatThrownBy(() -> dataProcessor.processOrganizationRow(organization(),
+                List.of(product("https://cdn.example.ru/stol.jpg")), List.of()))
+                .hasMessageContaining("Failed to upload image");
+        assertThat(requests).doesNotContain("POST /api/v1/content/products");
+    }
+
+    @Test
+    void landingWithoutOrganizationIdFailsTheRow() {
+        responses.put("GET /api/v1/landings/domain/" + DOMAIN, json(HttpStatus.OK, "{\"id\":5}"));
+
+        assertThatThrownBy(() -> dataProcessor.processOrganizationRow(organization(), List.of(), List.of()))
+                .hasMessageContaining("Could not extract organizationId");
+    }
+
+    private static ClientResponse json(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static OrganizationRow organization() {
+        return new OrganizationRow(2, DOMAIN, "Мебель", "", "", "", "", "", "", "", "", "", "", "", "", "",
+                "", "", "", "", "");
+    }
+
+    private static ProductRow product(String imageUrl) {
+        return new ProductRow(3, DOMAIN, "Стол", "", new BigDecimal("1000"), "", imageUrl);
+    }
+
+    private static PromotionRow promotion() {
+        return new PromotionRow(4, DOMAIN, "Скидка", "", null);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * @file: GoogleSheetsOrderServiceTest.java
+ * @description: Tests for flushing the order outbox without holding a transaction during the Sheets call and for its claim lease
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsOrderOutbox;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsOrderOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.services.sheets.v4.model.AppendValuesResponse;
+import com.google.api.services.sheets.v4.model.UpdateValuesResponse;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleSheetsOrderServiceTest {
+
+    private final GoogleSheetsApiClient sheetsApiClient = mock(GoogleSheetsApiClient.class);
+    private final GoogleSheetsOrderOutboxRepository outboxRepository = mock(GoogleSheetsOrderOutboxRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private GoogleSheetsOrderService orderService;
+    private GoogleSheetsOrderOutbox entry;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> inTransaction(() ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)));
+        doAnswer(invocation -> inTransaction(() -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        })).when(transactionTemplate).executeWithoutResult(any());
+
+        entry = GoogleSheetsOrderOutbox.builder()
+                .id(1L)
+                .spreadsheetId("sheet-1")
+                .orderId(10L)
+                .rowData("[\"01.01.2026 10:00\",\"mebel.example.ru\",\"10\"]")
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(outboxRepository.lockDueRows(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(entry))
+                .thenReturn(List.of());
+
+        orderService = new GoogleSheetsOrderService(sheetsApiClient, outboxRepository, transactionTemplate,
+                new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(orderService, "batchSize", 100);
+        ReflectionTestUtils.setField(orderService, "retryBaseDelayMs", 5000L);
+        ReflectionTestUtils.setField(orderService, "retryMaxDelayMs", 1800000L);
+        ReflectionTestUtils.setField(orderService, "claimLeaseMarginMs", 60000L);
+        when(sheetsApiClient.maxWriteDuration()).thenReturn(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void sheetsCallRunsOutsideTheClaimTransaction() throws IOException {
+        when(sheetsApiClient.appendValues(anyString(), anyString(), any(ValueRange.class))).thenAnswer(invocation -> {
+            assertThat(inTransaction).as("append must not hold row locks").isFalse();
+            // The claim has been committed with a lease covering the slowest append, so other instances skip the row
+            assertThat(entry.getNextAttemptAt()).isAfter(LocalDateTime.now().plusMinutes(5).plusSeconds(50));
+            return new AppendValuesResponse().setUpdates(new UpdateValuesResponse().setUpdatedRows(1));
+        });
+
+        orderService.flushPendingOrders();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void failedAppendReschedulesClaimedRows() throws IOException {
+        when(sheetsApiClient.appendValues(anyString(), anyString(), any(ValueRange.class)))
+                .thenThrow(new IOException("503 Service Unavailable"));
+
+        orderService.flushPendingOrders();
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxRepository).saveAll(List.of(entry));
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).isEqualTo("503 Service Unavailable");
+        assertThat(entry.getNextAttemptAt()).isBefore(LocalDateTime.now().plusSeconds(10));
+    }
+
+    @Test
+    void slowestAppendFitsIntoTheLeaseWithDefaultSettings() {
+        GoogleSheetsApiClient client = new GoogleSheetsApiClient(null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "writesPerMinute", 60);
+        ReflectionTestUtils.setField(client, "maxRetries", 5);
+        ReflectionTestUtils.setField(client, "backoffBaseMs", 1000L);
+        ReflectionTestUtils.setField(client, "backoffMaxMs", 64000L);
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 20000);
+        ReflectionTestUtils.setField(client, "readTimeoutMs", 20000);
+
+        // 6 attempts of 1 s quota wait + 20 s connect + 20 s read, plus 1 + 2 + 4 + 8 + 16 s of backoff
+        assertThat(client.maxWriteDuration()).isEqualTo(Duration.ofSeconds(6 * 41 + 31));
+    }
+
+    private <T> T inTransaction(Callable<T> work) throws Exception {
+        inTransaction.set(true);
+        try {
+            return work.call();
+        } finally {
+            inTransaction.set(false);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * @file: TelegramDispatchQueueTest.java
+ * @description: Regression tests for idle bucket eviction, outcome metrics and resending rejected messages of the Telegram dispatch queue
+ * @dependencies: JUnit 5, Mockito, AssertJ, Micrometer
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.service.TelegramApiClient.SendResult;
+import com.baganov.klassifikator.integration.util.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TelegramDispatchQueueTest {
+
+    private static final String TOKEN = "123:secret";
+
+    @Mock
+    private TelegramApiClient telegramApiClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TelegramDispatchQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new TelegramDispatchQueue(telegramApiClient, meterRegistry);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 100);
+        ReflectionTestUtils.setField(queue, "maxPerChat", 10);
+        ReflectionTestUtils.setField(queue, "botMessagesPerSecond", 30);
+        ReflectionTestUtils.setField(queue, "chatMessagesPerSecond", 30);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 5);
+        ReflectionTestUtils.setField(queue, "retryBaseDelayMs", 10L);
+        // Everything not in use counts as idle
+        ReflectionTestUtils.setField(queue, "idleEvictionMs", 0L);
+        queue.init();
+    }
+
+    @Test
+    void outcomeCountersAreRegisteredUpFront() {
+        assertThat(meterRegistry.find("telegram.dispatch.messages").counters()).hasSize(8);
+    }
+
+    @Test
+    void botBucketPausedByTooManyRequestsIsNotEvicted() throws Exception {
+        CountDownLatch throttled = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                return Mono.just(new SendResult(429, Map.of("ok", false, "parameters", Map.of("retry_after", 1))))
+                        .doOnSuccess(result -> throttled.countDown());
+            }
+            delivered.countDown();
+            return Mono.just(new SendResult(200, Map.of("ok", true)));
+        });
+
+        assertThat(queue.enqueue(TOKEN, "42", "hello")).isTrue();
+        assertThat(throttled.await(5, TimeUnit.SECONDS)).isTrue();
+        // Give the drain thread time to pause the buckets after the 429
+        Thread.sleep(100);
+        TokenBucket pausedBucket = bots().get(TOKEN);
+
+        queue.evictIdle();
+
+        assertThat(bots().get(TOKEN)).isSameAs(pausedBucket);
+        assertThat(pausedBucket.tryAcquire()).isFalse();
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void idleBotBucketIsEvicted() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            delivered.countDown();
+            return Mono.just(new SendResult(200, Map.of("ok", true)));
+        });
+
+        queue.enqueue(TOKEN, "42", "hello");
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+
+        queue.evictIdle();
+
+        assertThat(bots()).isEmpty();
+        assertThat(meterRegistry.find("telegram.dispatch.messages").tag("outcome", "sent").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void mergedMessageRejectedByTelegramIsSentPartByPart() throws Exception {
+        CountDownLatch firstSendStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSend = new CountDownLatch(1);
+        CountDownLatch partsSent = new CountDownLatch(3);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            String text = invocation.getArgument(2);
+            if (text.equals("first")) {
+                // Hold the first message in flight so the next two are merged behind it
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            } else if (text.contains("second") && text.contains("third")) {
+                return Mono.just(new SendResult(400, Map.of("ok", false, "description", "Bad Request: can't parse entities")));
+            }
+            sent.add(text);
+            partsSent.countDown();
+            return Mono.just(new SendResult(200, Map.of("ok", true)));
+        });
+
+        queue.enqueue(TOKEN, "42", "first");
+        assertThat(firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(TOKEN, "42", "second");
+        queue.enqueue(TOKEN, "42", "third");
+        releaseFirstSend.countDown();
+
+        assertThat(partsSent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sent).containsExactly("first", "second", "third");
+        assertThat(outcome("split")).isEqualTo(1.0);
+        assertThat(outcome("sent")).isEqualTo(3.0);
+        assertThat(outcome("failed")).isZero();
+    }
+
+    @Test
+    void singleMessageRejectedByTelegramIsResentAsPlainText() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any()))
+                .thenReturn(Mono.just(new SendResult(400, Map.of("ok", false, "description", "Bad Request: can't parse entities"))));
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), isNull())).thenAnswer(invocation -> {
+            delivered.countDown();
+            return Mono.just(new SendResult(200, Map.of("ok", true)));
+        });
+
+        queue.enqueue(TOKEN, "42", "👤 Клиент: ivan\\_petrov");
+
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(telegramApiClient).sendMessage(TOKEN, "42", "👤 Клиент: ivan_petrov", null);
+        assertThat(outcome("sent")).isEqualTo(1.0);
+    }
+
+    @Test
+    void messageRejectedForUnauthorizedBotIsNotResent() throws Exception {
+        CountDownLatch rejected = new CountDownLatch(1);
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            rejected.countDown();
+            return Mono.just(new SendResult(401, Map.of("ok", false, "description", "Unauthorized")));
+        });
+
+        queue.enqueue(TOKEN, "42", "hello");
+        assertThat(rejected.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+
+        verify(telegramApiClient, never()).sendMessage(anyString(), anyString(), anyString(), isNull());
+        assertThat(outcome("failed")).isEqualTo(1.0);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.find("telegram.dispatch.messages").tag("outcome", outcome).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, TokenBucket> bots() {
+        return (Map<String, TokenBucket>) ReflectionTestUtils.getField(queue, "bots");
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * @file: TelegramOrderDigestTest.java
+ * @description: Regression tests for delivering pending order digests on shutdown and escaping their contents
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service;
+
+import com.baganov.klassifikator.integration.service.TelegramApiClient.SendResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TelegramOrderDigestTest {
+
+    private static final String TOKEN = "123:secret";
+    private static final String CHAT_ID = "42";
+
+    @Mock
+    private TelegramDispatchQueue dispatchQueue;
+    @Mock
+    private TelegramApiClient telegramApiClient;
+
+    @InjectMocks
+    private TelegramOrderDigest orderDigest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderDigest, "shutdownTimeoutMs", 1000L);
+    }
+
+    @Test
+    void pendingDigestIsSentDirectlyOnShutdown() {
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any()))
+                .thenReturn(Mono.just(new SendResult(200, Map.of("ok", true))));
+
+        assertThat(orderDigest.offer(TOKEN, CHAT_ID, 60, order(1))).isFalse();
+        assertThat(orderDigest.offer(TOKEN, CHAT_ID, 60, order(2))).isTrue();
+        assertThat(orderDigest.offer(TOKEN, CHAT_ID, 60, order(3))).isTrue();
+
+        orderDigest.shutdown();
+
+        verify(telegramApiClient, times(1)).sendMessage(eq(TOKEN), eq(CHAT_ID), contains("СВОДКА ЗАКАЗОВ: 2"), eq("Markdown"));
+        verify(dispatchQueue, never()).enqueue(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void shutdownDoesNotWaitForStalledTelegramBeyondTimeout() {
+        ReflectionTestUtils.setField(orderDigest, "shutdownTimeoutMs", 200L);
+        when(telegramApiClient.sendMessage(anyString(), anyString(), anyString(), any())).thenReturn(Mono.never());
+
+        orderDigest.offer(TOKEN, CHAT_ID, 60, order(1));
+        orderDigest.offer(TOKEN, CHAT_ID, 60, order(2));
+
+        long start = System.nanoTime();
+        orderDigest.shutdown();
+
+        assertThat(System.nanoTime() - start).isLessThan(5_000_000_000L);
+        verify(telegramApiClient, times(1)).sendMessage(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void dueDigestIsQueuedWhileRunning() throws Exception {
+        when(dispatchQueue.enqueue(anyString(), anyString(), anyString())).thenReturn(true);
+
+        orderDigest.offer(TOKEN, CHAT_ID, 1, order(1));
+        orderDigest.offer(TOKEN, CHAT_ID, 1, order(2));
+        Thread.sleep(1100);
+
+        orderDigest.flushDue();
+
+        verify(dispatchQueue, times(1)).enqueue(eq(TOKEN), eq(CHAT_ID), contains("СВОДКА ЗАКАЗОВ: 1"));
+        verify(telegramApiClient, never()).sendMessage(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void customerInputIsEscapedForMarkdown() throws Exception {
+        when(dispatchQueue.enqueue(anyString(), anyString(), anyString())).thenReturn(true);
+        Map<String, Object> order = new HashMap<>(order(2));
+        order.put("customerName", "ivan_petrov*");
+
+        orderDigest.offer(TOKEN, CHAT_ID, 1, order(1));
+        orderDigest.offer(TOKEN, CHAT_ID, 1, order);
+        Thread.sleep(1100);
+
+        orderDigest.flushDue();
+
+        verify(dispatchQueue).enqueue(eq(TOKEN), eq(CHAT_ID), contains("ivan\\_petrov\\*"));
+    }
+
+    private static Map<String, Object> order(long orderId) {
+        return Map.of(
+                "orderId", orderId,
+                "organizationId", 7L,
+                "organizationName", "Мебель",
+                "customerName", "Иван",
+                "customerPhone", "+79990000000",
+                "totalAmount", "100.00");
+    }
+}
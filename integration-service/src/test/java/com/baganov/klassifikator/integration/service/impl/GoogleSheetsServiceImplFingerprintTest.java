@@ -0,0 +1,113 @@
+/**
+ * @file: GoogleSheetsServiceImplFingerprintTest.java
+ * @description: Regression tests for storing sync fingerprints only for fully synced domains
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service.impl;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncFingerprint;
+import com.baganov.klassifikator.integration.model.sheet.OrganizationRow;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncFingerprintRepository;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import com.baganov.klassifikator.integration.service.GoogleSheetsApiClient;
+import com.baganov.klassifikator.integration.service.GoogleSheetsBulkImporter;
+import com.baganov.klassifikator.integration.service.GoogleSheetsDataProcessor;
+import com.google.api.services.sheets.v4.model.BatchGetValuesResponse;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GoogleSheetsServiceImplFingerprintTest {
+
+    private static final String SPREADSHEET_ID = "sheet-1";
+
+    @Mock
+    private GoogleSheetsSyncRepository syncRepository;
+    @Mock
+    private GoogleSheetsSyncFingerprintRepository fingerprintRepository;
+    @Mock
+    private GoogleSheetsApiClient sheetsApiClient;
+    @Mock
+    private GoogleSheetsDataProcessor dataProcessor;
+    @Mock
+    private GoogleSheetsBulkImporter bulkImporter;
+
+    @InjectMocks
+    private GoogleSheetsServiceImpl sheetsService;
+
+    private final List<GoogleSheetsSyncFingerprint> storedFingerprints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(sheetsApiClient.getSheetTitles(SPREADSHEET_ID)).thenReturn(List.of("Организации"));
+        when(sheetsApiClient.batchGetValues(anyString(), anyList())).thenReturn(new BatchGetValuesResponse()
+                .setValueRanges(List.of(new ValueRange().setValues(List.of(
+                        List.of("Домен", "Название"),
+                        List.of("ok.example.ru", "Мебель"),
+                        List.of("broken.example.ru", "Кухни"))))));
+        when(fingerprintRepository.findBySpreadsheetId(SPREADSHEET_ID))
+                .thenAnswer(invocation -> List.copyOf(storedFingerprints));
+        when(fingerprintRepository.save(any(GoogleSheetsSyncFingerprint.class))).thenAnswer(invocation -> {
+            GoogleSheetsSyncFingerprint fingerprint = invocation.getArgument(0);
+            storedFingerprints.remove(fingerprint);
+            storedFingerprints.add(fingerprint);
+            return fingerprint;
+        });
+        when(dataProcessor.processOrganizationRow(any(OrganizationRow.class), anyList(), anyList()))
+                .thenAnswer(invocation -> {
+                    OrganizationRow row = invocation.getArgument(0);
+                    if (row.domain().startsWith("broken")) {
+                        throw new RuntimeException("Organization 2 synced partially, 1 failed: create product 'Стол' (row 3): 500");
+                    }
+                    return false;
+                });
+    }
+
+    @Test
+    void partiallyFailedDomainKeepsNoFingerprint() {
+        Map<String, Object> result = sheetsService.syncAllOrganizationsFromSheet(SPREADSHEET_ID, "Организации");
+
+        assertThat(result).containsEntry("updated", 1).containsEntry("failed", 1);
+        ArgumentCaptor<GoogleSheetsSyncFingerprint> saved = ArgumentCaptor.forClass(GoogleSheetsSyncFingerprint.class);
+        verify(fingerprintRepository).save(saved.capture());
+        assertThat(saved.getValue().getDomain()).isEqualTo("ok.example.ru");
+        verify(fingerprintRepository, never()).save(argThat(fingerprint ->
+                "broken.example.ru".equals(fingerprint.getDomain())));
+    }
+
+    @Test
+    void failedDomainIsProcessedAgainOnTheNextRun() {
+        sheetsService.syncAllOrganizationsFromSheet(SPREADSHEET_ID, "Организации");
+        Map<String, Object> second = sheetsService.syncAllOrganizationsFromSheet(SPREADSHEET_ID, "Организации");
+
+        assertThat(second).containsEntry("skipped", 1).containsEntry("failed", 1);
+        verify(dataProcessor, times(1)).processOrganizationRow(
+                argThat(row -> row.domain().equals("ok.example.ru")), anyList(), anyList());
+        verify(dataProcessor, times(2)).processOrganizationRow(
+                argThat(row -> row.domain().equals("broken.example.ru")), anyList(), anyList());
+    }
+}
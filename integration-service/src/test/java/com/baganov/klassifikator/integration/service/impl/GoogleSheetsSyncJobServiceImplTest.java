@@ -0,0 +1,191 @@
+/**
+ * @file: GoogleSheetsSyncJobServiceImplTest.java
+ * @description: Tests for running mass sync jobs under the sync lock and waiting for their result
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.integration.service.impl;
+
+import com.baganov.klassifikator.common.model.entity.GoogleSheetsSyncJob;
+import com.baganov.klassifikator.integration.model.dto.GoogleSheetsSyncJobDto;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncJobRepository;
+import com.baganov.klassifikator.integration.repository.GoogleSheetsSyncRepository;
+import com.baganov.klassifikator.integration.service.GoogleSheetsService;
+import com.baganov.klassifikator.integration.service.GoogleSheetsSyncLock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GoogleSheetsSyncJobServiceImplTest {
+
+    private static final String SPREADSHEET_ID = "sheet-1";
+
+    @Mock
+    private GoogleSheetsSyncJobRepository jobRepository;
+    @Mock
+    private GoogleSheetsSyncRepository syncRepository;
+    @Mock
+    private GoogleSheetsService googleSheetsService;
+    @Mock
+    private GoogleSheetsSyncLock syncLock;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private GoogleSheetsSyncJobServiceImpl jobService;
+
+    private final Map<Long, GoogleSheetsSyncJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(jobService, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 5);
+        ReflectionTestUtils.setField(jobService, "progressIntervalMs", 1000L);
+        ReflectionTestUtils.setField(jobService, "staleAfterMs", 900_000L);
+        ReflectionTestUtils.setField(jobService, "pollMs", 10L);
+        ReflectionTestUtils.setField(jobService, "waitTimeoutMs", 5_000L);
+        jobService.init();
+
+        when(jobRepository.findFirstBySpreadsheetIdAndStatusInOrderByIdDesc(anyString(), anyList()))
+                .thenReturn(Optional.empty());
+        when(jobRepository.saveAndFlush(any(GoogleSheetsSyncJob.class))).thenAnswer(invocation -> {
+            GoogleSheetsSyncJob job = invocation.getArgument(0);
+            job.setId(ids.incrementAndGet());
+            jobs.put(job.getId(), copy(job));
+            return job;
+        });
+        when(jobRepository.save(any(GoogleSheetsSyncJob.class))).thenAnswer(invocation -> {
+            GoogleSheetsSyncJob job = invocation.getArgument(0);
+            jobs.put(job.getId(), copy(job));
+            return job;
+        });
+        // Each read returns a detached copy, as a new persistence context would
+        when(jobRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(jobs.get(invocation.<Long>getArgument(0))).map(this::copy));
+        when(syncLock.runMassSync(any())).thenAnswer(invocation -> invocation.<Callable<?>>getArgument(0).call());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void jobRunsUnderMassSyncLockAndAwaitReturnsFinalCounters() throws Exception {
+        when(googleSheetsService.syncAllOrganizationsFromSheet(eq(SPREADSHEET_ID), eq("Organizations"), eq(false), any()))
+                .thenReturn(Map.of("created", 2, "updated", 1, "skipped", 5, "failed", 0, "errors", List.of()));
+
+        GoogleSheetsSyncJobDto queued = jobService.submitSyncAll(SPREADSHEET_ID, "Organizations", false);
+        GoogleSheetsSyncJobDto finished = jobService.awaitJob(queued.getId());
+
+        assertThat(queued.getStatus()).isEqualTo("QUEUED");
+        assertThat(finished.getStatus()).isEqualTo("SUCCEEDED");
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThat(finished.getCreated()).isEqualTo(2);
+        assertThat(finished.getUpdated()).isEqualTo(1);
+        assertThat(finished.getSkipped()).isEqualTo(5);
+        verify(syncLock).runMassSync(any());
+    }
+
+    @Test
+    void jobDoesNotStartSyncBeforeMassSyncLockIsGranted() throws Exception {
+        CountDownLatch lockRequested = new CountDownLatch(1);
+        CountDownLatch lockGranted = new CountDownLatch(1);
+        when(syncLock.runMassSync(any())).thenAnswer(invocation -> {
+            lockRequested.countDown();
+            lockGranted.await();
+            return invocation.<Callable<?>>getArgument(0).call();
+        });
+        when(googleSheetsService.syncAllOrganizationsFromSheet(anyString(), anyString(), anyBoolean(), any()))
+                .thenReturn(Map.of());
+
+        GoogleSheetsSyncJobDto queued = jobService.submitSyncAll(SPREADSHEET_ID, "Organizations", false);
+
+        assertThat(lockRequested.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(googleSheetsService, never()).syncAllOrganizationsFromSheet(anyString(), anyString(), anyBoolean(), any());
+        assertThat(jobService.getJob(queued.getId()).getStatus()).isEqualTo("RUNNING");
+
+        lockGranted.countDown();
+        assertThat(jobService.awaitJob(queued.getId()).getStatus()).isEqualTo("SUCCEEDED");
+    }
+
+    @Test
+    void awaitGivesUpAfterWaitTimeout() {
+        ReflectionTestUtils.setField(jobService, "waitTimeoutMs", 50L);
+        LocalDateTime now = LocalDateTime.now();
+        jobs.put(7L, GoogleSheetsSyncJob.builder()
+                .id(7L)
+                .spreadsheetId(SPREADSHEET_ID)
+                .status("RUNNING")
+                .createdAt(now)
+                .updatedAt(now)
+                .heartbeatAt(now)
+                .build());
+
+        GoogleSheetsSyncJobDto job = jobService.awaitJob(7L);
+
+        assertThat(job.getStatus()).isEqualTo("RUNNING");
+        assertThat(job.getFinishedAt()).isNull();
+    }
+
+    @Test
+    void heartbeatKeepsJobAliveWithoutProgress() {
+        LocalDateTime now = LocalDateTime.now();
+        GoogleSheetsSyncJob running = GoogleSheetsSyncJob.builder()
+                .id(9L)
+                .spreadsheetId(SPREADSHEET_ID)
+                .status("RUNNING")
+                .createdAt(now.minusHours(1))
+                .updatedAt(now.minusHours(1))
+                .heartbeatAt(now.minusSeconds(30))
+                .build();
+        when(jobRepository.findFirstBySpreadsheetIdAndStatusInOrderByIdDesc(eq(SPREADSHEET_ID), anyList()))
+                .thenReturn(Optional.of(running));
+
+        GoogleSheetsSyncJobDto joined = jobService.submitSyncAll(SPREADSHEET_ID, "Organizations", false);
+
+        assertThat(joined.getId()).isEqualTo(9L);
+        assertThat(joined.getStatus()).isEqualTo("RUNNING");
+        verify(jobRepository, never()).saveAndFlush(any());
+    }
+
+    private GoogleSheetsSyncJob copy(GoogleSheetsSyncJob job) {
+        return new GoogleSheetsSyncJob(job.getId(), job.getSpreadsheetId(), job.getSheetName(), job.getForce(),
+                job.getMode(), job.getStatus(), job.getTotalRows(), job.getProcessedRows(), job.getCreatedCount(),
+                job.getUpdatedCount(), job.getSkippedCount(), job.getFailedCount(), job.getDeletedCount(),
+                job.getErrors(), job.getErrorMessage(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(),
+                job.getUpdatedAt(), job.getHeartbeatAt());
+    }
+}
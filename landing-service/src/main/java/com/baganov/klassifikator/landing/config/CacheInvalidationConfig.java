@@ -0,0 +1,28 @@
+/**
+ * @file: CacheInvalidationConfig.java
+ * @description: Subscribes landing-service to organization cache invalidation messages
+ * @dependencies: Spring Data Redis
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.landing.config;
+
+import com.baganov.klassifikator.common.event.OrganizationCacheInvalidationEvent;
+import com.baganov.klassifikator.landing.listener.OrganizationCacheInvalidationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, OrganizationCacheInvalidationListener listener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(listener, new ChannelTopic(OrganizationCacheInvalidationEvent.CHANNEL));
+        return container;
+    }
+}
@@ -6,6 +6,8 @@
  */
 package com.baganov.klassifikator.landing.controller;
 
+import com.baganov.klassifikator.landing.model.dto.LandingReconcileRequestDto;
+import com.baganov.klassifikator.landing.model.dto.LandingReconcileResponseDto;
 import com.baganov.klassifikator.landing.model.dto.LandingRequestDto;
 import com.baganov.klassifikator.landing.model.dto.LandingResponseDto;
 import com.baganov.klassifikator.landing.service.LandingService;
@@ -117,5 +119,16 @@ public class LandingController {
         LandingResponseDto response = landingService.publishLanding(id);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Delete landings (and their organizations) whose domains are not in the given set
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<LandingReconcileResponseDto> reconcileLandings(
+            @Valid @RequestBody LandingReconcileRequestDto request) {
+        log.info("POST /api/v1/landings/reconcile - Reconciling against {} domains", request.getDomains().size());
+        LandingReconcileResponseDto response = landingService.reconcileDomains(request.getDomains());
+        return ResponseEntity.ok(response);
+    }
 }
 
@@ -0,0 +1,45 @@
+/**
+ * @file: OrganizationCacheInvalidationListener.java
+ * @description: Evicts cached landings of organizations changed outside this service
+ * @dependencies: Spring Cache, Spring Data Redis, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.landing.listener;
+
+import com.baganov.klassifikator.common.event.OrganizationCacheInvalidationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Landings are cached by id, so only the landings listed in the message are evicted
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrganizationCacheInvalidationListener implements MessageListener {
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            OrganizationCacheInvalidationEvent event =
+                    objectMapper.readValue(message.getBody(), OrganizationCacheInvalidationEvent.class);
+            Cache cache = cacheManager.getCache("landing");
+            if (cache == null || event.landingIds() == null) {
+                return;
+            }
+            event.landingIds().forEach(cache::evict);
+            log.debug("Evicted {} cached landings of organization {}", event.landingIds().size(), event.organizationId());
+        } catch (Exception e) {
+            log.warn("Failed to handle cache invalidation message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * @file: LandingReconcileRequestDto.java
+ * @description: DTO with the set of domains that must be kept during reconciliation
+ * @dependencies: Jakarta Validation
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.landing.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LandingReconcileRequestDto {
+
+    // Empty set is rejected: an unreadable sheet must not wipe every landing
+    @NotEmpty(message = "Domains are required")
+    private Set<String> domains;
+}
@@ -0,0 +1,25 @@
+/**
+ * @file: LandingReconcileResponseDto.java
+ * @description: DTO with the result of landing reconciliation
+ * @dependencies: Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.landing.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LandingReconcileResponseDto {
+
+    private List<String> removedDomains;
+
+    private int removedOrganizations;
+}
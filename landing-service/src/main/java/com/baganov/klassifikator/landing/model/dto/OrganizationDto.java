@@ -7,6 +7,7 @@
 package com.baganov.klassifikator.landing.model.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,6 +34,10 @@ public class OrganizationDto {
     private String workingHours;
     private String status;
     private String googleSheetId;
+
+    @PositiveOrZero(message = "Telegram digest window must not be negative")
+    private Integer telegramDigestWindowSeconds;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -8,6 +8,8 @@ package com.baganov.klassifikator.landing.repository;
 
 import com.baganov.klassifikator.common.model.entity.Landing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,5 +29,38 @@ public interface LandingRepository extends JpaRepository<Landing, Long> {
     boolean existsByDomain(String domain);
     
     boolean existsBySubdomain(String subdomain);
+
+    /**
+     * Delete landings whose domain is not in the given set, then the organizations left without a kept landing.
+     * Content, products, promotions, media, SEO data and orders go with the organization via ON DELETE CASCADE.
+     * Both deletes run in one statement; CTEs share a snapshot, so kept landings are matched by domain again.
+     * Domains are bound once as a single array parameter, however many there are.
+     *
+     * @return removed landing domain and organization id pairs
+     */
+    @Query(value = "WITH removed_landings AS ( " +
+                   "    DELETE FROM landings l " +
+                   "    WHERE l.domain IS NOT NULL AND l.domain <> ALL(CAST(:domains AS text[])) " +
+                   "    RETURNING l.domain, l.organization_id " +
+                   "), removed_organizations AS ( " +
+                   "    DELETE FROM organizations o " +
+                   "    WHERE o.id IN (SELECT organization_id FROM removed_landings) " +
+                   "      AND NOT EXISTS (SELECT 1 FROM landings k " +
+                   "                      WHERE k.organization_id = o.id " +
+                   "                        AND (k.domain IS NULL OR k.domain = ANY(CAST(:domains AS text[])))) " +
+                   "    RETURNING o.id " +
+                   ") " +
+                   "SELECT r.domain AS domain, r.organization_id AS organizationId, " +
+                   "       (r.organization_id IN (SELECT id FROM removed_organizations)) AS organizationRemoved " +
+                   "FROM removed_landings r ORDER BY r.domain", nativeQuery = true)
+    List<ReconciledLanding> deleteByDomainNotIn(@Param("domains") String[] domains);
+
+    interface ReconciledLanding {
+        String getDomain();
+
+        Long getOrganizationId();
+
+        Boolean getOrganizationRemoved();
+    }
 }
 
@@ -6,10 +6,12 @@
  */
 package com.baganov.klassifikator.landing.service;
 
+import com.baganov.klassifikator.landing.model.dto.LandingReconcileResponseDto;
 import com.baganov.klassifikator.landing.model.dto.LandingRequestDto;
 import com.baganov.klassifikator.landing.model.dto.LandingResponseDto;
 
 import java.util.List;
+import java.util.Set;
 
 public interface LandingService {
 
@@ -83,5 +85,13 @@ public interface LandingService {
      * @return published landing
      */
     LandingResponseDto publishLanding(Long id);
+
+    /**
+     * Delete landings whose domains are not in the given set, together with their organizations
+     *
+     * @param domains domains that must be kept
+     * @return removed domains
+     */
+    LandingReconcileResponseDto reconcileDomains(Set<String> domains);
 }
 
@@ -9,6 +9,7 @@ package com.baganov.klassifikator.landing.service.impl;
 import com.baganov.klassifikator.common.model.entity.Landing;
 import com.baganov.klassifikator.common.model.entity.SeoData;
 import com.baganov.klassifikator.landing.mapper.LandingMapper;
+import com.baganov.klassifikator.landing.model.dto.LandingReconcileResponseDto;
 import com.baganov.klassifikator.landing.model.dto.LandingRequestDto;
 import com.baganov.klassifikator.landing.model.dto.LandingResponseDto;
 import com.baganov.klassifikator.landing.repository.LandingRepository;
@@ -24,6 +25,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -182,5 +185,41 @@ public class LandingServiceImpl implements LandingService {
         
         return landingMapper.toDto(publishedLanding);
     }
+
+    @Override
+    @Transactional
+    @CacheEvict(value = "landing", allEntries = true)
+    public LandingReconcileResponseDto reconcileDomains(Set<String> domains) {
+        Set<String> keptDomains = domains.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(domain -> !domain.isEmpty())
+                .collect(Collectors.toSet());
+
+        if (keptDomains.isEmpty()) {
+            throw new RuntimeException("Refusing to reconcile against an empty domain set");
+        }
+
+        log.info("Reconciling landings against {} domains", keptDomains.size());
+
+        List<LandingRepository.ReconciledLanding> removed = landingRepository.deleteByDomainNotIn(keptDomains.toArray(String[]::new));
+
+        List<String> removedDomains = removed.stream()
+                .map(LandingRepository.ReconciledLanding::getDomain)
+                .collect(Collectors.toList());
+        int removedOrganizations = (int) removed.stream()
+                .filter(landing -> Boolean.TRUE.equals(landing.getOrganizationRemoved()))
+                .map(LandingRepository.ReconciledLanding::getOrganizationId)
+                .distinct()
+                .count();
+
+        log.info("Reconciliation removed {} landings and {} organizations: {}",
+                removedDomains.size(), removedOrganizations, removedDomains);
+
+        return LandingReconcileResponseDto.builder()
+                .removedDomains(removedDomains)
+                .removedOrganizations(removedOrganizations)
+                .build();
+    }
 }
 
@@ -76,6 +76,7 @@ public class OrganizationServiceImpl implements OrganizationService {
         entity.setStatus(dto.getStatus());
         entity.setWorkingHours(dto.getWorkingHours());
         entity.setWebsite(dto.getWebsite());
+        entity.setTelegramDigestWindowSeconds(dto.getTelegramDigestWindowSeconds());
 
         Organization updated = organizationRepository.save(entity);
 
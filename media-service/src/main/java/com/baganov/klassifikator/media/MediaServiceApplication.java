@@ -10,6 +10,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
         "com.baganov.klassifikator.media",
@@ -17,6 +18,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 })
 @EntityScan("com.baganov.klassifikator.common.model.entity")
 @EnableJpaRepositories("com.baganov.klassifikator.media.repository")
+@EnableScheduling
 public class MediaServiceApplication {
 
     public static void main(String[] args) {
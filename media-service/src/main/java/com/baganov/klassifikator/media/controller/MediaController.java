@@ -6,9 +6,13 @@
  */
 package com.baganov.klassifikator.media.controller;
 
+import com.baganov.klassifikator.media.model.dto.DirectUploadRequestDto;
+import com.baganov.klassifikator.media.model.dto.DirectUploadSlotDto;
+import com.baganov.klassifikator.media.model.dto.MediaBatchRequestDto;
 import com.baganov.klassifikator.media.model.dto.MediaFileDto;
 import com.baganov.klassifikator.media.model.dto.UploadResponseDto;
 import com.baganov.klassifikator.media.service.MediaService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -17,6 +21,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -35,6 +41,20 @@ public class MediaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/uploads")
+    public ResponseEntity<DirectUploadSlotDto> requestDirectUpload(@Valid @RequestBody DirectUploadRequestDto request) {
+        log.info("POST /api/v1/media/uploads - Direct upload slot for organization {}", request.getOrganizationId());
+        DirectUploadSlotDto response = mediaService.requestDirectUpload(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/uploads/{uploadId}/confirm")
+    public ResponseEntity<UploadResponseDto> confirmDirectUpload(@PathVariable UUID uploadId) {
+        log.info("POST /api/v1/media/uploads/{}/confirm", uploadId);
+        UploadResponseDto response = mediaService.confirmDirectUpload(uploadId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MediaFileDto> getFileById(@PathVariable Long id) {
         log.info("GET /api/v1/media/{}", id);
@@ -42,6 +62,13 @@ public class MediaController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, MediaFileDto>> getFilesByIds(@Valid @RequestBody MediaBatchRequestDto request) {
+        log.info("POST /api/v1/media/batch - Resolving {} media files", request.getIds().size());
+        Map<Long, MediaFileDto> response = mediaService.getFilesByIds(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/organization/{organizationId}")
     public ResponseEntity<List<MediaFileDto>> getFilesByOrganization(@PathVariable Long organizationId) {
         log.info("GET /api/v1/media/organization/{}", organizationId);
@@ -63,6 +90,13 @@ public class MediaController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/variants")
+    public ResponseEntity<Void> generateVariants(@PathVariable Long id) {
+        log.info("POST /api/v1/media/{}/variants", id);
+        boolean queued = mediaService.generateVariants(id);
+        return ResponseEntity.status(queued ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
     @PostMapping("/upload-from-url")
     public ResponseEntity<UploadResponseDto> uploadFromUrl(
             @RequestBody java.util.Map<String, Object> request) {
@@ -0,0 +1,13 @@
+/**
+ * @file: MediaFileStoredEvent.java
+ * @description: Application event published when a new media file has been stored
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.event;
+
+/**
+ * Published inside the storing transaction; listeners that read the file row
+ * should use {@code @TransactionalEventListener}.
+ */
+public record MediaFileStoredEvent(Long mediaFileId) {
+}
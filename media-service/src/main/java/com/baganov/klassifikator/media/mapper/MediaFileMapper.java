@@ -7,7 +7,9 @@
 package com.baganov.klassifikator.media.mapper;
 
 import com.baganov.klassifikator.common.model.entity.MediaFile;
+import com.baganov.klassifikator.common.model.entity.MediaFileVariant;
 import com.baganov.klassifikator.media.model.dto.MediaFileDto;
+import com.baganov.klassifikator.media.model.dto.MediaVariantDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -20,8 +22,14 @@ public interface MediaFileMapper {
     @Mapping(target = "createdAt", ignore = true)
     MediaFile toEntity(MediaFileDto dto);
 
+    @Mapping(target = "variants", ignore = true)
+    @Mapping(target = "srcset", ignore = true)
     MediaFileDto toDto(MediaFile entity);
 
+    @Mapping(target = "fileType", source = "mimeType")
+    @Mapping(target = "fileUrl", source = "filePath")
+    MediaVariantDto toVariantDto(MediaFileVariant entity);
+
     List<MediaFileDto> toDtoList(List<MediaFile> entities);
 }
 
@@ -0,0 +1,38 @@
+/**
+ * @file: DirectUploadRequestDto.java
+ * @description: DTO for requesting a presigned direct upload slot
+ * @dependencies: Lombok, Jakarta Validation
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadRequestDto {
+
+    @NotNull(message = "Organization ID is required")
+    private Long organizationId;
+
+    @NotBlank(message = "File name is required")
+    @Size(max = 200, message = "File name is too long")
+    private String fileName;
+
+    @NotBlank(message = "Content type is required")
+    @Size(max = 100, message = "Content type is too long")
+    private String contentType;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long fileSize;
+}
@@ -0,0 +1,35 @@
+/**
+ * @file: DirectUploadSlotDto.java
+ * @description: DTO for a presigned direct upload slot
+ * @dependencies: Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadSlotDto {
+
+    // Passed to the confirm call once the upload has finished
+    private UUID uploadId;
+
+    private String s3Key;
+    private String uploadUrl;
+    private String method;
+
+    // Headers the upload request must carry exactly as given, they are part of the signature
+    private Map<String, String> headers;
+
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,28 @@
+/**
+ * @file: MediaBatchRequestDto.java
+ * @description: DTO for resolving many media files in one request
+ * @dependencies: Lombok, Jakarta Validation
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaBatchRequestDto {
+
+    @NotEmpty(message = "Media file IDs are required")
+    @Size(max = 500, message = "At most 500 media files per request")
+    private List<@NotNull Long> ids;
+}
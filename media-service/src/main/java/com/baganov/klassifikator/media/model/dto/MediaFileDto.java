@@ -14,6 +14,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -36,9 +37,17 @@ public class MediaFileDto {
     private String fileType;
 
     private Long fileSize;
+    private Integer width;
+    private Integer height;
     private String s3Key;
     private String s3Bucket;
     private String altText;
     private LocalDateTime uploadedAt;
+
+    // Resized variants, smallest first; empty until generated
+    private List<MediaVariantDto> variants;
+
+    // Ready-to-use srcset value built from the variants and the original
+    private String srcset;
 }
 
@@ -0,0 +1,25 @@
+/**
+ * @file: MediaVariantDto.java
+ * @description: DTO for a resized variant of a media file
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaVariantDto {
+
+    private Integer width;
+    private Integer height;
+    private String fileType;
+    private String fileUrl;
+    private Long fileSize;
+}
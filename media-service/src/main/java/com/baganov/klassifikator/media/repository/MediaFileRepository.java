@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
@@ -18,5 +19,7 @@ public interface MediaFileRepository extends JpaRepository<MediaFile, Long> {
     List<MediaFile> findByOrganizationId(Long organizationId);
     
     List<MediaFile> findByMimeType(String mimeType);
+
+    Optional<MediaFile> findFirstByOrganizationIdAndContentHashOrderByIdAsc(Long organizationId, String contentHash);
 }
 
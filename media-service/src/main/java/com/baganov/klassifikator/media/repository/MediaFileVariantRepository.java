@@ -0,0 +1,22 @@
+/**
+ * @file: MediaFileVariantRepository.java
+ * @description: Repository for MediaFileVariant entity
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.repository;
+
+import com.baganov.klassifikator.common.model.entity.MediaFileVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MediaFileVariantRepository extends JpaRepository<MediaFileVariant, Long> {
+
+    List<MediaFileVariant> findByMediaFileIdOrderByWidthAsc(Long mediaFileId);
+
+    List<MediaFileVariant> findByMediaFileIdInOrderByWidthAsc(Collection<Long> mediaFileIds);
+}
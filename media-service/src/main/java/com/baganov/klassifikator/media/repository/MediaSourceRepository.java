@@ -0,0 +1,19 @@
+/**
+ * @file: MediaSourceRepository.java
+ * @description: Repository for MediaSource entity
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.repository;
+
+import com.baganov.klassifikator.common.model.entity.MediaSource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaSourceRepository extends JpaRepository<MediaSource, Long> {
+
+    Optional<MediaSource> findByOrganizationIdAndSourceUrl(Long organizationId, String sourceUrl);
+}
@@ -0,0 +1,33 @@
+/**
+ * @file: MediaUploadSlotRepository.java
+ * @description: Repository for pending presigned direct uploads
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.repository;
+
+import com.baganov.klassifikator.common.model.entity.MediaUploadSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MediaUploadSlotRepository extends JpaRepository<MediaUploadSlot, UUID> {
+
+    List<MediaUploadSlot> findTop100ByExpiresAtBeforeOrderByExpiresAtAsc(LocalDateTime before);
+
+    /**
+     * Remove the slot if it is still pending; only one of concurrent confirmations gets 1
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MediaUploadSlot s WHERE s.id = :id")
+    int claim(@Param("id") UUID id);
+}
@@ -0,0 +1,22 @@
+/**
+ * @file: OrganizationRepository.java
+ * @description: Read-only lookups of organizations that own media files
+ * @dependencies: Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.repository;
+
+import com.baganov.klassifikator.common.model.entity.Organization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrganizationRepository extends JpaRepository<Organization, Long> {
+
+    @Query("SELECT o.status FROM Organization o WHERE o.id = :id")
+    Optional<String> findStatusById(@Param("id") Long id);
+}
@@ -0,0 +1,190 @@
+/**
+ * @file: DirectUploadService.java
+ * @description: Presigned direct uploads from clients to S3 and their verification
+ * @dependencies: AWS SDK, Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.common.model.entity.MediaUploadSlot;
+import com.baganov.klassifikator.media.model.dto.DirectUploadRequestDto;
+import com.baganov.klassifikator.media.model.dto.DirectUploadSlotDto;
+import com.baganov.klassifikator.media.repository.MediaUploadSlotRepository;
+import com.baganov.klassifikator.media.repository.OrganizationRepository;
+import com.baganov.klassifikator.media.service.S3StreamingUploader.StoredObject;
+import com.baganov.klassifikator.media.util.MediaTypeDetector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * File bytes go from the client straight to the bucket, media-service only handles metadata:
+ * - a slot is only issued for an existing active organization and an allowed content type;
+ * - a slot is a presigned PUT for a fresh key, with the content type and size signed in, and a row in
+ *   media_upload_slots whose random id is the token of the confirm call;
+ * - on confirm the object is checked with HEAD (exists, not larger than declared) and its first bytes
+ *   are read to detect the real type; an object that is not of an allowed type is deleted, otherwise
+ *   the caller records the media file;
+ * - slots not confirmed within the grace period after the URL expired are removed together with
+ *   anything uploaded under their key.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectUploadService {
+
+    private static final String ACTIVE_STATUS = "ACTIVE";
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final MediaUploadSlotRepository slotRepository;
+    private final OrganizationRepository organizationRepository;
+
+    @Value("${s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${media.direct-upload.url-ttl-seconds:900}")
+    private long urlTtlSeconds;
+
+    @Value("${media.direct-upload.max-size-mb:500}")
+    private long maxSizeMb;
+
+    @Value("${media.direct-upload.confirm-grace-minutes:60}")
+    private long confirmGraceMinutes;
+
+    /**
+     * Create an upload slot with a presigned PUT URL
+     */
+    public DirectUploadSlotDto createSlot(DirectUploadRequestDto request) {
+        if (request.getFileSize() > maxSizeMb * 1024 * 1024) {
+            throw new RuntimeException("File is larger than " + maxSizeMb + " MB");
+        }
+        String contentType = request.getContentType().trim();
+        if (!MediaTypeDetector.isAllowed(contentType)) {
+            throw new RuntimeException("File type is not allowed: " + contentType);
+        }
+        String status = organizationRepository.findStatusById(request.getOrganizationId())
+                .orElseThrow(() -> new RuntimeException("Organization not found with id: " + request.getOrganizationId()));
+        if (!ACTIVE_STATUS.equals(status)) {
+            throw new RuntimeException("Organization " + request.getOrganizationId() + " is not active");
+        }
+
+        UUID uploadId = UUID.randomUUID();
+        String fileName = request.getFileName().substring(
+                Math.max(request.getFileName().lastIndexOf('/'), request.getFileName().lastIndexOf('\\')) + 1);
+        String s3Key = String.format("organizations/%d/%s_%s", request.getOrganizationId(), uploadId, fileName);
+
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(presign -> presign
+                .signatureDuration(Duration.ofSeconds(urlTtlSeconds))
+                .putObjectRequest(put -> put
+                        .bucket(bucketName)
+                        .key(s3Key)
+                        .contentType(contentType)
+                        .contentLength(request.getFileSize())));
+
+        // Host is set by the HTTP client itself
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(urlTtlSeconds);
+        slotRepository.save(MediaUploadSlot.builder()
+                .id(uploadId)
+                .organizationId(request.getOrganizationId())
+                .s3Key(s3Key)
+                .originalFilename(fileName)
+                .contentType(contentType)
+                .fileSize(request.getFileSize())
+                .expiresAt(expiresAt)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        return DirectUploadSlotDto.builder()
+                .uploadId(uploadId)
+                .s3Key(s3Key)
+                .uploadUrl(presigned.url().toString())
+                .method("PUT")
+                .headers(headers)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * Check the uploaded object of a slot
+     *
+     * @return the object with its stored size and the type detected from its content
+     */
+    public StoredObject verify(MediaUploadSlot slot) {
+        HeadObjectResponse head;
+        try {
+            head = s3Client.headObject(request -> request.bucket(bucketName).key(slot.getS3Key()));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new RuntimeException("File has not been uploaded: " + slot.getS3Key());
+            }
+            throw e;
+        }
+
+        long size = head.contentLength();
+        if (size > slot.getFileSize()) {
+            delete(slot.getS3Key());
+            throw new RuntimeException("Uploaded file is larger than declared: " + size + " > " + slot.getFileSize());
+        }
+
+        byte[] leading = s3Client.getObjectAsBytes(request -> request
+                .bucket(bucketName)
+                .key(slot.getS3Key())
+                .range("bytes=0-" + (MediaTypeDetector.SNIFF_LENGTH - 1))).asByteArray();
+        // Only the signature counts: the declared type is what the uploader claims, not what was uploaded
+        String contentType = MediaTypeDetector.detectAllowed(leading, leading.length);
+        if (contentType == null) {
+            delete(slot.getS3Key());
+            throw new RuntimeException("Uploaded file is not of an allowed type: " + slot.getOriginalFilename());
+        }
+
+        return new StoredObject(slot.getS3Key(), size, contentType);
+    }
+
+    /**
+     * Remove slots that were not confirmed in time, and whatever was uploaded under their keys
+     */
+    @Scheduled(fixedDelayString = "${media.direct-upload.cleanup-interval-ms:600000}")
+    public void removeExpired() {
+        List<MediaUploadSlot> expired = slotRepository.findTop100ByExpiresAtBeforeOrderByExpiresAtAsc(
+                LocalDateTime.now().minusMinutes(confirmGraceMinutes));
+        for (MediaUploadSlot slot : expired) {
+            // Claim first, so an object is never deleted under a confirmation that just won
+            if (slotRepository.claim(slot.getId()) == 1) {
+                delete(slot.getS3Key());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired direct upload slots", expired.size());
+        }
+    }
+
+    private void delete(String key) {
+        try {
+            s3Client.deleteObject(request -> request.bucket(bucketName).key(key));
+        } catch (Exception e) {
+            log.error("Failed to delete file from S3: {}", key, e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * @file: ImageVariantService.java
+ * @description: Generates resized image variants of media files for responsive srcset output
+ * @dependencies: Java ImageIO, AWS SDK, Spring Data JPA
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.common.model.entity.MediaFile;
+import com.baganov.klassifikator.common.model.entity.MediaFileVariant;
+import com.baganov.klassifikator.media.event.MediaFileStoredEvent;
+import com.baganov.klassifikator.media.repository.MediaFileRepository;
+import com.baganov.klassifikator.media.repository.MediaFileVariantRepository;
+import com.baganov.klassifikator.media.util.ExifOrientation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Variants are generated in the background once a new image is committed, or on demand for existing files:
+ * - one variant per configured width below the original width, photos as progressive JPEG and images
+ *   with transparency as PNG (both encoded by the JDK, no native libraries);
+ * - the source is decoded with subsampling to about twice the largest target, so a 24 MP photo does not
+ *   become a 100 MB bitmap, and each smaller variant is scaled from the previous one;
+ * - EXIF orientation is applied, since variants carry no metadata;
+ * - keys are derived from the original key and the width, regenerating overwrites the same objects;
+ * - animated GIFs get no variants: ImageIO decodes only the first frame, and a still in srcset
+ *   would replace the animation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private static final Set<String> SUPPORTED_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "image/bmp");
+
+    private final S3Client s3Client;
+    private final MediaFileRepository mediaFileRepository;
+    private final MediaFileVariantRepository variantRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${s3.base-url}")
+    private String baseUrl;
+
+    @Value("${media.variants.widths:320,640,1024,1600}")
+    private int[] widths;
+
+    @Value("${media.variants.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${media.variants.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    @Value("${media.variants.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${media.variants.queue-capacity:500}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, maxConcurrent);
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMediaFileStored(MediaFileStoredEvent event) {
+        submit(event.mediaFileId());
+    }
+
+    /**
+     * Queue variant generation for a media file
+     *
+     * @return false if the queue is full
+     */
+    public boolean submit(Long mediaFileId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(mediaFileId);
+                } catch (Exception e) {
+                    log.error("Failed to generate image variants for media file {}", mediaFileId, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue is full, skipping media file {}", mediaFileId);
+            return false;
+        }
+    }
+
+    /**
+     * Deterministic S3 key of a variant: the original key without extension, the width and the format
+     */
+    public static String variantKey(String originalKey, int width, String extension) {
+        int slash = originalKey.lastIndexOf('/');
+        int dot = originalKey.lastIndexOf('.');
+        String base = dot > slash ? originalKey.substring(0, dot) : originalKey;
+        return base + "_w" + width + "." + extension;
+    }
+
+    /**
+     * Generate the missing variants of a media file
+     */
+    public void generate(Long mediaFileId) throws IOException {
+        MediaFile mediaFile = mediaFileRepository.findById(mediaFileId).orElse(null);
+        if (mediaFile == null || mediaFile.getMimeType() == null || !SUPPORTED_TYPES.contains(mediaFile.getMimeType())) {
+            return;
+        }
+
+        Set<Integer> existing = variantRepository.findByMediaFileIdOrderByWidthAsc(mediaFileId).stream()
+                .map(MediaFileVariant::getWidth)
+                .collect(Collectors.toSet());
+
+        try (ResponseInputStream<GetObjectResponse> content = s3Client.getObject(request -> request
+                .bucket(bucketName)
+                .key(mediaFile.getFilename()));
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.debug("No image reader for media file {} ({})", mediaFileId, mediaFile.getMimeType());
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Counting GIF frames needs to search the stream, everything else is read forward only
+                boolean gif = "image/gif".equals(mediaFile.getMimeType());
+                reader.setInput(input, !gif, false);
+                if (gif && reader.getNumImages(true) > 1) {
+                    log.debug("Media file {} is an animated GIF, skipping variants", mediaFileId);
+                    return;
+                }
+                int orientation = ExifOrientation.read(reader.getImageMetadata(0));
+                boolean swap = ExifOrientation.swapsDimensions(orientation);
+                int storedWidth = reader.getWidth(0);
+                int storedHeight = reader.getHeight(0);
+                int width = swap ? storedHeight : storedWidth;
+                int height = swap ? storedWidth : storedHeight;
+
+                if (mediaFile.getWidth() == null || mediaFile.getHeight() == null) {
+                    mediaFile.setWidth(width);
+                    mediaFile.setHeight(height);
+                    mediaFileRepository.save(mediaFile);
+                }
+                if ((long) width * height > maxSourcePixels) {
+                    log.warn("Media file {} is {}x{}, above the variant source limit", mediaFileId, width, height);
+                    return;
+                }
+
+                int[] targets = Arrays.stream(widths)
+                        .filter(target -> target > 0 && target < width && !existing.contains(target))
+                        .boxed()
+                        .sorted((a, b) -> b - a)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                if (targets.length == 0) {
+                    return;
+                }
+
+                // Decode at no more than twice the largest target
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / (targets[0] * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = ExifOrientation.apply(reader.read(0, param), orientation);
+
+                boolean alpha = image.getColorModel().hasAlpha();
+                for (int target : targets) {
+                    image = resize(image, target);
+                    store(mediaFile, image, alpha);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        // Only this file and its organization's list carry the variants
+        Cache cache = cacheManager.getCache("media");
+        if (cache != null) {
+            cache.evict(mediaFileId);
+            cache.evict("org_" + mediaFile.getOrganizationId());
+        }
+        log.info("Generated image variants for media file {}", mediaFileId);
+    }
+
+    private void store(MediaFile mediaFile, BufferedImage image, boolean alpha) throws IOException {
+        String mimeType = alpha ? "image/png" : "image/jpeg";
+        String key = variantKey(mediaFile.getFilename(), image.getWidth(), alpha ? "png" : "jpg");
+        byte[] encoded = alpha ? encodePng(image) : encodeJpeg(image);
+
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(mimeType)
+                        .cacheControl("public, max-age=31536000")
+                        .build(),
+                RequestBody.fromBytes(encoded));
+
+        try {
+            variantRepository.save(MediaFileVariant.builder()
+                    .mediaFileId(mediaFile.getId())
+                    .width(image.getWidth())
+                    .height(image.getHeight())
+                    .mimeType(mimeType)
+                    .s3Key(key)
+                    .filePath(baseUrl + "/" + key)
+                    .fileSize((long) encoded.length)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Generated concurrently, the object under the same key was just overwritten
+            log.debug("Variant {} of media file {} already recorded", key, mediaFile.getId());
+        }
+    }
+
+    /**
+     * Scale down to the target width, halving first while the image is more than twice as wide
+     */
+    private BufferedImage resize(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = draw(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == targetWidth ? current : draw(current, targetWidth);
+    }
+
+    private BufferedImage draw(BufferedImage image, int width) {
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage result = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+}
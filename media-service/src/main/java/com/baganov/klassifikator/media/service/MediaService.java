@@ -6,11 +6,15 @@
  */
 package com.baganov.klassifikator.media.service;
 
+import com.baganov.klassifikator.media.model.dto.DirectUploadRequestDto;
+import com.baganov.klassifikator.media.model.dto.DirectUploadSlotDto;
 import com.baganov.klassifikator.media.model.dto.MediaFileDto;
 import com.baganov.klassifikator.media.model.dto.UploadResponseDto;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public interface MediaService {
 
@@ -20,10 +24,34 @@ public interface MediaService {
 
     List<MediaFileDto> getFilesByOrganization(Long organizationId);
 
+    /**
+     * Resolve many media files at once; ids that do not exist are left out
+     *
+     * @return files by id, in the order of the requested ids
+     */
+    Map<Long, MediaFileDto> getFilesByIds(List<Long> ids);
+
     String getFileUrl(Long fileId);
 
     void deleteFile(Long id);
 
     UploadResponseDto uploadFromUrl(String imageUrl, Long organizationId, String imageName);
+
+    /**
+     * Reserve a key and return a presigned URL the client uploads the file to directly
+     */
+    DirectUploadSlotDto requestDirectUpload(DirectUploadRequestDto request);
+
+    /**
+     * Verify a direct upload in storage and record it as a media file
+     */
+    UploadResponseDto confirmDirectUpload(UUID uploadId);
+
+    /**
+     * Queue generation of missing resized variants for an existing file
+     *
+     * @return false if the generation queue is full
+     */
+    boolean generateVariants(Long id);
 }
 
@@ -0,0 +1,265 @@
+/**
+ * @file: RemoteImageFetcher.java
+ * @description: Pooled asynchronous HTTP fetcher for remote images with size, time and per-host limits
+ * @dependencies: Java HttpClient
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.media.util.MediaTypeDetector;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * All remote image downloads share one HTTP client and its connection pool:
+ * - a download needs a global permit and a permit of its host, so one slow host can only hold
+ *   max-per-host of the max-concurrent download slots;
+ * - connect timeout, and a total timeout covering the body, after which the exchange is cancelled;
+ * - the body is rejected as soon as Content-Length or the received bytes exceed the size limit;
+ * - the type is taken from the content signature, content that is not an image is rejected.
+ */
+@Slf4j
+@Service
+public class RemoteImageFetcher {
+
+    @Value("${media.fetch.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${media.fetch.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Value("${media.fetch.max-size-mb:20}")
+    private int maxSizeMb;
+
+    @Value("${media.fetch.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${media.fetch.max-per-host:4}")
+    private int maxPerHost;
+
+    @Value("${media.fetch.permit-timeout-ms:30000}")
+    private long permitTimeoutMs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private HttpClient httpClient;
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Downloaded image
+     *
+     * @param status HTTP status, 304 if the validators matched
+     * @param content Image bytes, null for 304
+     * @param contentType Type detected from the content
+     * @param contentHash SHA-256 of the content
+     */
+    public record FetchedImage(int status, byte[] content, String contentType, String contentHash,
+                               String etag, String lastModified) {
+
+        public boolean notModified() {
+            return status == 304;
+        }
+    }
+
+    /**
+     * Download an image, conditionally if validators of a previous download are given.
+     * Waits for a download slot on the calling thread, the download itself runs asynchronously.
+     *
+     * @param etag ETag of the previous download or null
+     * @param lastModified Last-Modified of the previous download or null
+     */
+    public CompletableFuture<FetchedImage> fetch(String imageUrl, String etag, String lastModified) {
+        URI uri;
+        try {
+            uri = URI.create(imageUrl.trim().replace(" ", "%20"));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new IOException("Invalid image URL: " + imageUrl, e));
+        }
+        if (uri.getHost() == null || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+            return CompletableFuture.failedFuture(new IOException("Only http(s) image URLs are supported: " + imageUrl));
+        }
+
+        String host = uri.getHost().toLowerCase();
+        Semaphore hostPermit = hostPermits.computeIfAbsent(host, h -> new Semaphore(Math.max(1, maxPerHost)));
+        try {
+            if (!hostPermit.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new IOException("Too many downloads from " + host));
+            }
+            if (!permits.tryAcquire(permitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                hostPermit.release();
+                return CompletableFuture.failedFuture(new IOException("Too many image downloads in progress"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Accept", "image/*")
+                .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        long maxBytes = (long) maxSizeMb * 1024 * 1024;
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request.build(),
+                info -> info.statusCode() >= 200 && info.statusCode() < 300
+                        ? new LimitedBodySubscriber(maxBytes, info.headers().firstValueAsLong("Content-Length").orElse(-1))
+                        : HttpResponse.BodySubscribers.replacing(null));
+
+        return exchange
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((response, error) -> {
+                    permits.release();
+                    hostPermit.release();
+                    if (error instanceof TimeoutException) {
+                        exchange.cancel(true);
+                    }
+                })
+                .thenApply(response -> toImage(imageUrl, response));
+    }
+
+    private FetchedImage toImage(String imageUrl, HttpResponse<byte[]> response) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+        if (response.statusCode() == 304) {
+            return new FetchedImage(304, null, null, null, etag, lastModified);
+        }
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IllegalStateException("Unexpected HTTP status " + response.statusCode());
+        }
+
+        byte[] content = response.body();
+        String contentType = MediaTypeDetector.detect(content,
+                Math.min(content.length, MediaTypeDetector.SNIFF_LENGTH),
+                response.headers().firstValue("Content-Type").orElse(null),
+                URI.create(imageUrl.trim().replace(" ", "%20")).getPath());
+        if (!contentType.startsWith("image/")) {
+            throw new IllegalStateException("URL does not point to an image (" + contentType + ")");
+        }
+
+        return new FetchedImage(response.statusCode(), content, contentType, sha256Hex(content), etag, lastModified);
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Collects the body up to a size limit and fails as soon as the limit is exceeded
+     */
+    private static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final long maxBytes;
+        private final long declaredLength;
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private ByteArrayOutputStream buffer;
+        private Flow.Subscription subscription;
+
+        private LimitedBodySubscriber(long maxBytes, long declaredLength) {
+            this.maxBytes = maxBytes;
+            this.declaredLength = declaredLength;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (declaredLength > maxBytes) {
+                subscription.cancel();
+                body.completeExceptionally(tooLarge());
+                return;
+            }
+            buffer = new ByteArrayOutputStream(declaredLength > 0 ? (int) declaredLength : 64 * 1024);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer item : items) {
+                if (buffer.size() + (long) item.remaining() > maxBytes) {
+                    subscription.cancel();
+                    body.completeExceptionally(tooLarge());
+                    return;
+                }
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                buffer.write(chunk, 0, chunk.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!body.isDone()) {
+                body.complete(buffer.toByteArray());
+            }
+        }
+
+        private IOException tooLarge() {
+            return new IOException("Image is larger than " + maxBytes / (1024 * 1024) + " MB");
+        }
+    }
+}
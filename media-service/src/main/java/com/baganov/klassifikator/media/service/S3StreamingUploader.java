@@ -0,0 +1,231 @@
+/**
+ * @file: S3StreamingUploader.java
+ * @description: Streams uploads to S3, switching to parallel multipart upload for large content
+ * @dependencies: AWS SDK
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.media.util.MediaTypeDetector;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Content is never held in heap as a whole:
+ * - content of known size below the multipart threshold is streamed to a single PUT;
+ * - larger or unknown-size content is read part by part and sent with S3 multipart upload, several parts
+ *   in parallel. A part buffer is only allocated once a permit is free, so an upload holds at most
+ *   parallel-parts buffers of part-size bytes. A failed upload is aborted so no parts are left behind.
+ * The MIME type is sniffed from the first bytes and must be an allowed upload type, otherwise nothing is
+ * stored; the size is the number of bytes actually stored.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3StreamingUploader {
+
+    private static final int MIN_PART_SIZE_MB = 5;
+
+    private final S3Client s3Client;
+
+    @Value("${s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${s3.upload.multipart-threshold-mb:16}")
+    private int multipartThresholdMb;
+
+    @Value("${s3.upload.part-size-mb:8}")
+    private int partSizeMb;
+
+    @Value("${s3.upload.parallel-parts:3}")
+    private int parallelParts;
+
+    private final ExecutorService partExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+
+    /**
+     * Stored object
+     *
+     * @param key S3 key
+     * @param size Bytes stored
+     * @param contentType Detected MIME type
+     */
+    public record StoredObject(String key, long size, String contentType) {
+    }
+
+    /**
+     * Upload content under the given key; the stream is read to the end but not closed
+     *
+     * @param contentLength content size if known, -1 otherwise
+     * @param declaredType Content-Type sent by the client, only reported when the content is rejected
+     * @param fileName original file name, only reported when the content is rejected
+     */
+    public StoredObject upload(String key, InputStream input, long contentLength,
+                               String declaredType, String fileName) throws IOException {
+        if (contentLength >= 0 && contentLength < (long) multipartThresholdMb * 1024 * 1024) {
+            return putSingle(key, input, contentLength, declaredType, fileName);
+        }
+        return putMultipart(key, input, declaredType, fileName);
+    }
+
+    private StoredObject putSingle(String key, InputStream input, long contentLength,
+                                   String declaredType, String fileName) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        buffered.mark(MediaTypeDetector.SNIFF_LENGTH);
+        byte[] head = buffered.readNBytes(MediaTypeDetector.SNIFF_LENGTH);
+        buffered.reset();
+
+        String contentType = allowedType(head, head.length, declaredType, fileName);
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(contentLength)
+                        .build(),
+                RequestBody.fromInputStream(buffered, contentLength));
+
+        return new StoredObject(key, contentLength, contentType);
+    }
+
+    private StoredObject putMultipart(String key, InputStream input, String declaredType, String fileName) throws IOException {
+        int partSize = Math.max(MIN_PART_SIZE_MB, partSizeMb) * 1024 * 1024;
+        Semaphore buffers = new Semaphore(Math.max(1, parallelParts));
+
+        acquire(buffers);
+        byte[] first = new byte[partSize];
+        int firstLength = input.readNBytes(first, 0, partSize);
+        String contentType = allowedType(first, firstLength, declaredType, fileName);
+
+        if (firstLength < partSize) {
+            // Whole content fits into one part, a plain PUT is cheaper
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .contentType(contentType)
+                            .contentLength((long) firstLength)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(first, 0, firstLength), firstLength));
+            buffers.release();
+            return new StoredObject(key, firstLength, contentType);
+        }
+
+        String uploadId = s3Client.createMultipartUpload(request -> request
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)).uploadId();
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            byte[] buffer = first;
+            int length = firstLength;
+            while (true) {
+                size += length;
+                parts.add(uploadPart(key, uploadId, parts.size() + 1, buffer, length, buffers));
+                if (length < partSize) {
+                    break;
+                }
+
+                acquire(buffers);
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    buffers.release();
+                    break;
+                }
+                buffer = new byte[partSize];
+                length = input.readNBytes(buffer, 0, partSize);
+                if (length == 0) {
+                    buffers.release();
+                    break;
+                }
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(request -> request
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completed)));
+
+            log.debug("Uploaded {} in {} parts, {} bytes", key, completed.size(), size);
+            return new StoredObject(key, size, contentType);
+        } catch (IOException | RuntimeException e) {
+            parts.forEach(part -> part.cancel(true));
+            abort(key, uploadId);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String allowedType(byte[] head, int length, String declaredType, String fileName) {
+        String contentType = MediaTypeDetector.detectAllowed(head, length);
+        if (contentType == null) {
+            throw new RuntimeException("File type is not allowed: " + fileName + " (" + declaredType + ")");
+        }
+        return contentType;
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String key, String uploadId, int partNumber,
+                                                        byte[] buffer, int length, Semaphore buffers) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String etag = s3Client.uploadPart(request -> request
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(etag).build();
+            } finally {
+                buffers.release();
+            }
+        }, partExecutor);
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucketName).key(key).uploadId(uploadId));
+        } catch (Exception e) {
+            log.error("Failed to abort multipart upload {} of {}", uploadId, key, e);
+        }
+    }
+
+    private void acquire(Semaphore buffers) throws IOException {
+        try {
+            buffers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an upload buffer");
+        }
+    }
+}
@@ -6,19 +6,40 @@
  */
 package com.baganov.klassifikator.media.service.impl;
 
+import com.baganov.klassifikator.common.config.CacheConfig;
 import com.baganov.klassifikator.common.model.entity.MediaFile;
+import com.baganov.klassifikator.common.model.entity.MediaFileVariant;
+import com.baganov.klassifikator.common.model.entity.MediaSource;
+import com.baganov.klassifikator.common.model.entity.MediaUploadSlot;
+import com.baganov.klassifikator.media.event.MediaFileStoredEvent;
 import com.baganov.klassifikator.media.mapper.MediaFileMapper;
+import com.baganov.klassifikator.media.model.dto.DirectUploadRequestDto;
+import com.baganov.klassifikator.media.model.dto.DirectUploadSlotDto;
 import com.baganov.klassifikator.media.model.dto.MediaFileDto;
 import com.baganov.klassifikator.media.model.dto.UploadResponseDto;
 import com.baganov.klassifikator.media.repository.MediaFileRepository;
+import com.baganov.klassifikator.media.repository.MediaFileVariantRepository;
+import com.baganov.klassifikator.media.repository.MediaSourceRepository;
+import com.baganov.klassifikator.media.repository.MediaUploadSlotRepository;
+import com.baganov.klassifikator.media.service.DirectUploadService;
+import com.baganov.klassifikator.media.service.ImageVariantService;
 import com.baganov.klassifikator.media.service.MediaService;
+import com.baganov.klassifikator.media.service.RemoteImageFetcher;
+import com.baganov.klassifikator.media.service.RemoteImageFetcher.FetchedImage;
+import com.baganov.klassifikator.media.service.S3StreamingUploader;
+import com.baganov.klassifikator.media.service.S3StreamingUploader.StoredObject;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -26,8 +47,18 @@ import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -37,6 +68,19 @@ public class MediaServiceImpl implements MediaService {
     private final MediaFileRepository mediaFileRepository;
     private final MediaFileMapper mediaFileMapper;
     private final S3Client s3Client;
+    private final MediaSourceRepository mediaSourceRepository;
+    private final S3StreamingUploader s3Uploader;
+    private final MediaFileVariantRepository variantRepository;
+    private final ImageVariantService imageVariantService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RemoteImageFetcher imageFetcher;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final DirectUploadService directUploadService;
+    private final MediaUploadSlotRepository uploadSlotRepository;
+
+    private static final String MEDIA_CACHE = "media";
+    private static final ObjectMapper CACHE_MAPPER = CacheConfig.cacheObjectMapper();
 
     @Value("${s3.bucket-name}")
     private String bucketName;
@@ -46,14 +90,12 @@ public class MediaServiceImpl implements MediaService {
 
     @Override
     @Transactional
-    @CacheEvict(value = "media", allEntries = true)
+    @CacheEvict(value = "media", key = "'org_' + #organizationId")
     public UploadResponseDto uploadFile(MultipartFile file, Long organizationId) {
         log.info("Uploading file {} for organization {}", file.getOriginalFilename(), organizationId);
 
-        try {
+        try (InputStream content = file.getInputStream()) {
             String fileName = file.getOriginalFilename();
-            String fileType = file.getContentType();
-            Long fileSize = file.getSize();
 
             // Generate unique S3 key
             String s3Key = String.format("organizations/%d/%s_%s",
@@ -61,14 +103,10 @@ public class MediaServiceImpl implements MediaService {
                     UUID.randomUUID(),
                     fileName);
 
-            // Upload to S3
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(s3Key)
-                    .contentType(fileType)
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            // Stream to S3; the multipart file is spooled to disk, so the content never sits in heap as a whole
+            StoredObject stored = s3Uploader.upload(s3Key, content, file.getSize(), file.getContentType(), fileName);
+            String fileType = stored.contentType();
+            Long fileSize = stored.size();
 
             // Save metadata to database
             MediaFile mediaFile = new MediaFile();
@@ -80,6 +118,7 @@ public class MediaServiceImpl implements MediaService {
             mediaFile.setFileSize(fileSize);
 
             MediaFile saved = mediaFileRepository.save(mediaFile);
+            eventPublisher.publishEvent(new MediaFileStoredEvent(saved.getId()));
 
             log.info("Successfully uploaded file with id {}", saved.getId());
 
@@ -98,14 +137,15 @@ public class MediaServiceImpl implements MediaService {
     }
 
     @Override
-    @Cacheable(value = "media", key = "#id")
     public MediaFileDto getFileById(Long id) {
         log.debug("Fetching media file with id {}", id);
 
-        MediaFile mediaFile = mediaFileRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Media file not found with id: " + id));
-
-        return mediaFileMapper.toDto(mediaFile);
+        // Same cache entry as the batch lookup, read through the typed conversion there
+        MediaFileDto mediaFile = getFilesByIds(List.of(id)).get(id);
+        if (mediaFile == null) {
+            throw new RuntimeException("Media file not found with id: " + id);
+        }
+        return mediaFile;
     }
 
     @Override
@@ -114,118 +154,324 @@ public class MediaServiceImpl implements MediaService {
         log.debug("Fetching media files for organization {}", organizationId);
 
         List<MediaFile> files = mediaFileRepository.findByOrganizationId(organizationId);
-        return mediaFileMapper.toDtoList(files);
+        List<MediaFileDto> dtos = mediaFileMapper.toDtoList(files);
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+
+        Map<Long, List<MediaFileVariant>> variantsByFile = variantRepository
+                .findByMediaFileIdInOrderByWidthAsc(files.stream().map(MediaFile::getId).toList()).stream()
+                .collect(Collectors.groupingBy(MediaFileVariant::getMediaFileId));
+        dtos.forEach(dto -> withVariants(dto, variantsByFile.getOrDefault(dto.getId(), List.of())));
+        return dtos;
+    }
+
+    @Override
+    public boolean generateVariants(Long id) {
+        log.info("Queueing image variants for media file {}", id);
+
+        if (!mediaFileRepository.existsById(id)) {
+            throw new RuntimeException("Media file not found with id: " + id);
+        }
+        return imageVariantService.submit(id);
+    }
+
+    @Override
+    public DirectUploadSlotDto requestDirectUpload(DirectUploadRequestDto request) {
+        log.info("Creating direct upload slot for {} ({} bytes) of organization {}",
+                request.getFileName(), request.getFileSize(), request.getOrganizationId());
+        return directUploadService.createSlot(request);
+    }
+
+    @Override
+    public UploadResponseDto confirmDirectUpload(UUID uploadId) {
+        log.info("Confirming direct upload {}", uploadId);
+
+        MediaUploadSlot slot = uploadSlotRepository.findById(uploadId)
+                .orElseThrow(() -> new RuntimeException("Upload not found or already confirmed: " + uploadId));
+
+        // Storage is checked before a database connection is taken
+        StoredObject stored = directUploadService.verify(slot);
+
+        MediaFile saved = transactionTemplate.execute(status -> {
+            if (uploadSlotRepository.claim(uploadId) == 0) {
+                throw new RuntimeException("Upload not found or already confirmed: " + uploadId);
+            }
+
+            MediaFile mediaFile = new MediaFile();
+            mediaFile.setOrganizationId(slot.getOrganizationId());
+            mediaFile.setFilename(stored.key());
+            mediaFile.setOriginalFilename(slot.getOriginalFilename());
+            mediaFile.setFilePath(baseUrl + "/" + stored.key());
+            mediaFile.setMimeType(stored.contentType());
+            mediaFile.setFileSize(stored.size());
+
+            MediaFile file = mediaFileRepository.save(mediaFile);
+            eventPublisher.publishEvent(new MediaFileStoredEvent(file.getId()));
+            return file;
+        });
+        evictCached(saved);
+
+        log.info("Successfully recorded direct upload {} as media file {}", uploadId, saved.getId());
+        return toUploadResponse(saved, "File uploaded successfully");
+    }
+
+    /**
+     * Files already cached by id are served from the cache, the rest are loaded with one query for the files
+     * and one for their variants and put into the cache by id.
+     */
+    @Override
+    public Map<Long, MediaFileDto> getFilesByIds(List<Long> ids) {
+        log.debug("Resolving {} media files", ids.size());
+
+        Cache cache = cacheManager.getCache(MEDIA_CACHE);
+        Map<Long, MediaFileDto> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            MediaFileDto cached = cachedFile(cache, id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<MediaFile> files = mediaFileRepository.findAllById(missing);
+            Map<Long, List<MediaFileVariant>> variantsByFile = files.isEmpty() ? Map.of() : variantRepository
+                    .findByMediaFileIdInOrderByWidthAsc(files.stream().map(MediaFile::getId).toList()).stream()
+                    .collect(Collectors.groupingBy(MediaFileVariant::getMediaFileId));
+            for (MediaFile file : files) {
+                MediaFileDto dto = mediaFileMapper.toDto(file);
+                withVariants(dto, variantsByFile.getOrDefault(file.getId(), List.of()));
+                found.put(file.getId(), dto);
+                if (cache != null) {
+                    cache.put(file.getId(), dto);
+                }
+            }
+        }
+
+        Map<Long, MediaFileDto> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            MediaFileDto dto = found.get(id);
+            if (dto != null) {
+                result.put(id, dto);
+            }
+        }
+        return result;
     }
 
     @Override
     public String getFileUrl(Long fileId) {
         log.debug("Getting URL for file {}", fileId);
 
-        MediaFile mediaFile = mediaFileRepository.findById(fileId)
-                .orElseThrow(() -> new RuntimeException("Media file not found with id: " + fileId));
-
-        return mediaFile.getFilePath();
+        return getFileById(fileId).getFilePath();
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "media", allEntries = true)
     public void deleteFile(Long id) {
         log.info("Deleting media file with id {}", id);
 
         MediaFile mediaFile = mediaFileRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Media file not found with id: " + id));
 
-        // Delete from S3
-        try {
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(mediaFile.getFilename())
-                    .build();
-
-            s3Client.deleteObject(deleteObjectRequest);
-        } catch (Exception e) {
-            log.error("Failed to delete file from S3: {}", mediaFile.getFilename(), e);
+        // Delete from S3, variants first; their rows go with the file row
+        List<String> keys = new ArrayList<>();
+        variantRepository.findByMediaFileIdOrderByWidthAsc(id).forEach(variant -> keys.add(variant.getS3Key()));
+        keys.add(mediaFile.getFilename());
+        for (String key : keys) {
+            try {
+                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build();
+
+                s3Client.deleteObject(deleteObjectRequest);
+            } catch (Exception e) {
+                log.error("Failed to delete file from S3: {}", key, e);
+            }
         }
 
         // Delete from database
         mediaFileRepository.deleteById(id);
+        evictCached(mediaFile);
         log.info("Successfully deleted media file with id {}", id);
     }
 
+    /**
+     * Upload image from URL with content-addressed deduplication.
+     * A known URL is re-fetched conditionally (If-None-Match / If-Modified-Since); on 304 the existing file is reused.
+     * Downloaded content is hashed and an existing file of the organization with the same SHA-256 is reused,
+     * so only new content creates an S3 object and a media_files row.
+     * The download and the S3 upload run outside of any transaction, a database connection is only taken
+     * for the short lookups and the final save.
+     */
     @Override
-    @Transactional
-    @CacheEvict(value = "media", allEntries = true)
+    @CacheEvict(value = "media", key = "'org_' + #organizationId")
     public UploadResponseDto uploadFromUrl(String imageUrl, Long organizationId, String imageName) {
         log.info("Uploading image from URL {} for organization {}", imageUrl, organizationId);
 
         try {
-            // Download image from URL
-            java.net.URL url = new java.net.URL(imageUrl);
-            java.io.InputStream inputStream = url.openStream();
-            byte[] imageBytes = inputStream.readAllBytes();
-            inputStream.close();
-
-            // Determine file type from URL or content
-            String fileType = "image/jpeg"; // default
-            if (imageUrl.toLowerCase().endsWith(".png")) {
-                fileType = "image/png";
-            } else if (imageUrl.toLowerCase().endsWith(".gif")) {
-                fileType = "image/gif";
-            } else if (imageUrl.toLowerCase().endsWith(".webp")) {
-                fileType = "image/webp";
-            }
+            Optional<MediaSource> knownSource = mediaSourceRepository.findByOrganizationIdAndSourceUrl(organizationId, imageUrl);
+            Optional<MediaFile> knownFile = knownSource.flatMap(source -> mediaFileRepository.findById(source.getMediaFileId()));
+
+            // Download image from URL, conditionally if we already have it
+            FetchedImage image = fetch(imageUrl,
+                    knownFile.isPresent() ? knownSource.get().getEtag() : null,
+                    knownFile.isPresent() ? knownSource.get().getLastModified() : null);
 
-            // Extract filename from URL or use provided name
-            String fileName = imageName;
-            if (!fileName.contains(".")) {
-                String extension = imageUrl.substring(imageUrl.lastIndexOf("."));
-                if (extension.length() > 5) {
-                    extension = ".jpg";
+            if (image.notModified()) {
+                if (knownFile.isEmpty()) {
+                    throw new RuntimeException("Unexpected HTTP status 304");
                 }
-                fileName = fileName + extension;
+                MediaSource source = knownSource.get();
+                source.setCheckedAt(LocalDateTime.now());
+                mediaSourceRepository.save(source);
+
+                log.info("Image from URL not modified, reusing media file {}", knownFile.get().getId());
+                return toUploadResponse(knownFile.get(), "Image not modified, existing file reused");
             }
 
-            // Generate unique S3 key
-            String s3Key = String.format("organizations/%d/%s_%s",
-                    organizationId,
-                    UUID.randomUUID(),
-                    fileName);
+            MediaFile existing = mediaFileRepository
+                    .findFirstByOrganizationIdAndContentHashOrderByIdAsc(organizationId, image.contentHash())
+                    .orElse(null);
+            boolean reused = existing != null;
+
+            // Same content always maps to the same S3 key, so a concurrent upload only overwrites identical bytes
+            String fileName = imageFileName(imageUrl, imageName);
+            String s3Key = String.format("organizations/%d/%s_%s", organizationId, image.contentHash(), fileName);
+            if (!reused) {
+                s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(s3Key)
+                                .contentType(image.contentType())
+                                .build(),
+                        RequestBody.fromBytes(image.content()));
+            }
 
-            // Upload to S3
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(s3Key)
-                    .contentType(fileType)
-                    .build();
+            MediaFile mediaFile = transactionTemplate.execute(status -> {
+                MediaFile file = reused ? existing : mediaFileRepository
+                        .findFirstByOrganizationIdAndContentHashOrderByIdAsc(organizationId, image.contentHash())
+                        .orElseGet(() -> storeImage(organizationId, s3Key, fileName, image));
+
+                // Remember validators for the next conditional fetch
+                MediaSource source = knownSource.orElseGet(() -> MediaSource.builder()
+                        .organizationId(organizationId)
+                        .sourceUrl(imageUrl)
+                        .build());
+                source.setMediaFileId(file.getId());
+                source.setContentHash(image.contentHash());
+                source.setEtag(image.etag());
+                source.setLastModified(image.lastModified());
+                source.setCheckedAt(LocalDateTime.now());
+                mediaSourceRepository.save(source);
+                return file;
+            });
+
+            if (reused) {
+                log.info("Image from URL has known content, reusing media file {}", mediaFile.getId());
+                return toUploadResponse(mediaFile, "Image content unchanged, existing file reused");
+            }
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(imageBytes));
+            log.info("Successfully uploaded image from URL with id {}", mediaFile.getId());
+            return toUploadResponse(mediaFile, "Image uploaded successfully from URL");
 
-            // Save metadata to database
-            MediaFile mediaFile = new MediaFile();
-            mediaFile.setOrganizationId(organizationId);
-            mediaFile.setFilename(s3Key);
-            mediaFile.setOriginalFilename(fileName);
-            mediaFile.setFilePath(baseUrl + "/" + s3Key);
-            mediaFile.setMimeType(fileType);
-            mediaFile.setFileSize((long) imageBytes.length);
+        } catch (Exception e) {
+            log.error("Failed to upload image from URL for organization {}", organizationId, e);
+            throw new RuntimeException("Failed to upload image from URL: " + e.getMessage());
+        }
+    }
 
-            MediaFile saved = mediaFileRepository.save(mediaFile);
+    private FetchedImage fetch(String imageUrl, String etag, String lastModified) throws Exception {
+        try {
+            return imageFetcher.fetch(imageUrl, etag, lastModified).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
 
-            log.info("Successfully uploaded image from URL with id {}", saved.getId());
+    /**
+     * Provided name with the extension of the URL, if the name has none
+     */
+    private String imageFileName(String imageUrl, String imageName) {
+        if (imageName.contains(".")) {
+            return imageName;
+        }
+        String extension = imageUrl.substring(imageUrl.lastIndexOf("."));
+        if (extension.length() > 5) {
+            extension = ".jpg";
+        }
+        return imageName + extension;
+    }
 
-            return UploadResponseDto.builder()
-                    .fileId(saved.getId())
-                    .fileName(fileName)
-                    .fileUrl(saved.getFilePath())
-                    .fileSize((long) imageBytes.length)
-                    .message("Image uploaded successfully from URL")
-                    .build();
+    /**
+     * Save metadata of image content already put to S3
+     */
+    private MediaFile storeImage(Long organizationId, String s3Key, String fileName, FetchedImage image) {
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setOrganizationId(organizationId);
+        mediaFile.setFilename(s3Key);
+        mediaFile.setOriginalFilename(fileName);
+        mediaFile.setFilePath(baseUrl + "/" + s3Key);
+        mediaFile.setMimeType(image.contentType());
+        mediaFile.setFileSize((long) image.content().length);
+        mediaFile.setContentHash(image.contentHash());
+
+        MediaFile saved = mediaFileRepository.save(mediaFile);
+        eventPublisher.publishEvent(new MediaFileStoredEvent(saved.getId()));
+        return saved;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to upload image from URL for organization {}", organizationId, e);
-            throw new RuntimeException("Failed to upload image from URL: " + e.getMessage());
+    /**
+     * Attach variants and a srcset covering them and the original, if its width is known
+     */
+    private void withVariants(MediaFileDto dto, List<MediaFileVariant> variants) {
+        dto.setVariants(variants.stream().map(mediaFileMapper::toVariantDto).toList());
+        if (variants.isEmpty()) {
+            return;
+        }
+
+        StringBuilder srcset = new StringBuilder();
+        for (MediaFileVariant variant : variants) {
+            srcset.append(variant.getFilePath()).append(' ').append(variant.getWidth()).append("w, ");
+        }
+        if (dto.getWidth() != null) {
+            srcset.append(dto.getFilePath()).append(' ').append(dto.getWidth()).append("w, ");
+        }
+        dto.setSrcset(srcset.substring(0, srcset.length() - 2));
+    }
+
+    /**
+     * Cached file by id. The Redis value serializer writes no type information, so the entry is read untyped
+     * (it comes back as a map) and converted with the mapper that wrote it.
+     */
+    private MediaFileDto cachedFile(Cache cache, Long id) {
+        Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+        if (cached == null || cached.get() == null) {
+            return null;
+        }
+        return CACHE_MAPPER.convertValue(cached.get(), MediaFileDto.class);
+    }
+
+    /**
+     * Evict the cached file and the cached file list of its organization
+     */
+    private void evictCached(MediaFile mediaFile) {
+        Cache cache = cacheManager.getCache(MEDIA_CACHE);
+        if (cache != null) {
+            cache.evict(mediaFile.getId());
+            cache.evict("org_" + mediaFile.getOrganizationId());
         }
     }
-}
 
+    private UploadResponseDto toUploadResponse(MediaFile mediaFile, String message) {
+        return UploadResponseDto.builder()
+                .fileId(mediaFile.getId())
+                .fileName(mediaFile.getOriginalFilename())
+                .fileUrl(mediaFile.getFilePath())
+                .fileSize(mediaFile.getFileSize())
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * @file: MediaTypeDetector.java
+ * @description: Detects the MIME type of uploaded content from its leading bytes
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.util;
+
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Content is recognised by its signature first, the type declared by the client and the file name
+ * are only fallbacks, so a renamed or mislabeled file is stored with its real type.
+ * Uploads are limited to {@link #ALLOWED_TYPES}, checked against the signature: stored files are served
+ * from the bucket as they are, so HTML, SVG or anything else a browser might run must never get there.
+ */
+public final class MediaTypeDetector {
+
+    /**
+     * Number of leading bytes {@link #detect} looks at
+     */
+    public static final int SNIFF_LENGTH = 32;
+
+    /**
+     * Types accepted for upload: raster images, MP4 video and PDF
+     */
+    public static final Set<String> ALLOWED_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "image/avif", "image/heic",
+            "video/mp4", "application/pdf");
+
+    private static final String DEFAULT_TYPE = "application/octet-stream";
+
+    private MediaTypeDetector() {
+    }
+
+    /**
+     * @param head leading bytes of the content
+     * @param length number of valid bytes in head
+     * @param declaredType Content-Type sent by the client, may be null
+     * @param fileName original file name, may be null
+     */
+    public static String detect(byte[] head, int length, String declaredType, String fileName) {
+        String sniffed = sniff(head, length);
+        if (sniffed != null) {
+            return sniffed;
+        }
+        if (declaredType != null && !declaredType.isBlank() && !DEFAULT_TYPE.equals(declaredType)) {
+            return declaredType.split(";")[0].trim();
+        }
+        String guessed = fileName != null ? URLConnection.guessContentTypeFromName(fileName) : null;
+        return guessed != null ? guessed : DEFAULT_TYPE;
+    }
+
+    /**
+     * Type of content accepted for upload, recognised by its signature only
+     *
+     * @return the type, or null if the content is not of an allowed type
+     */
+    public static String detectAllowed(byte[] head, int length) {
+        String sniffed = sniff(head, length);
+        return sniffed != null && ALLOWED_TYPES.contains(sniffed) ? sniffed : null;
+    }
+
+    /**
+     * True if a declared Content-Type, without parameters, is one of {@link #ALLOWED_TYPES}
+     */
+    public static boolean isAllowed(String contentType) {
+        return contentType != null
+                && ALLOWED_TYPES.contains(contentType.split(";")[0].trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String sniff(byte[] b, int n) {
+        if (startsWith(b, n, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(b, n, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(b, n, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(b, n, 0, 'R', 'I', 'F', 'F') && startsWith(b, n, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(b, n, 4, 'f', 't', 'y', 'p')) {
+            String brand = n >= 12 ? new String(b, 8, 4, StandardCharsets.US_ASCII) : "";
+            if (brand.equals("avif") || brand.equals("avis")) {
+                return "image/avif";
+            }
+            if (brand.startsWith("hei") || brand.startsWith("hev") || brand.equals("mif1")) {
+                return "image/heic";
+            }
+            return "video/mp4";
+        }
+        if (startsWith(b, n, 0, '%', 'P', 'D', 'F')) {
+            return "application/pdf";
+        }
+        if (startsWith(b, n, 0, '<', 's', 'v', 'g')) {
+            return "image/svg+xml";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] b, int n, int offset, int... signature) {
+        if (n < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((b[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * @file: DirectUploadServiceTest.java
+ * @description: Regression tests for the content type and organization checks of direct uploads
+ * @dependencies: JUnit 5, Mockito, AssertJ, AWS SDK
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.common.model.entity.MediaUploadSlot;
+import com.baganov.klassifikator.media.model.dto.DirectUploadRequestDto;
+import com.baganov.klassifikator.media.repository.MediaUploadSlotRepository;
+import com.baganov.klassifikator.media.repository.OrganizationRepository;
+import com.baganov.klassifikator.media.service.S3StreamingUploader.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DirectUploadServiceTest {
+
+    private static final long ORGANIZATION_ID = 7L;
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D};
+    private static final byte[] HTML = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.US_ASCII);
+
+    @Mock
+    private S3Client s3Client;
+    @Mock
+    private S3Presigner s3Presigner;
+    @Mock
+    private MediaUploadSlotRepository slotRepository;
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @InjectMocks
+    private DirectUploadService directUploadService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(directUploadService, "bucketName", "media");
+        ReflectionTestUtils.setField(directUploadService, "urlTtlSeconds", 900L);
+        ReflectionTestUtils.setField(directUploadService, "maxSizeMb", 500L);
+        when(organizationRepository.findStatusById(ORGANIZATION_ID)).thenReturn(Optional.of("ACTIVE"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void slotForDisallowedContentTypeIsRefused() {
+        assertThatThrownBy(() -> directUploadService.createSlot(request("page.html", "text/html")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("not allowed");
+        assertThatThrownBy(() -> directUploadService.createSlot(request("logo.svg", "image/svg+xml")))
+                .hasMessageContaining("not allowed");
+
+        verify(s3Presigner, never()).presignPutObject(any(Consumer.class));
+        verify(slotRepository, never()).save(any());
+    }
+
+    @Test
+    void slotForUnknownOrInactiveOrganizationIsRefused() {
+        when(organizationRepository.findStatusById(8L)).thenReturn(Optional.empty());
+        when(organizationRepository.findStatusById(9L)).thenReturn(Optional.of("BLOCKED"));
+
+        DirectUploadRequestDto unknown = request("photo.png", "image/png");
+        unknown.setOrganizationId(8L);
+        DirectUploadRequestDto inactive = request("photo.png", "image/png");
+        inactive.setOrganizationId(9L);
+
+        assertThatThrownBy(() -> directUploadService.createSlot(unknown)).hasMessageContaining("not found");
+        assertThatThrownBy(() -> directUploadService.createSlot(inactive)).hasMessageContaining("not active");
+        verify(slotRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void uploadedObjectOfDisallowedTypeIsDeleted() {
+        MediaUploadSlot slot = slot("image/png");
+        stubObject(HTML, "image/png");
+
+        assertThatThrownBy(() -> directUploadService.verify(slot))
+                .hasMessageContaining("not of an allowed type");
+        verify(s3Client).deleteObject(any(Consumer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void uploadedImageIsRecordedWithItsSniffedType() {
+        MediaUploadSlot slot = slot("image/png");
+        stubObject(PNG, "image/png");
+
+        StoredObject stored = directUploadService.verify(slot);
+
+        assertThat(stored.contentType()).isEqualTo("image/png");
+        assertThat(stored.size()).isEqualTo(PNG.length);
+        verify(s3Client, never()).deleteObject(any(Consumer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubObject(byte[] content, String storedType) {
+        when(s3Client.headObject(any(Consumer.class))).thenReturn(HeadObjectResponse.builder()
+                .contentLength((long) content.length)
+                .contentType(storedType)
+                .build());
+        when(s3Client.getObjectAsBytes(any(Consumer.class)))
+                .thenReturn(ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), content));
+    }
+
+    private static MediaUploadSlot slot(String contentType) {
+        return MediaUploadSlot.builder()
+                .id(UUID.randomUUID())
+                .organizationId(ORGANIZATION_ID)
+                .s3Key("organizations/7/upload_photo.png")
+                .originalFilename("photo.png")
+                .contentType(contentType)
+                .fileSize(1024L)
+                .build();
+    }
+
+    private static DirectUploadRequestDto request(String fileName, String contentType) {
+        return DirectUploadRequestDto.builder()
+                .organizationId(ORGANIZATION_ID)
+                .fileName(fileName)
+                .contentType(contentType)
+                .fileSize(1024L)
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * @file: ImageVariantServiceTest.java
+ * @description: Regression tests for skipping variants of animated GIFs
+ * @dependencies: JUnit 5, Mockito, AssertJ, AWS SDK
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service;
+
+import com.baganov.klassifikator.common.model.entity.MediaFile;
+import com.baganov.klassifikator.media.repository.MediaFileRepository;
+import com.baganov.klassifikator.media.repository.MediaFileVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImageVariantServiceTest {
+
+    private static final long MEDIA_FILE_ID = 5L;
+
+    @Mock
+    private S3Client s3Client;
+    @Mock
+    private MediaFileRepository mediaFileRepository;
+    @Mock
+    private MediaFileVariantRepository variantRepository;
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageVariantService, "bucketName", "media");
+        ReflectionTestUtils.setField(imageVariantService, "baseUrl", "https://s3.example.com/media");
+        ReflectionTestUtils.setField(imageVariantService, "widths", new int[]{320});
+        ReflectionTestUtils.setField(imageVariantService, "jpegQuality", 0.82f);
+        ReflectionTestUtils.setField(imageVariantService, "maxSourcePixels", 50_000_000L);
+
+        MediaFile mediaFile = new MediaFile();
+        mediaFile.setId(MEDIA_FILE_ID);
+        mediaFile.setOrganizationId(7L);
+        mediaFile.setFilename("organizations/7/banner.gif");
+        mediaFile.setMimeType("image/gif");
+        when(mediaFileRepository.findById(MEDIA_FILE_ID)).thenReturn(Optional.of(mediaFile));
+        when(variantRepository.findByMediaFileIdOrderByWidthAsc(MEDIA_FILE_ID)).thenReturn(List.of());
+    }
+
+    @Test
+    void animatedGifGetsNoVariants() throws IOException {
+        stubObject(gif(3));
+
+        imageVariantService.generate(MEDIA_FILE_ID);
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(variantRepository, never()).save(any());
+    }
+
+    @Test
+    void stillGifGetsVariants() throws IOException {
+        stubObject(gif(1));
+
+        imageVariantService.generate(MEDIA_FILE_ID);
+
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubObject(byte[] content) {
+        when(s3Client.getObject(any(Consumer.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(), AbortableInputStream.create(new ByteArrayInputStream(content))));
+    }
+
+    private static byte[] gif(int frames) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < frames; i++) {
+                writer.writeToSequence(new IIOImage(new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB), null, null), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
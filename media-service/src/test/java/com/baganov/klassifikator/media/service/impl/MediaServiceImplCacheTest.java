@@ -0,0 +1,121 @@
+/**
+ * @file: MediaServiceImplCacheTest.java
+ * @description: Regression tests for reading media files back from the Redis cache
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.media.service.impl;
+
+import com.baganov.klassifikator.common.config.CacheConfig;
+import com.baganov.klassifikator.common.model.entity.MediaFile;
+import com.baganov.klassifikator.media.mapper.MediaFileMapper;
+import com.baganov.klassifikator.media.model.dto.MediaFileDto;
+import com.baganov.klassifikator.media.repository.MediaFileRepository;
+import com.baganov.klassifikator.media.repository.MediaFileVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MediaServiceImplCacheTest {
+
+    private static final long FILE_ID = 5L;
+    private static final String FILE_URL = "https://s3.example.com/media/organizations/7/photo.jpg";
+
+    @Mock
+    private MediaFileRepository mediaFileRepository;
+    @Mock
+    private MediaFileVariantRepository variantRepository;
+    @Mock
+    private MediaFileMapper mediaFileMapper;
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private MediaServiceImpl mediaService;
+
+    private final Cache mediaCache = redisLikeCache("media");
+    private final LocalDateTime uploadedAt = LocalDateTime.of(2026, 10, 19, 12, 30);
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache("media")).thenReturn(mediaCache);
+
+        MediaFile file = new MediaFile();
+        file.setId(FILE_ID);
+        file.setOrganizationId(7L);
+        file.setFilePath(FILE_URL);
+        when(mediaFileRepository.findAllById(anyList())).thenReturn(List.of(file));
+        when(variantRepository.findByMediaFileIdInOrderByWidthAsc(anyList())).thenReturn(List.of());
+        when(mediaFileMapper.toDto(any(MediaFile.class))).thenAnswer(invocation -> {
+            MediaFile mediaFile = invocation.getArgument(0);
+            return MediaFileDto.builder()
+                    .id(mediaFile.getId())
+                    .organizationId(mediaFile.getOrganizationId())
+                    .filePath(mediaFile.getFilePath())
+                    .uploadedAt(uploadedAt)
+                    .build();
+        });
+    }
+
+    @Test
+    void sameFileUrlIsServedFromCacheOnSecondRead() {
+        assertThat(mediaService.getFileUrl(FILE_ID)).isEqualTo(FILE_URL);
+        assertThat(mediaService.getFileUrl(FILE_ID)).isEqualTo(FILE_URL);
+
+        verify(mediaFileRepository, times(1)).findAllById(anyList());
+    }
+
+    @Test
+    void cachedFileIsReadBackAsDto() {
+        mediaService.getFilesByIds(List.of(FILE_ID));
+
+        MediaFileDto cached = mediaService.getFileById(FILE_ID);
+        MediaFileDto batch = mediaService.getFilesByIds(List.of(FILE_ID)).get(FILE_ID);
+
+        assertThat(cached.getFilePath()).isEqualTo(FILE_URL);
+        assertThat(cached.getUploadedAt()).isEqualTo(uploadedAt);
+        assertThat(cached.getVariants()).isEmpty();
+        assertThat(batch).isEqualTo(cached);
+        verify(mediaFileRepository, times(1)).findAllById(anyList());
+    }
+
+    /**
+     * In-memory cache that round-trips values through the Redis value serializer, as RedisCache does
+     */
+    private static Cache redisLikeCache(String name) {
+        GenericJackson2JsonRedisSerializer serializer = CacheConfig.valueSerializer();
+        return new ConcurrentMapCache(name, new ConcurrentHashMap<>(), false) {
+            @Override
+            protected Object toStoreValue(Object userValue) {
+                return serializer.serialize(userValue);
+            }
+
+            @Override
+            protected Object fromStoreValue(Object storeValue) {
+                return storeValue == null ? null : serializer.deserialize((byte[]) storeValue);
+            }
+        };
+    }
+}
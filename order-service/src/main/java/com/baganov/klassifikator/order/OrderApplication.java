@@ -1,7 +1,7 @@
 /**
  * @file: OrderApplication.java
  * @description: Main application class for Order Service
- * @dependencies: Spring Boot, JPA, Redis
+ * @dependencies: Spring Boot, JPA, Redis, Scheduling
  * @created: 2025-11-03
  */
 package com.baganov.klassifikator.order;
@@ -11,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
         "com.baganov.klassifikator.order",
@@ -24,6 +25,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
         "com.baganov.klassifikator.common.model.entity"
 })
 @EnableCaching
+@EnableScheduling
 public class OrderApplication {
 
     public static void main(String[] args) {
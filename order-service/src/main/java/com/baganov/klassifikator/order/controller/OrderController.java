@@ -6,10 +6,16 @@
  */
 package com.baganov.klassifikator.order.controller;
 
+import com.baganov.klassifikator.order.model.enums.ExportFormat;
 import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import com.baganov.klassifikator.order.model.dto.OrderCursorPageDto;
 import com.baganov.klassifikator.order.model.dto.OrderDto;
 import com.baganov.klassifikator.order.model.dto.OrderRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateResponseDto;
+import com.baganov.klassifikator.order.service.OrderExportService;
 import com.baganov.klassifikator.order.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,26 +23,39 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/orders")
 @RequiredArgsConstructor
 public class OrderController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
     
     /**
      * Create a new order
      * POST /api/v1/orders
+     * Optional Idempotency-Key header makes retries return the original order
      */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderRequestDto request) {
+    public ResponseEntity<OrderDto> createOrder(
+            @Valid @RequestBody OrderRequestDto request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
         log.info("POST /api/v1/orders - Creating order for organization {}", request.getOrganizationId());
-        OrderDto order = orderService.createOrder(request);
+        OrderDto order = orderService.createOrder(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
     
@@ -120,6 +139,77 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
     
+    /**
+     * Get orders by organization using keyset pagination
+     * GET /api/v1/orders/organization/{organizationId}/cursor
+     */
+    @GetMapping("/organization/{organizationId}/cursor")
+    public ResponseEntity<OrderCursorPageDto> getOrdersByOrganizationCursor(
+            @PathVariable Long organizationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        log.info("GET /api/v1/orders/organization/{}/cursor - Getting orders", organizationId);
+        OrderCursorPageDto orders = orderService.getOrdersByOrganization(organizationId, cursor, size, withTotal);
+        return ResponseEntity.ok(orders);
+    }
+    
+    /**
+     * Get orders by landing using keyset pagination
+     * GET /api/v1/orders/landing/{landingId}/cursor
+     */
+    @GetMapping("/landing/{landingId}/cursor")
+    public ResponseEntity<OrderCursorPageDto> getOrdersByLandingCursor(
+            @PathVariable Long landingId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        log.info("GET /api/v1/orders/landing/{}/cursor - Getting orders", landingId);
+        OrderCursorPageDto orders = orderService.getOrdersByLanding(landingId, cursor, size, withTotal);
+        return ResponseEntity.ok(orders);
+    }
+    
+    /**
+     * Get orders by status using keyset pagination
+     * GET /api/v1/orders/status/{status}/cursor
+     */
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<OrderCursorPageDto> getOrdersByStatusCursor(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        log.info("GET /api/v1/orders/status/{}/cursor - Getting orders", status);
+        OrderCursorPageDto orders = orderService.getOrdersByStatus(status, cursor, size, withTotal);
+        return ResponseEntity.ok(orders);
+    }
+    
+    /**
+     * Export orders of organization with items as CSV or NDJSON
+     * GET /api/v1/orders/organization/{organizationId}/export
+     */
+    @GetMapping("/organization/{organizationId}/export")
+    public void exportOrdersByOrganization(
+            @PathVariable Long organizationId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("GET /api/v1/orders/organization/{}/export - Exporting orders as {}", organizationId, format);
+        
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + organizationId + "." + extension + "\"");
+        
+        orderExportService.exportOrders(organizationId, from, to, format, response.getOutputStream());
+    }
+    
     /**
      * Update order status
      * PATCH /api/v1/orders/{id}/status
@@ -134,6 +224,19 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
     
+    /**
+     * Update status of many orders at once
+     * PATCH /api/v1/orders/bulk/status
+     */
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<OrderStatusBulkUpdateResponseDto> updateOrderStatuses(
+            @Valid @RequestBody OrderStatusBulkUpdateRequestDto request
+    ) {
+        log.info("PATCH /api/v1/orders/bulk/status - Updating status to {}", request.getStatus());
+        OrderStatusBulkUpdateResponseDto response = orderService.updateOrderStatuses(request);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Cancel order
      * POST /api/v1/orders/{id}/cancel
@@ -0,0 +1,17 @@
+/**
+ * @file: OrderStatusChangedEvent.java
+ * @description: Application event published for every order whose status was changed
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.event;
+
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+
+/**
+ * Published inside the updating transaction; listeners that must only see committed
+ * changes should use {@code @TransactionalEventListener}.
+ *
+ * @param previousStatus raw status value before the change (may be a legacy value)
+ */
+public record OrderStatusChangedEvent(Long orderId, Long organizationId, String previousStatus, OrderStatus status) {
+}
@@ -0,0 +1,17 @@
+/**
+ * @file: IdempotencyKeyMismatchException.java
+ * @description: Exception thrown when an idempotency key is reused for a different order submission
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super(String.format("Idempotency key %s was already used for a different order", idempotencyKey));
+    }
+}
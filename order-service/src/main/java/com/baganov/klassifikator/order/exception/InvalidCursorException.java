@@ -0,0 +1,17 @@
+/**
+ * @file: InvalidCursorException.java
+ * @description: Exception thrown when a pagination cursor cannot be decoded
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+    
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid pagination cursor: %s", cursor));
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * @file: InvalidStatusTransitionException.java
+ * @description: Exception thrown when an order cannot be moved from its current status to the requested one
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.exception;
+
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+    
+    public InvalidStatusTransitionException(Long orderId, String currentStatus, OrderStatus target) {
+        super(String.format("Order %d cannot change status from %s to %s", orderId, currentStatus, target));
+    }
+}
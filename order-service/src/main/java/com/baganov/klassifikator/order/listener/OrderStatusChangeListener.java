@@ -0,0 +1,49 @@
+/**
+ * @file: OrderStatusChangeListener.java
+ * @description: Records committed order status changes in the log and in transition metrics
+ * @dependencies: Spring Events, Micrometer
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.listener;
+
+import com.baganov.klassifikator.order.event.OrderStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs after commit only, so a rolled back bulk update is neither logged nor counted.
+ * The counter orders.status.transitions{from,to} shows how orders move through the workflow.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusChangeListener {
+
+    private final MeterRegistry meterRegistry;
+    
+    // One counter per from/to pair, registered on first use
+    private final Map<String, Counter> transitionCounters = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        log.info("Order {} of organization {} moved from {} to {}",
+                event.orderId(), event.organizationId(), event.previousStatus(), event.status());
+
+        String from = event.previousStatus() != null ? event.previousStatus() : "NONE";
+        String to = event.status().name();
+        transitionCounters.computeIfAbsent(from + ">" + to, key -> Counter.builder("orders.status.transitions")
+                        .description("Committed order status changes")
+                        .tag("from", from)
+                        .tag("to", to)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
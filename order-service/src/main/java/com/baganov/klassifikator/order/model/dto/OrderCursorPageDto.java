@@ -0,0 +1,31 @@
+/**
+ * @file: OrderCursorPageDto.java
+ * @description: DTO for a keyset-paginated slice of orders
+ * @dependencies: Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorPageDto {
+    
+    private List<OrderDto> content;
+    private int size;
+    private boolean hasNext;
+    
+    // Pass as "cursor" to fetch the next page; null on the last page
+    private String nextCursor;
+    
+    // Only populated when requested with withTotal=true
+    private Long totalElements;
+}
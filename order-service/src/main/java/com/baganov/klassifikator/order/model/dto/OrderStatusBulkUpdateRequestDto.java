@@ -0,0 +1,43 @@
+/**
+ * @file: OrderStatusBulkUpdateRequestDto.java
+ * @description: DTO for changing status of many orders at once
+ * @dependencies: Lombok, Jakarta Validation
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.model.dto;
+
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBulkUpdateRequestDto {
+    
+    @NotNull(message = "Target status is required")
+    private OrderStatus status;
+    
+    // Either explicit order IDs...
+    @Size(max = 1000, message = "At most 1000 orders can be updated at once")
+    private List<Long> orderIds;
+    
+    // ...or a filter: all orders of the organization currently in the given status
+    private Long organizationId;
+    private OrderStatus currentStatus;
+    
+    @AssertTrue(message = "Either orderIds or organizationId with currentStatus is required")
+    private boolean isSelectionValid() {
+        boolean byIds = orderIds != null && !orderIds.isEmpty();
+        boolean byFilter = organizationId != null && currentStatus != null;
+        return byIds != byFilter;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * @file: OrderStatusBulkUpdateResponseDto.java
+ * @description: DTO with per-order results of a bulk status change
+ * @dependencies: Lombok
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.model.dto;
+
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBulkUpdateResponseDto {
+    
+    private OrderStatus status;
+    private int updated;
+    private int rejected;
+    // Filter mode only: more orders matched than one request processes, repeat the request for the rest
+    private boolean truncated;
+    private List<Result> results;
+    
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long orderId;
+        private Outcome outcome;
+        private String previousStatus;
+    }
+}
@@ -0,0 +1,6 @@
+package com.baganov.klassifikator.order.model.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -5,6 +5,17 @@ public enum OrderStatus {
     CONFIRMED,
     PROCESSING,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+    
+    /**
+     * Check whether an order in this status may be moved to the target status
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == PROCESSING || target == CANCELLED;
+            case CONFIRMED -> target == PROCESSING || target == COMPLETED || target == CANCELLED;
+            case PROCESSING -> target == COMPLETED || target == CANCELLED;
+            case COMPLETED, CANCELLED -> false;
+        };
+    }
 }
-
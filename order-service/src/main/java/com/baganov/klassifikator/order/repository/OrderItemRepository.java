@@ -12,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     List<OrderItem> findByOrderId(Long orderId);
     
+    /**
+     * Find all items for a batch of orders in one query
+     */
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
+    
     /**
      * Find all items by product ID
      */
@@ -11,12 +11,15 @@ import com.baganov.klassifikator.order.model.enums.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -41,6 +44,68 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByOrganizationIdAndStatus(Long organizationId, OrderStatus status, Pageable pageable);
     
+    /**
+     * Find order previously submitted with the given idempotency key
+     */
+    Optional<Order> findByOrganizationIdAndIdempotencyKey(Long organizationId, String idempotencyKey);
+    
+    /**
+     * Lock orders by ID and read their current status (for bulk status changes)
+     */
+    @Query(value = "SELECT id, organization_id AS organizationId, status FROM orders " +
+                   "WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<OrderStatusView> lockStatusesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Lock orders of organization in the given status (for bulk status changes).
+     * With includeLegacy, rows whose status is not one of knownStatuses (e.g. legacy NEW) or is null match too
+     */
+    @Query(value = "SELECT id, organization_id AS organizationId, status FROM orders " +
+                   "WHERE organization_id = :organizationId " +
+                   "AND (status = :status OR (:includeLegacy AND (status IS NULL OR status NOT IN (:knownStatuses)))) " +
+                   "ORDER BY id LIMIT :maxRows FOR UPDATE", nativeQuery = true)
+    List<OrderStatusView> lockStatusesByOrganizationAndStatus(
+            @Param("organizationId") Long organizationId,
+            @Param("status") String status,
+            @Param("includeLegacy") boolean includeLegacy,
+            @Param("knownStatuses") Collection<String> knownStatuses,
+            @Param("maxRows") int maxRows
+    );
+    
+    /**
+     * Set status of many orders in one statement
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.updatedAt = :updatedAt WHERE o.id IN :ids")
+    int updateStatusByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") String status,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+    
+    /**
+     * Reserve idempotency key for a new order; fails with a constraint violation if the key was already used
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys (organization_id, idempotency_key, order_id, request_hash) " +
+                   "VALUES (:organizationId, :idempotencyKey, :orderId, :requestHash)", nativeQuery = true)
+    void insertIdempotencyKey(
+            @Param("organizationId") Long organizationId,
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("orderId") Long orderId,
+            @Param("requestHash") String requestHash
+    );
+    
+    /**
+     * Order and request fingerprint an idempotency key was first used with
+     */
+    @Query(value = "SELECT order_id AS orderId, request_hash AS requestHash FROM order_idempotency_keys " +
+                   "WHERE organization_id = :organizationId AND idempotency_key = :idempotencyKey", nativeQuery = true)
+    Optional<IdempotencyKeyView> findIdempotencyKey(
+            @Param("organizationId") Long organizationId,
+            @Param("idempotencyKey") String idempotencyKey
+    );
+    
     /**
      * Find orders by customer phone
      */
@@ -69,5 +134,90 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * Count orders by status
      */
     long countByStatus(OrderStatus status);
+    
+    /**
+     * Count orders by landing
+     */
+    long countByLandingId(Long landingId);
+    
+    /**
+     * Count orders by raw status value
+     */
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    long countByStatusValue(@Param("status") String status);
+    
+    /**
+     * Current status of an order, read without loading the entity
+     */
+    interface OrderStatusView {
+        Long getId();
+        Long getOrganizationId();
+        String getStatus();
+    }
+    
+    interface IdempotencyKeyView {
+        Long getOrderId();
+        String getRequestHash();
+    }
+    
+    /**
+     * First keyset page of organization orders (newest first)
+     */
+    @Query("SELECT o FROM Order o WHERE o.organizationId = :organizationId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByOrganizationId(@Param("organizationId") Long organizationId, Pageable limit);
+    
+    /**
+     * Next keyset page of organization orders, strictly after the given (createdAt, id) position
+     */
+    @Query("SELECT o FROM Order o WHERE o.organizationId = :organizationId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByOrganizationIdAfter(
+            @Param("organizationId") Long organizationId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit
+    );
+    
+    /**
+     * First keyset page of landing orders (newest first)
+     */
+    @Query("SELECT o FROM Order o WHERE o.landingId = :landingId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByLandingId(@Param("landingId") Long landingId, Pageable limit);
+    
+    /**
+     * Next keyset page of landing orders, strictly after the given (createdAt, id) position
+     */
+    @Query("SELECT o FROM Order o WHERE o.landingId = :landingId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByLandingIdAfter(
+            @Param("landingId") Long landingId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit
+    );
+    
+    /**
+     * First keyset page of orders with the given status (newest first)
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByStatus(@Param("status") String status, Pageable limit);
+    
+    /**
+     * Next keyset page of orders with the given status, strictly after the given (createdAt, id) position
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByStatusAfter(
+            @Param("status") String status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit
+    );
 }
 
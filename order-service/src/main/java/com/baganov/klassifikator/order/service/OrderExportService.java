@@ -0,0 +1,30 @@
+/**
+ * @file: OrderExportService.java
+ * @description: Service interface for streaming bulk order export
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service;
+
+import com.baganov.klassifikator.order.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+    
+    /**
+     * Stream all orders of an organization with their items to the given output.
+     * Rows are read through a forward-only database cursor, so memory use does not
+     * depend on the number of exported orders.
+     *
+     * @param organizationId organization ID
+     * @param from inclusive lower bound of created_at, null for no bound
+     * @param to exclusive upper bound of created_at, null for no bound
+     * @param format output format
+     * @param output target stream (not closed by this method)
+     * @throws IOException if writing to the output fails
+     */
+    void exportOrders(Long organizationId, LocalDateTime from, LocalDateTime to,
+                      ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,23 @@
+/**
+ * @file: OrderPartitionService.java
+ * @description: Service interface for maintenance of monthly order partitions
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service;
+
+import java.util.List;
+
+public interface OrderPartitionService {
+    
+    /**
+     * Create monthly partitions of orders and order_items for the configured number of months ahead
+     */
+    void createFuturePartitions();
+    
+    /**
+     * Export partitions older than the retention period to cold storage and drop them
+     *
+     * @return suffixes of archived partitions (e.g. y2023m01)
+     */
+    List<String> archiveExpiredPartitions();
+}
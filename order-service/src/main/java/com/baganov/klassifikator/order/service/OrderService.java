@@ -6,8 +6,11 @@
 package com.baganov.klassifikator.order.service;
 
 import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import com.baganov.klassifikator.order.model.dto.OrderCursorPageDto;
 import com.baganov.klassifikator.order.model.dto.OrderDto;
 import com.baganov.klassifikator.order.model.dto.OrderRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -18,6 +21,15 @@ public interface OrderService {
      */
     OrderDto createOrder(OrderRequestDto request);
     
+    /**
+     * Create a new order exactly once per idempotency key
+     *
+     * @param request order data
+     * @param idempotencyKey client-generated key, null to skip deduplication
+     * @return created order, or the original order when the key was already used
+     */
+    OrderDto createOrder(OrderRequestDto request, String idempotencyKey);
+    
     /**
      * Get order by ID
      */
@@ -38,11 +50,53 @@ public interface OrderService {
      */
     Page<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable);
     
+    /**
+     * Get orders by organization using keyset pagination (newest first)
+     *
+     * @param organizationId organization ID
+     * @param cursor cursor from the previous page, null for the first page
+     * @param size page size
+     * @param withTotal whether to run an exact count of all matching orders
+     * @return page of orders with cursor for the next page
+     */
+    OrderCursorPageDto getOrdersByOrganization(Long organizationId, String cursor, int size, boolean withTotal);
+    
+    /**
+     * Get orders by landing using keyset pagination (newest first)
+     *
+     * @param landingId landing ID
+     * @param cursor cursor from the previous page, null for the first page
+     * @param size page size
+     * @param withTotal whether to run an exact count of all matching orders
+     * @return page of orders with cursor for the next page
+     */
+    OrderCursorPageDto getOrdersByLanding(Long landingId, String cursor, int size, boolean withTotal);
+    
+    /**
+     * Get orders by status using keyset pagination (newest first)
+     *
+     * @param status order status
+     * @param cursor cursor from the previous page, null for the first page
+     * @param size page size
+     * @param withTotal whether to run an exact count of all matching orders
+     * @return page of orders with cursor for the next page
+     */
+    OrderCursorPageDto getOrdersByStatus(OrderStatus status, String cursor, int size, boolean withTotal);
+    
     /**
      * Update order status
      */
     OrderDto updateOrderStatus(Long id, OrderStatus status);
     
+    /**
+     * Change status of many orders in one set-based update.
+     * Orders whose current status does not allow the transition are left untouched and reported.
+     *
+     * @param request target status and order selection (IDs or organization + current status)
+     * @return per-order outcome
+     */
+    OrderStatusBulkUpdateResponseDto updateOrderStatuses(OrderStatusBulkUpdateRequestDto request);
+    
     /**
      * Cancel order
      */
@@ -0,0 +1,241 @@
+/**
+ * @file: OrderExportServiceImpl.java
+ * @description: Streaming CSV/NDJSON order export over a forward-only JDBC cursor
+ * @dependencies: Spring JDBC, Jackson
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import com.baganov.klassifikator.order.model.dto.OrderDto;
+import com.baganov.klassifikator.order.model.dto.OrderItemDto;
+import com.baganov.klassifikator.order.model.enums.ExportFormat;
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import com.baganov.klassifikator.order.service.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+    
+    // Rows fetched per round trip; PostgreSQL only uses a server-side cursor when this is set inside a transaction
+    private static final int FETCH_SIZE = 500;
+    
+    private static final String CSV_HEADER = String.join(",",
+            "order_id", "created_at", "status", "customer_name", "customer_phone", "customer_email",
+            "delivery_address", "comment", "total_amount", "landing_id",
+            "product_id", "product_name", "quantity", "price", "item_total");
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    public OrderExportServiceImpl(DataSource dataSource, ObjectMapper objectMapper) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(Long organizationId, LocalDateTime from, LocalDateTime to,
+                             ExportFormat format, OutputStream output) throws IOException {
+        log.info("Exporting orders of organization {} as {} (from {} to {})", organizationId, format, from, to);
+        
+        MapSqlParameterSource params = new MapSqlParameterSource("organizationId", organizationId);
+        StringBuilder sql = new StringBuilder("""
+                SELECT o.id, o.organization_id, o.landing_id, o.customer_name, o.customer_phone, o.customer_email,
+                       o.delivery_address, o.comment, o.total_amount, o.status, o.created_at, o.updated_at,
+                       oi.id AS item_id, oi.product_id, oi.product_name, oi.product_price, oi.quantity, oi.subtotal
+                FROM orders o
+                LEFT JOIN order_items oi ON oi.order_id = o.id AND oi.order_created_at = o.created_at
+                WHERE o.organization_id = :organizationId
+                """);
+        if (from != null) {
+            sql.append(" AND o.created_at >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY o.created_at, o.id, oi.id");
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        OrderStreamWriter orderWriter = new OrderStreamWriter(writer, format);
+        
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        
+        try {
+            jdbcTemplate.query(sql.toString(), params, orderWriter);
+            orderWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        
+        log.info("Exported {} orders of organization {}", orderWriter.exportedOrders, organizationId);
+    }
+    
+    /**
+     * Groups consecutive joined rows into one order and writes it as soon as the next order starts,
+     * so only the order currently being read is held in memory
+     */
+    private class OrderStreamWriter implements RowCallbackHandler {
+        
+        private final Writer writer;
+        private final ExportFormat format;
+        private OrderDto current;
+        private long exportedOrders;
+        
+        OrderStreamWriter(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.getId() != orderId) {
+                finish();
+                current = readOrder(rs);
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                current.getItems().add(readItem(rs, itemId));
+            }
+        }
+        
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(current);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(current));
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exportedOrders++;
+            current = null;
+        }
+        
+        private void writeCsv(OrderDto order) throws IOException {
+            if (order.getItems().isEmpty()) {
+                writeCsvLine(order, null);
+                return;
+            }
+            for (OrderItemDto item : order.getItems()) {
+                writeCsvLine(order, item);
+            }
+        }
+        
+        private void writeCsvLine(OrderDto order, OrderItemDto item) throws IOException {
+            List<Object> values = List.of(
+                    order.getId(), valueOf(order.getCreatedAt()), valueOf(order.getStatus()),
+                    valueOf(order.getCustomerName()), valueOf(order.getCustomerPhone()), valueOf(order.getCustomerEmail()),
+                    valueOf(order.getDeliveryAddress()), valueOf(order.getComment()), valueOf(order.getTotalAmount()),
+                    valueOf(order.getLandingId()),
+                    item != null ? valueOf(item.getProductId()) : "",
+                    item != null ? valueOf(item.getProductName()) : "",
+                    item != null ? valueOf(item.getQuantity()) : "",
+                    item != null ? valueOf(item.getPrice()) : "",
+                    item != null ? valueOf(item.getTotalPrice()) : "");
+            
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(values.get(i).toString()));
+            }
+            writer.write('\n');
+        }
+    }
+    
+    private OrderDto readOrder(ResultSet rs) throws SQLException {
+        return OrderDto.builder()
+                .id(rs.getLong("id"))
+                .organizationId(rs.getLong("organization_id"))
+                .landingId(rs.getObject("landing_id", Long.class))
+                .customerName(rs.getString("customer_name"))
+                .customerPhone(rs.getString("customer_phone"))
+                .customerEmail(rs.getString("customer_email"))
+                .deliveryAddress(rs.getString("delivery_address"))
+                .comment(rs.getString("comment"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .status(parseStatus(rs.getString("status")))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .items(new ArrayList<>())
+                .build();
+    }
+    
+    private OrderItemDto readItem(ResultSet rs, long itemId) throws SQLException {
+        return OrderItemDto.builder()
+                .id(itemId)
+                .orderId(rs.getLong("id"))
+                .productId(rs.getObject("product_id", Long.class))
+                .productName(rs.getString("product_name"))
+                .quantity(rs.getInt("quantity"))
+                .price(rs.getBigDecimal("product_price"))
+                .totalPrice(rs.getBigDecimal("subtotal"))
+                .build();
+    }
+    
+    /**
+     * Legacy rows may carry statuses that are no longer in {@link OrderStatus}
+     */
+    private OrderStatus parseStatus(String status) {
+        try {
+            return status != null ? OrderStatus.valueOf(status) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : "";
+    }
+    
+    /**
+     * Quote a CSV field. Values that a spreadsheet would evaluate as a formula (leading =, +, -, @, tab or CR)
+     * are prefixed with an apostrophe inside the quotes, so customer input is always shown as text.
+     */
+    static String escapeCsv(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return "\"'" + value.replace("\"", "\"\"") + '"';
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * @file: OrderPartitionServiceImpl.java
+ * @description: Creates future monthly order partitions and archives expired ones to S3
+ * @dependencies: Spring JDBC, PostgreSQL COPY API, AWS SDK
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import com.baganov.klassifikator.order.service.OrderPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderPartitionServiceImpl implements OrderPartitionService {
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("orders_y(\\d{4})m(\\d{2})");
+    
+    // Advisory lock key so only one replica runs maintenance at a time
+    private static final long MAINTENANCE_LOCK_KEY = 8_600_017L;
+    
+    private final DataSource dataSource;
+    private final S3Client s3Client;
+    
+    @Value("${orders.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${orders.archive.enabled:false}")
+    private boolean archiveEnabled;
+    
+    @Value("${orders.archive.retention-months:24}")
+    private int retentionMonths;
+    
+    @Value("${orders.archive.bucket-name:klassifikator}")
+    private String archiveBucket;
+    
+    @Value("${orders.archive.prefix:archive/orders}")
+    private String archivePrefix;
+    
+    /**
+     * Make sure upcoming partitions exist as soon as the service starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            createFuturePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create order partitions on startup", e);
+        }
+    }
+    
+    /**
+     * Nightly partition maintenance
+     */
+    @Scheduled(cron = "${orders.partitioning.maintenance-cron:0 30 3 * * *}")
+    public void runMaintenance() {
+        try {
+            createFuturePartitions();
+            if (archiveEnabled) {
+                archiveExpiredPartitions();
+            }
+        } catch (Exception e) {
+            log.error("Order partition maintenance failed", e);
+        }
+    }
+    
+    @Override
+    public void createFuturePartitions() {
+        withMaintenanceLock(connection -> {
+            YearMonth month = YearMonth.now();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT create_orders_partition(?)")) {
+                for (int i = 0; i <= monthsAhead; i++) {
+                    statement.setObject(1, month.plusMonths(i).atDay(1));
+                    statement.execute();
+                }
+            }
+            log.info("Order partitions ensured from {} for {} months ahead", month, monthsAhead);
+            return null;
+        });
+    }
+    
+    @Override
+    public List<String> archiveExpiredPartitions() {
+        List<String> archived = withMaintenanceLock(connection -> {
+            YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+            List<String> result = new ArrayList<>();
+            
+            for (String suffix : findPartitionSuffixesBefore(connection, cutoff)) {
+                log.info("Archiving order partition {} to s3://{}/{}", suffix, archiveBucket, archivePrefix);
+                
+                // Detach first, so no write can land in the tables after they were exported;
+                // they are only dropped once both files are safely stored
+                detachPartition(connection, suffix);
+                exportTable(connection, "orders_" + suffix, archivePrefix + "/" + suffix + "/orders.csv.gz");
+                exportTable(connection, "order_items_" + suffix, archivePrefix + "/" + suffix + "/order_items.csv.gz");
+                dropPartition(connection, suffix);
+                
+                result.add(suffix);
+            }
+            return result;
+        });
+        
+        if (archived == null) {
+            return List.of();
+        }
+        log.info("Archived {} order partitions: {}", archived.size(), archived);
+        return archived;
+    }
+    
+    /**
+     * Monthly partitions of orders before the cutoff, attached or left detached by an interrupted run
+     */
+    private List<String> findPartitionSuffixesBefore(Connection connection, YearMonth cutoff) throws SQLException {
+        String sql = """
+                SELECT c.relname
+                FROM pg_class c
+                WHERE c.relkind = 'r' AND c.relname LIKE 'orders\\_y%' AND pg_table_is_visible(c.oid)
+                ORDER BY c.relname
+                """;
+        List<String> suffixes = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                Matcher matcher = PARTITION_NAME.matcher(rs.getString(1));
+                if (matcher.matches()) {
+                    YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                    if (month.isBefore(cutoff)) {
+                        suffixes.add(rs.getString(1).substring("orders_".length()));
+                    }
+                }
+            }
+        }
+        return suffixes;
+    }
+    
+    /**
+     * Stream table contents as gzip-compressed CSV through a temp file into S3
+     */
+    private void exportTable(Connection connection, String table, String key) throws SQLException, IOException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        Path tempFile = Files.createTempFile("orders-archive-", ".csv.gz");
+        try {
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                rows = copyManager.copyOut("COPY \"" + table + "\" TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+            
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(archiveBucket)
+                    .key(key)
+                    .contentType("text/csv")
+                    .contentEncoding("gzip")
+                    .build();
+            s3Client.putObject(request, RequestBody.fromFile(tempFile));
+            
+            log.info("Exported {} rows of {} to {}", rows, table, key);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    /**
+     * Detach the month from orders and order_items in one transaction; later writes for that month
+     * go to the default partitions and the detached tables no longer change
+     */
+    private void detachPartition(Connection connection, String suffix) throws SQLException {
+        if (!isPartition(connection, "orders_" + suffix)) {
+            // Detached by a previous run that failed before dropping
+            return;
+        }
+        
+        List<String> itemForeignKeys = new ArrayList<>();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            // Items first: the orders partition cannot be detached while rows still reference it.
+            // The detached items table keeps its own copy of fk_items_orders, which has to go as well
+            statement.execute("ALTER TABLE order_items DETACH PARTITION \"order_items_" + suffix + "\"");
+            try (PreparedStatement select = connection.prepareStatement("""
+                    SELECT conname FROM pg_constraint
+                    WHERE conrelid = to_regclass(?) AND contype = 'f' AND confrelid = 'orders'::regclass
+                    """)) {
+                select.setString(1, "\"order_items_" + suffix + "\"");
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        itemForeignKeys.add(rs.getString(1));
+                    }
+                }
+            }
+            for (String constraint : itemForeignKeys) {
+                statement.execute("ALTER TABLE \"order_items_" + suffix + "\" DROP CONSTRAINT \"" + constraint + "\"");
+            }
+            statement.execute("ALTER TABLE orders DETACH PARTITION \"orders_" + suffix + "\"");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private boolean isPartition(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT relispartition FROM pg_class WHERE oid = to_regclass(?)")) {
+            statement.setString(1, "\"" + table + "\"");
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+    
+    private void dropPartition(Connection connection, String suffix) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE \"order_items_" + suffix + "\"");
+            statement.execute("DROP TABLE \"orders_" + suffix + "\"");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        // Idempotency keys are only useful for recent submissions
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM order_idempotency_keys WHERE created_at < ?")) {
+            statement.setObject(1, YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay());
+            statement.executeUpdate();
+        }
+    }
+    
+    /**
+     * Run work on a dedicated connection holding a session advisory lock.
+     * Returns null without running the work if another replica holds the lock.
+     */
+    private <T> T withMaintenanceLock(ConnectionWork<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                log.info("Order partition maintenance is running on another instance, skipping");
+                return null;
+            }
+            try {
+                return work.execute(connection);
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Order partition maintenance failed", e);
+        }
+    }
+    
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, MAINTENANCE_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ConnectionWork<T> {
+        T execute(Connection connection) throws SQLException, IOException;
+    }
+}
@@ -6,6 +6,7 @@
  */
 package com.baganov.klassifikator.order.service.impl;
 
+import com.baganov.klassifikator.common.config.CacheConfig;
 import com.baganov.klassifikator.common.model.entity.Order;
 import com.baganov.klassifikator.common.model.entity.OrderItem;
 import com.baganov.klassifikator.order.model.enums.OrderStatus;
@@ -13,12 +14,18 @@ import com.baganov.klassifikator.common.model.entity.Product;
 import com.baganov.klassifikator.common.model.entity.Organization;
 import com.baganov.klassifikator.common.model.entity.Landing;
 import com.baganov.klassifikator.common.model.entity.OrganizationContent;
+import com.baganov.klassifikator.order.event.OrderStatusChangedEvent;
+import com.baganov.klassifikator.order.exception.IdempotencyKeyMismatchException;
+import com.baganov.klassifikator.order.exception.InvalidStatusTransitionException;
 import com.baganov.klassifikator.order.exception.OrderNotFoundException;
 import com.baganov.klassifikator.order.exception.ProductNotFoundException;
 import com.baganov.klassifikator.order.mapper.OrderMapper;
+import com.baganov.klassifikator.order.model.dto.OrderCursorPageDto;
 import com.baganov.klassifikator.order.model.dto.OrderDto;
 import com.baganov.klassifikator.order.model.dto.OrderItemRequestDto;
 import com.baganov.klassifikator.order.model.dto.OrderRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateResponseDto;
 import com.baganov.klassifikator.order.repository.OrderItemRepository;
 import com.baganov.klassifikator.order.repository.OrderRepository;
 import com.baganov.klassifikator.order.repository.ProductRepository;
@@ -26,19 +33,32 @@ import com.baganov.klassifikator.order.repository.OrganizationRepository;
 import com.baganov.klassifikator.order.repository.LandingRepository;
 import com.baganov.klassifikator.order.repository.OrganizationContentRepository;
 import com.baganov.klassifikator.order.service.OrderService;
+import com.baganov.klassifikator.order.util.OrderCursor;
+import com.baganov.klassifikator.order.util.OrderRequestFingerprint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -53,69 +73,58 @@ public class OrderServiceImpl implements OrderService {
     private final OrganizationContentRepository organizationContentRepository;
     private final OrderMapper orderMapper;
     private final WebClient.Builder webClientBuilder;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_BULK_STATUS_ORDERS = 1000;
+    private static final List<String> KNOWN_STATUSES = Arrays.stream(OrderStatus.values()).map(Enum::name).toList();
     
     @Override
-    @Transactional
     public OrderDto createOrder(OrderRequestDto request) {
+        return createOrder(request, null);
+    }
+    
+    @Override
+    public OrderDto createOrder(OrderRequestDto request, String idempotencyKey) {
         log.info("Creating order for organization {} from landing {}", 
                  request.getOrganizationId(), request.getLandingId());
         
-        // Create order entity
-        Order order = Order.builder()
-                .organizationId(request.getOrganizationId())
-                .landingId(request.getLandingId())
-                .customerName(request.getCustomerName())
-                .customerPhone(request.getCustomerPhone())
-                .customerEmail(request.getCustomerEmail())
-                .deliveryAddress(request.getDeliveryAddress())
-                .comment(request.getComment())
-                .status(OrderStatus.PENDING.name())
-                .totalAmount(BigDecimal.ZERO)
-                .build();
-        
-        // Create order items and calculate total
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey.trim() : null;
+        String requestHash = key != null ? OrderRequestFingerprint.of(request) : null;
         
-        for (OrderItemRequestDto itemRequest : request.getItems()) {
-            // Get product
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException(itemRequest.getProductId()));
-            
-            // Calculate item total
-            BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            totalAmount = totalAmount.add(itemTotal);
-            
-            // Create order item
-            OrderItem orderItem = OrderItem.builder()
-                    .productId(product.getId())
-                    .productName(product.getName())
-                    .quantity(itemRequest.getQuantity())
-                    .productPrice(product.getPrice())
-                    .subtotal(itemTotal)
-                    .build();
-            
-            orderItems.add(orderItem);
+        if (key != null) {
+            OrderDto existing = findIdempotentOrder(request.getOrganizationId(), key, requestHash);
+            if (existing != null) {
+                log.info("Order submission replayed with idempotency key, returning order {}", existing.getId());
+                return existing;
+            }
         }
         
-        order.setTotalAmount(totalAmount);
-        
-        // Save order
-        Order savedOrder = orderRepository.save(order);
-        
-        // Set order ID for items and save
-        orderItems.forEach(item -> item.setOrderId(savedOrder.getId()));
-        orderItemRepository.saveAll(orderItems);
-        
-        // Load items to order
-        savedOrder.setItems(orderItems);
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(status -> saveOrder(request, key, requestHash));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submission with the same key committed first
+            OrderDto existing = key != null ? findIdempotentOrder(request.getOrganizationId(), key, requestHash) : null;
+            if (existing == null) {
+                throw e;
+            }
+            log.info("Concurrent order submission with same idempotency key, returning order {}", existing.getId());
+            return existing;
+        }
         
         log.info("Order created successfully with id {}, total amount: {}", 
                  savedOrder.getId(), savedOrder.getTotalAmount());
         
-        // Send Telegram notification asynchronously
+        // Send Telegram notification asynchronously, only once the order is committed
         sendTelegramNotification(savedOrder);
         
+        if (key != null) {
+            idempotencyCache().put(idempotencyCacheKey(request.getOrganizationId(), key),
+                    idempotencyCacheValue(savedOrder.getId(), requestHash));
+        }
         return orderMapper.toDto(savedOrder);
     }
     
@@ -182,16 +191,79 @@ public class OrderServiceImpl implements OrderService {
         return orders.map(orderMapper::toDto);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDto getOrdersByOrganization(Long organizationId, String cursor, int size, boolean withTotal) {
+        log.debug("Getting orders for organization {} after cursor {}", organizationId, cursor);
+        
+        OrderCursor position = OrderCursor.decode(cursor);
+        Pageable limit = cursorLimit(size);
+        
+        List<Order> orders = position == null
+                ? orderRepository.findFirstPageByOrganizationId(organizationId, limit)
+                : orderRepository.findPageByOrganizationIdAfter(organizationId, position.createdAt(), position.id(), limit);
+        
+        Long total = withTotal ? orderRepository.countByOrganizationId(organizationId) : null;
+        return toCursorPage(orders, limit.getPageSize() - 1, total);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDto getOrdersByLanding(Long landingId, String cursor, int size, boolean withTotal) {
+        log.debug("Getting orders for landing {} after cursor {}", landingId, cursor);
+        
+        OrderCursor position = OrderCursor.decode(cursor);
+        Pageable limit = cursorLimit(size);
+        
+        List<Order> orders = position == null
+                ? orderRepository.findFirstPageByLandingId(landingId, limit)
+                : orderRepository.findPageByLandingIdAfter(landingId, position.createdAt(), position.id(), limit);
+        
+        Long total = withTotal ? orderRepository.countByLandingId(landingId) : null;
+        return toCursorPage(orders, limit.getPageSize() - 1, total);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public OrderCursorPageDto getOrdersByStatus(OrderStatus status, String cursor, int size, boolean withTotal) {
+        log.debug("Getting orders by status {} after cursor {}", status, cursor);
+        
+        OrderCursor position = OrderCursor.decode(cursor);
+        Pageable limit = cursorLimit(size);
+        
+        List<Order> orders = position == null
+                ? orderRepository.findFirstPageByStatus(status.name(), limit)
+                : orderRepository.findPageByStatusAfter(status.name(), position.createdAt(), position.id(), limit);
+        
+        Long total = withTotal ? orderRepository.countByStatusValue(status.name()) : null;
+        return toCursorPage(orders, limit.getPageSize() - 1, total);
+    }
+    
     @Override
     @Transactional
     public OrderDto updateOrderStatus(Long id, OrderStatus status) {
         log.info("Updating order {} status to {}", id, status);
         
+        // Lock the row and check the transition the same way the bulk update does
+        OrderRepository.OrderStatusView current = orderRepository.lockStatusesByIds(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new OrderNotFoundException(id));
+        boolean unchanged = status.name().equals(current.getStatus());
+        if (!unchanged && !isTransitionAllowed(current.getStatus(), status)) {
+            throw new InvalidStatusTransitionException(id, current.getStatus(), status);
+        }
+        
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
         
-        order.setStatus(status.name());
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = order;
+        if (!unchanged) {
+            String previousStatus = order.getStatus();
+            order.setStatus(status.name());
+            updatedOrder = orderRepository.save(order);
+            
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(id, order.getOrganizationId(), previousStatus, status));
+        }
         
         // Load items
         List<OrderItem> items = orderItemRepository.findByOrderId(id);
@@ -202,6 +274,86 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(updatedOrder);
     }
     
+    @Override
+    @Transactional
+    public OrderStatusBulkUpdateResponseDto updateOrderStatuses(OrderStatusBulkUpdateRequestDto request) {
+        OrderStatus target = request.getStatus();
+        
+        // Lock the selected rows and read their current status in one query
+        List<OrderRepository.OrderStatusView> current;
+        Set<Long> requestedIds;
+        boolean truncated = false;
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            requestedIds = new LinkedHashSet<>(request.getOrderIds());
+            current = orderRepository.lockStatusesByIds(requestedIds);
+        } else {
+            // Legacy values are PENDING for the transition check, so the filter has to select them as PENDING too;
+            // one extra row tells whether more orders match than are processed in one request
+            OrderStatus currentStatus = request.getCurrentStatus();
+            current = orderRepository.lockStatusesByOrganizationAndStatus(
+                    request.getOrganizationId(), currentStatus.name(), currentStatus == OrderStatus.PENDING,
+                    KNOWN_STATUSES, MAX_BULK_STATUS_ORDERS + 1);
+            if (current.size() > MAX_BULK_STATUS_ORDERS) {
+                current = current.subList(0, MAX_BULK_STATUS_ORDERS);
+                truncated = true;
+            }
+            requestedIds = current.stream()
+                    .map(OrderRepository.OrderStatusView::getId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        log.info("Bulk updating status of {} orders to {}", requestedIds.size(), target);
+        
+        Map<Long, OrderRepository.OrderStatusView> currentById = current.stream()
+                .collect(Collectors.toMap(OrderRepository.OrderStatusView::getId, view -> view));
+        
+        List<OrderStatusBulkUpdateResponseDto.Result> results = new ArrayList<>(requestedIds.size());
+        List<OrderRepository.OrderStatusView> toUpdate = new ArrayList<>();
+        
+        for (Long orderId : requestedIds) {
+            OrderRepository.OrderStatusView view = currentById.get(orderId);
+            OrderStatusBulkUpdateResponseDto.Outcome outcome;
+            if (view == null) {
+                outcome = OrderStatusBulkUpdateResponseDto.Outcome.NOT_FOUND;
+            } else if (target.name().equals(view.getStatus())) {
+                outcome = OrderStatusBulkUpdateResponseDto.Outcome.UNCHANGED;
+            } else if (isTransitionAllowed(view.getStatus(), target)) {
+                outcome = OrderStatusBulkUpdateResponseDto.Outcome.UPDATED;
+                toUpdate.add(view);
+            } else {
+                outcome = OrderStatusBulkUpdateResponseDto.Outcome.INVALID_TRANSITION;
+            }
+            results.add(OrderStatusBulkUpdateResponseDto.Result.builder()
+                    .orderId(orderId)
+                    .outcome(outcome)
+                    .previousStatus(view != null ? view.getStatus() : null)
+                    .build());
+        }
+        
+        if (!toUpdate.isEmpty()) {
+            List<Long> updateIds = toUpdate.stream().map(OrderRepository.OrderStatusView::getId).toList();
+            orderRepository.updateStatusByIds(updateIds, target.name(), LocalDateTime.now());
+            
+            toUpdate.forEach(view -> eventPublisher.publishEvent(
+                    new OrderStatusChangedEvent(view.getId(), view.getOrganizationId(), view.getStatus(), target)));
+        }
+        
+        int rejected = (int) results.stream()
+                .filter(result -> result.getOutcome() == OrderStatusBulkUpdateResponseDto.Outcome.INVALID_TRANSITION
+                        || result.getOutcome() == OrderStatusBulkUpdateResponseDto.Outcome.NOT_FOUND)
+                .count();
+        
+        log.info("Bulk status update to {}: {} updated, {} rejected{}", target, toUpdate.size(), rejected,
+                truncated ? ", more orders match the filter" : "");
+        
+        return OrderStatusBulkUpdateResponseDto.builder()
+                .status(target)
+                .updated(toUpdate.size())
+                .rejected(rejected)
+                .truncated(truncated)
+                .results(results)
+                .build();
+    }
+    
     @Override
     @Transactional
     public OrderDto cancelOrder(Long id) {
@@ -228,6 +380,182 @@ public class OrderServiceImpl implements OrderService {
         log.info("Order {} deleted successfully", id);
     }
     
+    /**
+     * Persist order with its items (runs inside a transaction)
+     */
+    private Order saveOrder(OrderRequestDto request, String idempotencyKey, String requestHash) {
+        // Create order entity
+        Order order = Order.builder()
+                .organizationId(request.getOrganizationId())
+                .landingId(request.getLandingId())
+                .customerName(request.getCustomerName())
+                .customerPhone(request.getCustomerPhone())
+                .customerEmail(request.getCustomerEmail())
+                .deliveryAddress(request.getDeliveryAddress())
+                .comment(request.getComment())
+                .idempotencyKey(idempotencyKey)
+                .status(OrderStatus.PENDING.name())
+                .totalAmount(BigDecimal.ZERO)
+                .build();
+        
+        // Create order items and calculate total
+        List<OrderItem> orderItems = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        
+        for (OrderItemRequestDto itemRequest : request.getItems()) {
+            // Get product
+            Product product = productRepository.findById(itemRequest.getProductId())
+                    .orElseThrow(() -> new ProductNotFoundException(itemRequest.getProductId()));
+            
+            // Calculate item total
+            BigDecimal itemTotal = product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            totalAmount = totalAmount.add(itemTotal);
+            
+            // Create order item
+            OrderItem orderItem = OrderItem.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .quantity(itemRequest.getQuantity())
+                    .productPrice(product.getPrice())
+                    .subtotal(itemTotal)
+                    .build();
+            
+            orderItems.add(orderItem);
+        }
+        
+        order.setTotalAmount(totalAmount);
+        
+        // Save order
+        Order savedOrder = orderRepository.save(order);
+        
+        if (idempotencyKey != null) {
+            orderRepository.insertIdempotencyKey(savedOrder.getOrganizationId(), idempotencyKey, savedOrder.getId(),
+                    requestHash);
+        }
+        
+        // Set order ID and partition key for items and save
+        orderItems.forEach(item -> {
+            item.setOrderId(savedOrder.getId());
+            item.setOrderCreatedAt(savedOrder.getCreatedAt());
+        });
+        orderItemRepository.saveAll(orderItems);
+        
+        // Load items to order
+        savedOrder.setItems(orderItems);
+        
+        return savedOrder;
+    }
+    
+    /**
+     * Find order created earlier with the same idempotency key: Redis first, then the database.
+     * Only the order id and the request fingerprint are cached, the order itself is always reloaded.
+     *
+     * @throws IdempotencyKeyMismatchException if the key was used for a different submission
+     */
+    private OrderDto findIdempotentOrder(Long organizationId, String idempotencyKey, String requestHash) {
+        String cacheKey = idempotencyCacheKey(organizationId, idempotencyKey);
+        
+        Long orderId = null;
+        String knownHash = null;
+        String cached = idempotencyCache().get(cacheKey, String.class);
+        if (cached != null) {
+            int separator = cached.indexOf(':');
+            orderId = Long.valueOf(separator >= 0 ? cached.substring(0, separator) : cached);
+            knownHash = separator >= 0 && separator + 1 < cached.length() ? cached.substring(separator + 1) : null;
+        } else {
+            OrderRepository.IdempotencyKeyView stored = orderRepository
+                    .findIdempotencyKey(organizationId, idempotencyKey)
+                    .orElse(null);
+            if (stored != null) {
+                orderId = stored.getOrderId();
+                knownHash = stored.getRequestHash();
+            } else {
+                // Key rows are purged after a while, the order still carries its key
+                orderId = orderRepository.findByOrganizationIdAndIdempotencyKey(organizationId, idempotencyKey)
+                        .map(Order::getId)
+                        .orElse(null);
+            }
+            if (orderId == null) {
+                return null;
+            }
+            idempotencyCache().put(cacheKey, idempotencyCacheValue(orderId, knownHash));
+        }
+        
+        // Keys recorded before fingerprints existed carry no hash and are not checked
+        if (knownHash != null && !knownHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        
+        Long replayedId = orderId;
+        Order order = orderRepository.findById(replayedId)
+                .orElseThrow(() -> new OrderNotFoundException(replayedId));
+        order.setItems(orderItemRepository.findByOrderId(replayedId));
+        return orderMapper.toDto(order);
+    }
+    
+    private Cache idempotencyCache() {
+        return cacheManager.getCache(CacheConfig.ORDER_IDEMPOTENCY_CACHE);
+    }
+    
+    private String idempotencyCacheKey(Long organizationId, String idempotencyKey) {
+        return organizationId + ":" + idempotencyKey;
+    }
+    
+    /**
+     * "orderId:requestHash" as a plain string, which the untyped Redis serializer reads back as it was written
+     */
+    private String idempotencyCacheValue(Long orderId, String requestHash) {
+        return orderId + ":" + (requestHash != null ? requestHash : "");
+    }
+    
+    /**
+     * Legacy status values (e.g. NEW) are treated as PENDING
+     */
+    private boolean isTransitionAllowed(String currentStatus, OrderStatus target) {
+        OrderStatus from;
+        try {
+            from = OrderStatus.valueOf(currentStatus);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            from = OrderStatus.PENDING;
+        }
+        return from.canTransitionTo(target);
+    }
+    
+    /**
+     * Limit for a keyset query: one extra row tells whether a next page exists
+     */
+    private Pageable cursorLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return PageRequest.of(0, pageSize + 1);
+    }
+    
+    /**
+     * Build cursor page from keyset query result, loading items of all orders in one query
+     */
+    private OrderCursorPageDto toCursorPage(List<Order> orders, int size, Long total) {
+        boolean hasNext = orders.size() > size;
+        List<Order> pageOrders = hasNext ? orders.subList(0, size) : orders;
+        
+        if (!pageOrders.isEmpty()) {
+            List<Long> orderIds = pageOrders.stream().map(Order::getId).toList();
+            Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository.findByOrderIdIn(orderIds).stream()
+                    .collect(Collectors.groupingBy(OrderItem::getOrderId));
+            pageOrders.forEach(order -> order.setItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>())));
+        }
+        
+        String nextCursor = hasNext
+                ? OrderCursor.of(pageOrders.get(pageOrders.size() - 1)).encode()
+                : null;
+        
+        return OrderCursorPageDto.builder()
+                .content(orderMapper.toDtoList(pageOrders))
+                .size(pageOrders.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(total)
+                .build();
+    }
+    
     /**
      * Send Telegram notification about new order (asynchronous)
      */
@@ -238,6 +566,7 @@ public class OrderServiceImpl implements OrderService {
             // Build order data map
             Map<String, Object> orderData = new HashMap<>();
             orderData.put("orderId", order.getId());
+            orderData.put("organizationId", order.getOrganizationId());
             orderData.put("customerName", order.getCustomerName());
             orderData.put("customerPhone", order.getCustomerPhone());
             orderData.put("customerEmail", order.getCustomerEmail());
@@ -311,6 +640,10 @@ public class OrderServiceImpl implements OrderService {
                         log.debug("Organization {} has custom Telegram chat ID configured: {}", 
                                   organization.getName(), organization.getTelegramChatId());
                     }
+
+                    if (organization.getTelegramDigestWindowSeconds() != null && organization.getTelegramDigestWindowSeconds() > 0) {
+                        orderData.put("organizationTelegramDigestSeconds", organization.getTelegramDigestWindowSeconds());
+                    }
                 }
             } catch (Exception e) {
                 log.warn("Could not fetch organization details for order {}", order.getId());
@@ -0,0 +1,64 @@
+/**
+ * @file: OrderCursor.java
+ * @description: Opaque keyset cursor for order listings ordered by (created_at DESC, id DESC)
+ * @dependencies: Order entity
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.util;
+
+import com.baganov.klassifikator.common.model.entity.Order;
+import com.baganov.klassifikator.order.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last order returned on a page.
+ * Encoded as URL-safe Base64 of "createdAt|id" so clients treat it as an opaque token.
+ */
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Build cursor pointing at the given order
+     */
+    public static OrderCursor of(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    /**
+     * Encode cursor into an opaque token
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode token produced by {@link #encode()}
+     *
+     * @param token cursor token, may be null or blank for the first page
+     * @return decoded cursor or null when token is empty
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new InvalidCursorException(token);
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new OrderCursor(createdAt, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
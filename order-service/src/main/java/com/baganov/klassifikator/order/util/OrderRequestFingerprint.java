@@ -0,0 +1,56 @@
+/**
+ * @file: OrderRequestFingerprint.java
+ * @description: Stable hash of an order submission for idempotency key checks
+ * @dependencies: None
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.util;
+
+import com.baganov.klassifikator.order.model.dto.OrderItemRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderRequestDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over every field of the submission in a fixed order, items in the order they were sent.
+ * Fields are separated by a control character, so adjacent values cannot be shifted into each other.
+ */
+public final class OrderRequestFingerprint {
+    
+    private static final char SEPARATOR = '\u001F';
+    
+    private OrderRequestFingerprint() {
+    }
+    
+    public static String of(OrderRequestDto request) {
+        StringBuilder canonical = new StringBuilder();
+        append(canonical, request.getOrganizationId());
+        append(canonical, request.getLandingId());
+        append(canonical, request.getCustomerName());
+        append(canonical, request.getCustomerPhone());
+        append(canonical, request.getCustomerEmail());
+        append(canonical, request.getDeliveryAddress());
+        append(canonical, request.getComment());
+        if (request.getItems() != null) {
+            for (OrderItemRequestDto item : request.getItems()) {
+                append(canonical, item.getProductId());
+                append(canonical, item.getQuantity());
+            }
+        }
+        
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static void append(StringBuilder canonical, Object value) {
+        canonical.append(value == null ? "" : value.toString().trim()).append(SEPARATOR);
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * @file: OrderStatusChangeListenerTest.java
+ * @description: Tests for the order status transition metrics
+ * @dependencies: JUnit 5, Micrometer, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.listener;
+
+import com.baganov.klassifikator.order.event.OrderStatusChangedEvent;
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusChangeListenerTest {
+
+    @Test
+    void transitionsAreCountedByPreviousAndNewStatus() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderStatusChangeListener listener = new OrderStatusChangeListener(registry);
+
+        listener.onStatusChanged(new OrderStatusChangedEvent(1L, 3L, "PENDING", OrderStatus.CONFIRMED));
+        listener.onStatusChanged(new OrderStatusChangedEvent(2L, 3L, "PENDING", OrderStatus.CONFIRMED));
+        listener.onStatusChanged(new OrderStatusChangedEvent(3L, 3L, "CONFIRMED", OrderStatus.CANCELLED));
+
+        assertThat(registry.get("orders.status.transitions").tags("from", "PENDING", "to", "CONFIRMED")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("orders.status.transitions").tags("from", "CONFIRMED", "to", "CANCELLED")
+                .counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * @file: OrderExportServiceImplTest.java
+ * @description: Tests for CSV field escaping of the order export
+ * @dependencies: JUnit 5, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderExportServiceImplTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertThat(OrderExportServiceImpl.escapeCsv("Иван Петров")).isEqualTo("Иван Петров");
+        assertThat(OrderExportServiceImpl.escapeCsv("")).isEmpty();
+    }
+
+    @Test
+    void separatorsAndQuotesAreQuoted() {
+        assertThat(OrderExportServiceImpl.escapeCsv("Москва, Тверская 1")).isEqualTo("\"Москва, Тверская 1\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("стул \"Офис\"")).isEqualTo("\"стул \"\"Офис\"\"\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("строка\nвторая")).isEqualTo("\"строка\nвторая\"");
+    }
+
+    @Test
+    void formulaLikeValuesAreNeutralized() {
+        assertThat(OrderExportServiceImpl.escapeCsv("=HYPERLINK(\"http://evil\",\"x\")"))
+                .isEqualTo("\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("+79990000000")).isEqualTo("\"'+79990000000\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("-1+1")).isEqualTo("\"'-1+1\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("@SUM(A1)")).isEqualTo("\"'@SUM(A1)\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("\t=1")).isEqualTo("\"'\t=1\"");
+        assertThat(OrderExportServiceImpl.escapeCsv("\r=1")).isEqualTo("\"'\r=1\"");
+    }
+}
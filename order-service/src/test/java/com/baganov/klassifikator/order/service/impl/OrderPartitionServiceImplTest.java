@@ -0,0 +1,225 @@
+/**
+ * @file: OrderPartitionServiceImplTest.java
+ * @description: Archives expired monthly partitions on a real PostgreSQL with the V017 schema
+ * @dependencies: JUnit 5, Testcontainers, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OrderPartitionServiceImplTest {
+
+    private static final int RETENTION_MONTHS = 24;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static PGSimpleDataSource dataSource;
+
+    @BeforeAll
+    static void createSchema() throws Exception {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+
+        // Tables as they were right before V017, reduced to the columns the migration reads
+        execute("""
+                CREATE TABLE organizations (id BIGSERIAL PRIMARY KEY, name VARCHAR(255));
+                CREATE TABLE products (id BIGSERIAL PRIMARY KEY, name VARCHAR(255));
+                CREATE TABLE orders (
+                    id BIGSERIAL PRIMARY KEY,
+                    organization_id BIGINT NOT NULL REFERENCES organizations(id),
+                    landing_id BIGINT,
+                    customer_name VARCHAR(255) NOT NULL,
+                    customer_phone VARCHAR(50) NOT NULL,
+                    customer_email VARCHAR(255),
+                    delivery_address TEXT,
+                    total_amount DECIMAL(10, 2) NOT NULL,
+                    status VARCHAR(50) DEFAULT 'PENDING',
+                    notes TEXT,
+                    comment TEXT,
+                    idempotency_key VARCHAR(255),
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                );
+                CREATE TABLE order_items (
+                    id BIGSERIAL PRIMARY KEY,
+                    order_id BIGINT NOT NULL REFERENCES orders(id),
+                    product_id BIGINT REFERENCES products(id),
+                    product_name VARCHAR(255) NOT NULL,
+                    product_price DECIMAL(10, 2) NOT NULL,
+                    quantity INT NOT NULL DEFAULT 1,
+                    subtotal DECIMAL(10, 2) NOT NULL
+                );
+                """);
+        execute(migration("V017__partition_orders_by_created_at.sql"));
+        execute(migration("V026__add_order_idempotency_request_hash.sql"));
+    }
+
+    @Test
+    void expiredPartitionIsArchivedAndDroppedTogetherWithItsItems() throws SQLException {
+        YearMonth expired = YearMonth.now().minusMonths(RETENTION_MONTHS + 2);
+        YearMonth kept = YearMonth.now();
+        String expiredSuffix = expired.format(DateTimeFormatter.ofPattern("'y'yyyy'm'MM"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT create_orders_partition(?)")) {
+                statement.setObject(1, expired.atDay(1));
+                statement.execute();
+            }
+            execute(connection, "INSERT INTO organizations (id, name) VALUES (1, 'Мебель') ON CONFLICT DO NOTHING");
+        }
+        long expiredOrder = insertOrder(expired.atDay(10).atTime(12, 0));
+        long keptOrder = insertOrder(kept.atDay(1).atTime(12, 0));
+
+        S3Client s3Client = mock(S3Client.class);
+        OrderPartitionServiceImpl service = service(s3Client);
+
+        List<String> archived = service.archiveExpiredPartitions();
+
+        assertThat(archived).containsExactly(expiredSuffix);
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertThat(tableExists("orders_" + expiredSuffix)).isFalse();
+        assertThat(tableExists("order_items_" + expiredSuffix)).isFalse();
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE id = " + expiredOrder)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE id = " + keptOrder)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM order_items WHERE order_id = " + keptOrder)).isEqualTo(1);
+
+        // Nothing left to archive on the next run
+        assertThat(service.archiveExpiredPartitions()).isEmpty();
+    }
+
+    @Test
+    void partitionLeftDetachedByFailedUploadIsArchivedOnNextRun() throws SQLException {
+        YearMonth expired = YearMonth.now().minusMonths(RETENTION_MONTHS + 3);
+        String expiredSuffix = expired.format(DateTimeFormatter.ofPattern("'y'yyyy'm'MM"));
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT create_orders_partition(?)")) {
+                statement.setObject(1, expired.atDay(1));
+                statement.execute();
+            }
+            execute(connection, "INSERT INTO organizations (id, name) VALUES (1, 'Мебель') ON CONFLICT DO NOTHING");
+        }
+        long archivedOrder = insertOrder(expired.atDay(10).atTime(12, 0));
+
+        S3Client failingS3 = mock(S3Client.class);
+        when(failingS3.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenThrow(SdkClientException.create("S3 is unavailable"));
+        OrderPartitionServiceImpl failing = service(failingS3);
+
+        assertThatThrownBy(failing::archiveExpiredPartitions).isInstanceOf(SdkClientException.class);
+
+        // Export runs on detached tables: a late write for the month goes to the default partition, not into them
+        assertThat(tableExists("orders_" + expiredSuffix)).isTrue();
+        assertThat(count("SELECT COUNT(*) FROM pg_class WHERE relispartition AND relname = 'orders_" + expiredSuffix + "'"))
+                .isZero();
+        long lateOrder = insertOrder(expired.atDay(20).atTime(12, 0));
+        assertThat(count("SELECT COUNT(*) FROM orders_default WHERE id = " + lateOrder)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM \"orders_" + expiredSuffix + "\" WHERE id = " + archivedOrder)).isEqualTo(1);
+
+        S3Client s3Client = mock(S3Client.class);
+        List<String> archived = service(s3Client).archiveExpiredPartitions();
+
+        assertThat(archived).containsExactly(expiredSuffix);
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertThat(tableExists("orders_" + expiredSuffix)).isFalse();
+        assertThat(tableExists("order_items_" + expiredSuffix)).isFalse();
+        assertThat(count("SELECT COUNT(*) FROM orders WHERE id = " + lateOrder)).isEqualTo(1);
+    }
+
+    private static OrderPartitionServiceImpl service(S3Client s3Client) {
+        OrderPartitionServiceImpl service = new OrderPartitionServiceImpl(dataSource, s3Client);
+        ReflectionTestUtils.setField(service, "retentionMonths", RETENTION_MONTHS);
+        ReflectionTestUtils.setField(service, "archiveBucket", "klassifikator");
+        ReflectionTestUtils.setField(service, "archivePrefix", "archive/orders");
+        return service;
+    }
+
+    private static long insertOrder(LocalDateTime createdAt) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement order = connection.prepareStatement("""
+                     INSERT INTO orders (organization_id, customer_name, customer_phone, total_amount, created_at)
+                     VALUES (1, 'Иван', '+79990000000', 100.00, ?)
+                     RETURNING id
+                     """)) {
+            order.setObject(1, createdAt);
+            long orderId;
+            try (ResultSet rs = order.executeQuery()) {
+                rs.next();
+                orderId = rs.getLong(1);
+            }
+            try (PreparedStatement item = connection.prepareStatement("""
+                    INSERT INTO order_items (order_id, order_created_at, product_name, product_price, quantity, subtotal)
+                    VALUES (?, ?, 'Стул', 100.00, 1, 100.00)
+                    """)) {
+                item.setLong(1, orderId);
+                item.setObject(2, createdAt);
+                item.executeUpdate();
+            }
+            return orderId;
+        }
+    }
+
+    private static boolean tableExists(String table) throws SQLException {
+        return count("SELECT COUNT(*) FROM pg_class WHERE relname = '" + table + "'") > 0;
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String migration(String name) throws Exception {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, sql);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
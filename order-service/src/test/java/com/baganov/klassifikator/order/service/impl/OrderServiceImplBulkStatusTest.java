@@ -0,0 +1,123 @@
+/**
+ * @file: OrderServiceImplBulkStatusTest.java
+ * @description: Tests for the filter mode of bulk order status updates
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderStatusBulkUpdateResponseDto;
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import com.baganov.klassifikator.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderServiceImplBulkStatusTest {
+
+    private static final long ORGANIZATION_ID = 3L;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @Test
+    void pendingFilterAlsoSelectsLegacyStatuses() {
+        when(orderRepository.lockStatusesByOrganizationAndStatus(
+                eq(ORGANIZATION_ID), eq("PENDING"), eq(true), anyCollection(), anyInt()))
+                .thenReturn(List.of(view(1L, "PENDING"), view(2L, "NEW")));
+
+        OrderStatusBulkUpdateResponseDto response = orderService.updateOrderStatuses(filter(OrderStatus.PENDING));
+
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.isTruncated()).isFalse();
+        verify(orderRepository).updateStatusByIds(eq(List.of(1L, 2L)), eq("CONFIRMED"), any());
+        verify(orderRepository).lockStatusesByOrganizationAndStatus(eq(ORGANIZATION_ID), eq("PENDING"), eq(true),
+                eq(List.of("PENDING", "CONFIRMED", "PROCESSING", "COMPLETED", "CANCELLED")),
+                anyInt());
+    }
+
+    @Test
+    void otherFiltersDoNotSelectLegacyStatuses() {
+        when(orderRepository.lockStatusesByOrganizationAndStatus(
+                anyLong(), anyString(), anyBoolean(), anyCollection(), anyInt())).thenReturn(List.of());
+
+        orderService.updateOrderStatuses(OrderStatusBulkUpdateRequestDto.builder()
+                .status(OrderStatus.COMPLETED)
+                .organizationId(ORGANIZATION_ID)
+                .currentStatus(OrderStatus.PROCESSING)
+                .build());
+
+        verify(orderRepository).lockStatusesByOrganizationAndStatus(
+                eq(ORGANIZATION_ID), eq("PROCESSING"), eq(false), anyCollection(), anyInt());
+    }
+
+    @Test
+    void filterMatchingMoreThanOneBatchIsReportedAsTruncated() {
+        List<OrderRepository.OrderStatusView> matching = new ArrayList<>();
+        LongStream.rangeClosed(1, 1001).forEach(id -> matching.add(view(id, "PENDING")));
+        when(orderRepository.lockStatusesByOrganizationAndStatus(
+                eq(ORGANIZATION_ID), eq("PENDING"), anyBoolean(), anyCollection(), eq(1001)))
+                .thenReturn(matching);
+
+        OrderStatusBulkUpdateResponseDto response = orderService.updateOrderStatuses(filter(OrderStatus.PENDING));
+
+        assertThat(response.isTruncated()).isTrue();
+        assertThat(response.getUpdated()).isEqualTo(1000);
+        assertThat(response.getResults()).hasSize(1000);
+    }
+
+    private static OrderStatusBulkUpdateRequestDto filter(OrderStatus currentStatus) {
+        return OrderStatusBulkUpdateRequestDto.builder()
+                .status(OrderStatus.CONFIRMED)
+                .organizationId(ORGANIZATION_ID)
+                .currentStatus(currentStatus)
+                .build();
+    }
+
+    private static OrderRepository.OrderStatusView view(Long id, String status) {
+        return new OrderRepository.OrderStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOrganizationId() {
+                return ORGANIZATION_ID;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+        };
+    }
+}
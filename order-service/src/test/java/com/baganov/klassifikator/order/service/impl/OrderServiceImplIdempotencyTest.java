@@ -0,0 +1,191 @@
+/**
+ * @file: OrderServiceImplIdempotencyTest.java
+ * @description: Regression tests for replaying order submissions with an Idempotency-Key
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import com.baganov.klassifikator.common.config.CacheConfig;
+import com.baganov.klassifikator.common.model.entity.Order;
+import com.baganov.klassifikator.common.model.entity.Product;
+import com.baganov.klassifikator.order.exception.IdempotencyKeyMismatchException;
+import com.baganov.klassifikator.order.mapper.OrderMapper;
+import com.baganov.klassifikator.order.model.dto.OrderDto;
+import com.baganov.klassifikator.order.model.dto.OrderItemRequestDto;
+import com.baganov.klassifikator.order.model.dto.OrderRequestDto;
+import com.baganov.klassifikator.order.repository.OrderItemRepository;
+import com.baganov.klassifikator.order.repository.OrderRepository;
+import com.baganov.klassifikator.order.repository.ProductRepository;
+import com.baganov.klassifikator.order.util.OrderRequestFingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderServiceImplIdempotencyTest {
+
+    private static final long ORGANIZATION_ID = 7L;
+    private static final long ORDER_ID = 1001L;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private final Cache idempotencyCache = redisLikeCache(CacheConfig.ORDER_IDEMPOTENCY_CACHE);
+    private Order savedOrder;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheConfig.ORDER_IDEMPOTENCY_CACHE)).thenReturn(idempotencyCache);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(Product.builder()
+                .id(invocation.getArgument(0))
+                .name("Стул")
+                .price(new BigDecimal("100.00"))
+                .build()));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(ORDER_ID);
+            order.setCreatedAt(LocalDateTime.now());
+            savedOrder = order;
+            return order;
+        });
+        when(orderRepository.findById(ORDER_ID)).thenAnswer(invocation -> Optional.ofNullable(savedOrder));
+        when(orderRepository.findIdempotencyKey(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(orderRepository.findByOrganizationIdAndIdempotencyKey(anyLong(), anyString())).thenReturn(Optional.empty());
+        when(orderItemRepository.findByOrderId(anyLong())).thenReturn(List.of());
+        when(orderMapper.toDto(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            return OrderDto.builder().id(order.getId()).organizationId(order.getOrganizationId()).build();
+        });
+    }
+
+    @Test
+    void replayWithSameKeyReturnsOriginalOrderFromCache() {
+        OrderDto first = orderService.createOrder(request(2), "key-1");
+        OrderDto replay = orderService.createOrder(request(2), "key-1");
+
+        assertThat(replay.getId()).isEqualTo(first.getId()).isEqualTo(ORDER_ID);
+        verify(orderRepository, times(1)).save(any(Order.class));
+        // The second lookup is answered by the cache, not by the key table
+        verify(orderRepository, times(1)).findIdempotencyKey(ORGANIZATION_ID, "key-1");
+    }
+
+    @Test
+    void sameKeyWithDifferentPayloadIsRejected() {
+        orderService.createOrder(request(2), "key-2");
+
+        assertThatThrownBy(() -> orderService.createOrder(request(3), "key-2"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verify(orderRepository, times(1)).save(any(Order.class));
+    }
+
+    @Test
+    void replayAfterCacheExpiryIsCheckedAgainstStoredHash() {
+        OrderRequestDto request = request(1);
+        stubStoredKey("key-3", OrderRequestFingerprint.of(request));
+
+        assertThat(orderService.createOrder(request, "key-3").getId()).isEqualTo(ORDER_ID);
+        assertThatThrownBy(() -> orderService.createOrder(request(5), "key-3"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void keyRecordedWithoutHashIsReplayed() {
+        stubStoredKey("key-4", null);
+
+        assertThat(orderService.createOrder(request(4), "key-4").getId()).isEqualTo(ORDER_ID);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    private void stubStoredKey(String key, String requestHash) {
+        when(orderRepository.findIdempotencyKey(eq(ORGANIZATION_ID), eq(key))).thenReturn(Optional.of(
+                new OrderRepository.IdempotencyKeyView() {
+                    @Override
+                    public Long getOrderId() {
+                        return ORDER_ID;
+                    }
+
+                    @Override
+                    public String getRequestHash() {
+                        return requestHash;
+                    }
+                }));
+        savedOrder = Order.builder()
+                .id(ORDER_ID)
+                .organizationId(ORGANIZATION_ID)
+                .build();
+    }
+
+    private static OrderRequestDto request(int quantity) {
+        return OrderRequestDto.builder()
+                .organizationId(ORGANIZATION_ID)
+                .customerName("Иван")
+                .customerPhone("+79990000000")
+                .items(List.of(OrderItemRequestDto.builder().productId(5L).quantity(quantity).build()))
+                .build();
+    }
+
+    /**
+     * In-memory cache that round-trips values through the Redis value serializer, as RedisCache does
+     */
+    private static Cache redisLikeCache(String name) {
+        GenericJackson2JsonRedisSerializer serializer = CacheConfig.valueSerializer();
+        return new ConcurrentMapCache(name, new ConcurrentHashMap<>(), false) {
+            @Override
+            protected Object toStoreValue(Object userValue) {
+                return serializer.serialize(userValue);
+            }
+
+            @Override
+            protected Object fromStoreValue(Object storeValue) {
+                return storeValue == null ? null : serializer.deserialize((byte[]) storeValue);
+            }
+        };
+    }
+}
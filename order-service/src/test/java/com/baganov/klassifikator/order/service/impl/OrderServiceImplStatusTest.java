@@ -0,0 +1,136 @@
+/**
+ * @file: OrderServiceImplStatusTest.java
+ * @description: Tests for status transition checks of single order status updates
+ * @dependencies: JUnit 5, Mockito, AssertJ
+ * @created: 2026-10-19
+ */
+package com.baganov.klassifikator.order.service.impl;
+
+import com.baganov.klassifikator.common.model.entity.Order;
+import com.baganov.klassifikator.order.event.OrderStatusChangedEvent;
+import com.baganov.klassifikator.order.exception.InvalidStatusTransitionException;
+import com.baganov.klassifikator.order.exception.OrderNotFoundException;
+import com.baganov.klassifikator.order.mapper.OrderMapper;
+import com.baganov.klassifikator.order.model.enums.OrderStatus;
+import com.baganov.klassifikator.order.repository.OrderItemRepository;
+import com.baganov.klassifikator.order.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OrderServiceImplStatusTest {
+
+    private static final long ORDER_ID = 42L;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    @Test
+    void finalStatusCannotBeReopened() {
+        givenOrderIn("COMPLETED");
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.PENDING))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void cancelledOrderCannotBeCompleted() {
+        givenOrderIn("CANCELLED");
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.COMPLETED))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+    }
+
+    @Test
+    void allowedTransitionIsSavedAndPublished() {
+        Order order = givenOrderIn("PENDING");
+
+        orderService.updateOrderStatus(ORDER_ID, OrderStatus.CONFIRMED);
+
+        assertThat(order.getStatus()).isEqualTo("CONFIRMED");
+        verify(orderRepository).save(order);
+        verify(eventPublisher).publishEvent(
+                new OrderStatusChangedEvent(ORDER_ID, 3L, "PENDING", OrderStatus.CONFIRMED));
+    }
+
+    @Test
+    void legacyStatusIsTreatedAsPending() {
+        givenOrderIn("NEW");
+
+        orderService.updateOrderStatus(ORDER_ID, OrderStatus.PROCESSING);
+
+        verify(eventPublisher).publishEvent(
+                new OrderStatusChangedEvent(ORDER_ID, 3L, "NEW", OrderStatus.PROCESSING));
+    }
+
+    @Test
+    void sameStatusIsNoChange() {
+        givenOrderIn("PROCESSING");
+
+        orderService.updateOrderStatus(ORDER_ID, OrderStatus.PROCESSING);
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void missingOrderIsNotFound() {
+        when(orderRepository.lockStatusesByIds(List.of(ORDER_ID))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(ORDER_ID, OrderStatus.CONFIRMED))
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+
+    private Order givenOrderIn(String status) {
+        Order order = Order.builder().id(ORDER_ID).organizationId(3L).status(status).build();
+        when(orderRepository.lockStatusesByIds(List.of(ORDER_ID))).thenReturn(List.of(
+                new OrderRepository.OrderStatusView() {
+                    @Override
+                    public Long getId() {
+                        return ORDER_ID;
+                    }
+
+                    @Override
+                    public Long getOrganizationId() {
+                        return 3L;
+                    }
+
+                    @Override
+                    public String getStatus() {
+                        return status;
+                    }
+                }));
+        when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderItemRepository.findByOrderId(ORDER_ID)).thenReturn(List.of());
+        return order;
+    }
+}
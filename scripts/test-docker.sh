@@ -148,7 +148,7 @@ show_status() {
     
     echo -e "\n${BLUE}🧪 Тестирование:${NC}"
     echo -e "  # Синхронизация Google Sheets:"
-    echo -e "  curl -X POST 'http://localhost:8085/api/v1/integration/google-sheets/sync-all?sheetName=Organizations'"
+    echo -e "  curl -X POST 'http://localhost:8085/api/v1/integration/google-sheets/sync-all?sheetName=Organizations&wait=true'"
     echo -e ""
     echo -e "  # Список лендингов:"
     echo -e "  curl http://localhost:8081/api/v1/landings | jq ."
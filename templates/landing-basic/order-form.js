@@ -6,6 +6,11 @@
 // Shopping Cart State
 let cart = [];
 
+// Idempotency key of the order being submitted and the request body it was issued for:
+// reused only when exactly the same order is retried after a network error or a 5xx
+let pendingOrderKey = null;
+let pendingOrderBody = null;
+
 // ============================================================================
 // CRITICAL: Define functions as GLOBAL IMMEDIATELY to work with inline onclick
 // ============================================================================
@@ -234,6 +239,14 @@ document.addEventListener('DOMContentLoaded', function() {
     }
 });
 
+// Generate idempotency key (crypto.randomUUID is only available in secure contexts)
+function generateIdempotencyKey() {
+    if (window.crypto && typeof window.crypto.randomUUID === 'function') {
+        return window.crypto.randomUUID();
+    }
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}-${Math.random().toString(36).slice(2)}`;
+}
+
 // Submit order
 async function submitOrder(event) {
     event.preventDefault();
@@ -261,16 +274,29 @@ async function submitOrder(event) {
             }))
         };
         
+        // A changed cart or form is a different order, the server would reject the old key with 422
+        const body = JSON.stringify(orderData);
+        if (!pendingOrderKey || body !== pendingOrderBody) {
+            pendingOrderKey = generateIdempotencyKey();
+            pendingOrderBody = body;
+        }
+        
         // Send order to API
         const response = await fetch(`${window.API_URL}/orders`, {
             method: 'POST',
             headers: {
-                'Content-Type': 'application/json'
+                'Content-Type': 'application/json',
+                'Idempotency-Key': pendingOrderKey
             },
-            body: JSON.stringify(orderData)
+            body: body
         });
         
         if (!response.ok) {
+            // The request was rejected, not lost: the next attempt is a new submission
+            if (response.status >= 400 && response.status < 500) {
+                pendingOrderKey = null;
+                pendingOrderBody = null;
+            }
             throw new Error('Ошибка при отправке заказа');
         }
         
@@ -287,6 +313,10 @@ async function submitOrder(event) {
         // Success!
         window.showNotification('Заказ успешно оформлен! Наш менеджер свяжется с вами в ближайшее время.', 'success');
         
+        // Next order gets a fresh idempotency key
+        pendingOrderKey = null;
+        pendingOrderBody = null;
+        
         // Clear cart
         cart = [];
         saveCart();